@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import org.example.config.AsyncGlobalConfig;
+import org.example.config.AsyncProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * @Async 执行器对比：一批阻塞任务（每个 sleep 10ms，模拟 HelloController 中的耗时接口）全部完成的耗时
+ * virtual=false 为平台线程池（核心 5 / 最大 100 / 队列 300），virtual=true 为虚拟线程（需 Java 21+，否则回退为线程池）
+ * 配合 -prof gc 对比内存分配
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AsyncExecutorBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtual;
+
+    @Param({"200"})
+    private int tasks;
+
+    private Executor executor;
+
+    @Setup
+    public void setup() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", String.valueOf(virtual));
+        executor = new AsyncGlobalConfig(environment, new AsyncProperties()).getAsyncExecutor();
+        MDC.put("traceId", "4bf92f3577b34da6a3ce929d0e0e4736");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        MDC.clear();
+        if (executor instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+
+    @Benchmark
+    public void blockingBatch() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.benchmark;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author nanak
+ *
+ * JMH 结果对比报告：读取基线与本次的 JSON 结果（-rf json），按 基准名 + 参数 对齐，
+ * 输出 Markdown 表格；变化超过阈值且变差的记为回归，存在回归时以退出码 1 结束
+ *
+ * 用法：BenchmarkReport <baseline.json> <current.json> <thresholdPercent> <report.md>
+ */
+public final class BenchmarkReport {
+
+    private BenchmarkReport() {
+    }
+
+    record Score(String mode, double score, double error, String unit) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("usage: BenchmarkReport <baseline.json> <current.json> <thresholdPercent> <report.md>");
+            System.exit(2);
+        }
+        Path baselinePath = Path.of(args[0]);
+        if (!Files.exists(baselinePath)) {
+            System.err.println("baseline not found: " + baselinePath);
+            System.exit(2);
+        }
+        Map<String, Score> baseline = read(baselinePath);
+        Map<String, Score> current = read(Path.of(args[1]));
+        double threshold = Double.parseDouble(args[2]);
+
+        StringBuilder report = new StringBuilder();
+        report.append("# Benchmark comparison\n\n")
+                .append("baseline: `").append(args[0]).append("`, current: `").append(args[1])
+                .append("`, threshold: ").append(threshold).append("%\n\n")
+                .append("| Benchmark | Mode | Baseline | Current | Unit | Change | Status |\n")
+                .append("|---|---|---:|---:|---|---:|---|\n");
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.unit().equals(now.unit())) {
+                report.append(row(entry.getKey(), null, now, "-", "new"));
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score() * 100;
+            // 吞吐量越高越好，其余模式（耗时）越低越好
+            double worse = "thrpt".equals(now.mode()) ? -change : change;
+            String status = "ok";
+            if (worse > threshold) {
+                status = "REGRESSION";
+                regressions++;
+            } else if (worse < -threshold) {
+                status = "improved";
+            }
+            report.append(row(entry.getKey(), before, now, String.format("%+.1f%%", change), status));
+        }
+        for (String name : baseline.keySet()) {
+            if (!current.containsKey(name)) {
+                report.append(row(name, baseline.get(name), null, "-", "missing"));
+            }
+        }
+        report.append("\n").append(regressions).append(" regression(s)\n");
+
+        Files.writeString(Path.of(args[3]), report, StandardCharsets.UTF_8);
+        System.out.print(report);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static String row(String name, Score baseline, Score current, String change, String status) {
+        Score known = current != null ? current : baseline;
+        return "| " + name + " | " + known.mode() + " | " + format(baseline) + " | " + format(current) + " | "
+                + known.unit() + " | " + change + " | " + status + " |\n";
+    }
+
+    private static String format(Score score) {
+        if (score == null) {
+            return "-";
+        }
+        return String.format("%.3f ± %.3f", score.score(), Double.isNaN(score.error()) ? 0 : score.error());
+    }
+
+    /**
+     * 读取 JMH JSON 结果，key 为 "基准名[参数=值,...]"
+     */
+    private static Map<String, Score> read(Path path) throws IOException {
+        JSONArray results = JSON.parseArray(Files.readString(path, StandardCharsets.UTF_8));
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            JSONObject result = results.getJSONObject(i);
+            String name = result.getString("benchmark").replace("org.example.benchmark.", "");
+            JSONObject params = result.getJSONObject("params");
+            if (params != null && !params.isEmpty()) {
+                StringBuilder key = new StringBuilder(name).append('[');
+                new TreeMap<>(params).forEach((k, v) -> key.append(k).append('=').append(v).append(','));
+                key.setCharAt(key.length() - 1, ']');
+                name = key.toString();
+            }
+            JSONObject metric = result.getJSONObject("primaryMetric");
+            Double error = metric.getDouble("scoreError");
+            scores.put(name, new Score(result.getString("mode"), metric.getDoubleValue("score"),
+                    error != null ? error : Double.NaN, metric.getString("scoreUnit")));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.benchmark;
+
+import org.example.utils.BulkDesensitizer;
+import org.example.utils.MaskedColumn;
+import org.example.utils.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * 批量脱敏吞吐（每秒脱敏的值数量）：
+ * perValue 逐个调用 StringUtil.sensitive；bulk 按列识别类型后写入复用的 MaskedColumn；bulkParallel 在此基础上分块并行
+ * column 为 phone（手机号列）、idCard（身份证号列）、mixed（各类型混合，逐值识别）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkDesensitizerBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"phone", "idCard", "mixed"})
+    public String column;
+
+    private List<String> values;
+    private final MaskedColumn out = new MaskedColumn(ROWS, ROWS * 20);
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        String[] mixed = {"user@example.com", "010-12345678", "6222021234567890123", "京A12345", "张三",
+                "北京市朝阳区建国路88号", "hello"};
+        values = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            String phone = "1" + (3 + random.nextInt(7)) + String.format("%09d", random.nextInt(1_000_000_000));
+            String idCard = String.format("%06d", 110000 + random.nextInt(800000)) + (1950 + random.nextInt(70))
+                    + String.format("%02d%02d", 1 + random.nextInt(12), 1 + random.nextInt(28))
+                    + String.format("%04d", random.nextInt(10000));
+            values.add(switch (column) {
+                case "phone" -> phone;
+                case "idCard" -> idCard;
+                default -> i % 3 == 0 ? phone : i % 3 == 1 ? idCard : mixed[random.nextInt(mixed.length)];
+            });
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void perValue(Blackhole blackhole) {
+        for (String value : values) {
+            blackhole.consume(StringUtil.sensitive(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public MaskedColumn bulk() {
+        out.clear();
+        BulkDesensitizer.mask(values, BulkDesensitizer.detectType(values), out);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public MaskedColumn bulkParallel() {
+        out.clear();
+        BulkDesensitizer.maskParallel(values, BulkDesensitizer.detectType(values), out, BulkDesensitizer.DEFAULT_CHUNK_SIZE);
+        return out;
+    }
+}
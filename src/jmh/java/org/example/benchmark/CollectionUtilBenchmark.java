@@ -0,0 +1,58 @@
+package org.example.benchmark;
+
+import org.example.utils.ToolKit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * CollectionUtil 基准（两个 1000 元素、一半重叠的列表）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollectionUtilBenchmark {
+
+    private List<Integer> first;
+    private List<Integer> second;
+
+    @Setup
+    public void setup() {
+        first = new ArrayList<>();
+        second = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            first.add(i);
+            second.add(i + 500);
+        }
+    }
+
+    @Benchmark
+    public boolean isNotEmpty() {
+        return ToolKit.COLLECTION.isNotEmpty(first);
+    }
+
+    @Benchmark
+    public List<Integer> distinct() {
+        return ToolKit.COLLECTION.distinct(first);
+    }
+
+    @Benchmark
+    public List<Integer> intersection() {
+        return ToolKit.COLLECTION.intersection(first, second);
+    }
+
+    @Benchmark
+    public List<Integer> union() {
+        return ToolKit.COLLECTION.union(first, second);
+    }
+}
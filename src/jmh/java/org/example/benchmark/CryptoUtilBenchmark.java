@@ -0,0 +1,39 @@
+package org.example.benchmark;
+
+import org.example.utils.ToolKit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * CryptoUtil 基准
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CryptoUtilBenchmark {
+
+    private final String input = "{\"orderNo\":\"A20260101000001\",\"userId\":10086,\"amount\":199.00}";
+
+    @Benchmark
+    public String md5() {
+        return ToolKit.CRYPTO.md5(input);
+    }
+
+    @Benchmark
+    public String sha256() {
+        return ToolKit.CRYPTO.sha256(input);
+    }
+
+    @Benchmark
+    public String randomCode() {
+        return ToolKit.CRYPTO.randomCode(6);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.benchmark;
+
+import org.example.utils.ToolKit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * DateUtil 基准
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateUtilBenchmark {
+
+    private final Date start = new Date(1_700_000_000_000L);
+    private final Date end = new Date(1_700_000_000_000L + TimeUnit.DAYS.toMillis(42));
+
+    @Benchmark
+    public String format() {
+        return ToolKit.DATE.format(start);
+    }
+
+    @Benchmark
+    public String formatWithPattern() {
+        return ToolKit.DATE.format(start, "yyyy/MM/dd HH:mm");
+    }
+
+    @Benchmark
+    public String now() {
+        return ToolKit.DATE.now();
+    }
+
+    @Benchmark
+    public long betweenDay() {
+        return ToolKit.DATE.betweenDay(start, end);
+    }
+
+    @Benchmark
+    public Date offsetDay() {
+        return ToolKit.DATE.offsetDay(start, 7);
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.benchmark;
+
+import org.aspectj.lang.reflect.MethodSignature;
+import org.example.aop.annotation.Idempotent;
+import org.example.aop.aspect.IdempotentAspect;
+import org.example.aop.store.OffHeapIdempotencyStore;
+import org.example.aop.support.IdempotentKeyGenerator;
+import org.example.aop.support.IdempotentKeyGenerator.KeyMetadata;
+import org.example.aop.support.KeyHasher;
+import org.example.config.IdempotentProperties;
+import org.example.exception.BusinessException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * IdempotentAspect 基准（以复用的连接点直接调用通知）：
+ * keyHash 为 key 派生本身；firstRequest 为不重复请求的完整路径（占位 + 执行 + 完成），
+ * 16384 个 key 轮转、窗口 1 毫秒，轮转一圈时旧 key 已过期；duplicateRequest 为重复请求被拒绝的路径
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IdempotentAspectBenchmark {
+
+    private static final int KEY_COUNT = 1 << 14;
+
+    public record OrderRequest(String orderNo, long userId, List<String> items) {
+    }
+
+    public static class Service {
+        @Idempotent(window = 1, timeUnit = TimeUnit.MILLISECONDS)
+        public String submit(OrderRequest request) {
+            return "ok";
+        }
+
+        @Idempotent(key = "#request.orderNo")
+        public String submitByOrderNo(OrderRequest request) {
+            return "ok";
+        }
+    }
+
+    private IdempotentAspect aspect;
+    private IdempotentKeyGenerator generator;
+    private KeyMetadata metadata;
+    private Idempotent submit;
+    private Idempotent submitByOrderNo;
+    private StubJoinPoint submitJoinPoint;
+    private StubJoinPoint duplicateJoinPoint;
+    private OrderRequest[] requests;
+    private final Object[] args = new Object[1];
+    private int next;
+
+    @Setup
+    public void setup() throws Throwable {
+        aspect = new IdempotentAspect(new OffHeapIdempotencyStore(65536, 64), new IdempotentProperties());
+        generator = new IdempotentKeyGenerator();
+
+        Method submitMethod = Service.class.getMethod("submit", OrderRequest.class);
+        Method byOrderNoMethod = Service.class.getMethod("submitByOrderNo", OrderRequest.class);
+        submit = submitMethod.getAnnotation(Idempotent.class);
+        submitByOrderNo = byOrderNoMethod.getAnnotation(Idempotent.class);
+        submitJoinPoint = new StubJoinPoint(submitMethod, new String[]{"request"});
+        duplicateJoinPoint = new StubJoinPoint(byOrderNoMethod, new String[]{"request"});
+        metadata = generator.metadata((MethodSignature) submitJoinPoint.getSignature(), submit);
+
+        requests = new OrderRequest[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            requests[i] = new OrderRequest("A" + (20260101000000L + i), 10086L, List.of("book", "pen"));
+        }
+        // 占住重复请求使用的 key
+        aspect.around(duplicateJoinPoint.withArgs(requests[0]), submitByOrderNo);
+    }
+
+    @TearDown
+    public void tearDown() {
+        aspect.shutdown();
+    }
+
+    @Benchmark
+    public long keyHash() {
+        args[0] = requests[next++ & (KEY_COUNT - 1)];
+        KeyHasher hasher = generator.hash(metadata, args);
+        return hasher.hi() ^ hasher.lo();
+    }
+
+    @Benchmark
+    public Object firstRequest() throws Throwable {
+        return aspect.around(submitJoinPoint.withArgs(requests[next++ & (KEY_COUNT - 1)]), submit);
+    }
+
+    @Benchmark
+    public Object duplicateRequest() throws Throwable {
+        try {
+            return aspect.around(duplicateJoinPoint, submitByOrderNo);
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+}
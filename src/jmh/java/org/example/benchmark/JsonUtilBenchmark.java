@@ -0,0 +1,70 @@
+package org.example.benchmark;
+
+import org.example.utils.ToolKit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * JsonUtil 基准
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonUtilBenchmark {
+
+    public static class Order {
+        public String orderNo;
+        public long userId;
+        public double amount;
+        public List<String> items;
+
+        public Order() {
+        }
+
+        Order(String orderNo, long userId, double amount, List<String> items) {
+            this.orderNo = orderNo;
+            this.userId = userId;
+            this.amount = amount;
+            this.items = items;
+        }
+    }
+
+    private final Order order = new Order("A20260101000001", 10086L, 199.0, List.of("book", "pen", "paper"));
+    private final String json = ToolKit.JSON.toJsonString(order);
+    private final String jsonArray = "[" + json + "," + json + "," + json + "]";
+
+    @Benchmark
+    public String toJsonString() {
+        return ToolKit.JSON.toJsonString(order);
+    }
+
+    @Benchmark
+    public Order parseObject() {
+        return ToolKit.JSON.parseObject(json, Order.class);
+    }
+
+    @Benchmark
+    public List<Order> toList() {
+        return ToolKit.JSON.toList(jsonArray, Order.class);
+    }
+
+    @Benchmark
+    public Map<String, Object> toMap() {
+        return ToolKit.JSON.toMap(json);
+    }
+
+    @Benchmark
+    public Object toJsonObject() {
+        return ToolKit.JSON.toJsonObject(order);
+    }
+}
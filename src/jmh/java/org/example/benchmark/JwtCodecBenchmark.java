@@ -0,0 +1,86 @@
+package org.example.benchmark;
+
+import cn.hutool.jwt.JWT;
+import cn.hutool.jwt.JWTUtil;
+import cn.hutool.jwt.signers.JWTSignerUtil;
+import org.example.utils.CompactJwtCodec;
+import org.example.utils.JwtKeyRing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * JWT 编解码：hutool 为原 JwtUtil 的 Hutool 路径（每次 key.getBytes()、新建签名器、构建 JSON 树），
+ * compact 为 CompactJwtCodec（线程内复用 Mac 与缓冲区），keyRingDecode 为带 kid 的 token 经 JwtKeyRing 取密钥后验签，
+ * rotationInterval 越短保留的密钥越多（7 天有效期：P1D 约 10 个，PT1H 约 170 个），验签开销应保持不变
+ * 配合 -prof gc 查看每次调用的分配字节数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtCodecBenchmark {
+
+    private static final String KEY = "Xe1k1Gd6Fv1fVFtxeM0V3zVFKJquVqsxwXWlO3EJGHCy0UJzJjkwjBPo1JADH1LV";
+
+    @Param({"P1D", "PT1H"})
+    private String rotationInterval;
+
+    private CompactJwtCodec codec;
+    private JwtKeyRing keyRing;
+    private String token;
+    private String kidToken;
+    private long expire;
+
+    @Setup
+    public void setup() {
+        codec = new CompactJwtCodec(KEY.getBytes());
+        expire = System.currentTimeMillis() + 7200 * 1000;
+        token = codec.encode(10086L, expire);
+        keyRing = new JwtKeyRing(KEY.getBytes(), Duration.parse(rotationInterval), Duration.ofDays(7));
+        kidToken = keyRing.signer(System.currentTimeMillis()).encode(10086L, expire);
+    }
+
+    @Benchmark
+    public String hutoolEncode() {
+        return JWT.create()
+                .setPayload("userId", 10086L)
+                .setPayload("expire", expire)
+                .setKey(KEY.getBytes())
+                .sign();
+    }
+
+    @Benchmark
+    public String compactEncode() {
+        return codec.encode(10086L, expire);
+    }
+
+    @Benchmark
+    public Map<String, Object> hutoolDecode() {
+        JWT jwt = JWTUtil.parseToken(token);
+        if (!jwt.verify(JWTSignerUtil.hs256(KEY.getBytes()))) {
+            throw new IllegalStateException();
+        }
+        return jwt.getPayloads();
+    }
+
+    @Benchmark
+    public CompactJwtCodec.Claims compactDecode() {
+        return codec.decode(token);
+    }
+
+    @Benchmark
+    public CompactJwtCodec.Claims keyRingDecode() {
+        return keyRing.verifier(CompactJwtCodec.kid(kidToken)).decode(kidToken);
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.benchmark;
+
+import org.example.utils.ToolKit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * JwtUtil 基准
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtUtilBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        token = ToolKit.JWT.generateAccessToken(10086L);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return ToolKit.JWT.generateAccessToken(10086L);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return ToolKit.JWT.validateToken(token);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseToken() {
+        return ToolKit.JWT.parseToken(token);
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.benchmark;
+
+import org.example.utils.ReflectUtil;
+import org.example.utils.ToolKit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * ReflectUtil 基准
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReflectUtilBenchmark {
+
+    public static class User {
+        private Long id = 1L;
+        private String name = "nanak";
+        private String email;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+    }
+
+    public static class UserVO {
+        private Long id;
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    private final User user = new User();
+
+    @Benchmark
+    public UserVO copyProperties() {
+        return ReflectUtil.copyProperties(user, UserVO.class);
+    }
+
+    @Benchmark
+    public String[] getNullPropertyNames() {
+        return ReflectUtil.getNullPropertyNames(user);
+    }
+
+    @Benchmark
+    public Object getFieldValue() throws ReflectiveOperationException {
+        return ToolKit.REFLECT.getFieldValue(user, "name");
+    }
+
+    @Benchmark
+    public Object invokeMethod() throws ReflectiveOperationException {
+        return ToolKit.REFLECT.invokeMethod(user, "getName", new Object[0]);
+    }
+}
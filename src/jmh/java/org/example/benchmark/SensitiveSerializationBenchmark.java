@@ -0,0 +1,108 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.sensitive.annotation.Sensitive;
+import org.example.utils.SensitiveType;
+import org.example.utils.StringUtil;
+import org.example.utils.ToolKit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * 序列化时脱敏：
+ * plain 为未标注 @Sensitive 的对象（基线，不应有额外开销）；annotated 为标注后的对象，序列化时脱敏；
+ * manualCopy 为原做法：先复制对象并逐字段调用 StringUtil.sensitive，再序列化
+ * 配合 -prof gc 查看每次调用的分配字节数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SensitiveSerializationBenchmark {
+
+    public static class PlainUser {
+        public long id;
+        public String name;
+        public String phone;
+        public String idCard;
+        public String email;
+
+        public PlainUser() {
+        }
+
+        PlainUser(long id, String name, String phone, String idCard, String email) {
+            this.id = id;
+            this.name = name;
+            this.phone = phone;
+            this.idCard = idCard;
+            this.email = email;
+        }
+    }
+
+    public static class MaskedUser {
+        public long id;
+        @Sensitive(type = SensitiveType.CHINESE_NAME)
+        public String name;
+        @Sensitive(type = SensitiveType.MOBILE_PHONE)
+        public String phone;
+        @Sensitive(type = SensitiveType.ID_CARD)
+        public String idCard;
+        @Sensitive(type = SensitiveType.EMAIL)
+        public String email;
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PlainUser plain = new PlainUser(10086L, "张三", "13812345678", "110101199003077777", "user@example.com");
+    private final MaskedUser annotated = new MaskedUser();
+
+    {
+        annotated.id = plain.id;
+        annotated.name = plain.name;
+        annotated.phone = plain.phone;
+        annotated.idCard = plain.idCard;
+        annotated.email = plain.email;
+    }
+
+    private PlainUser maskedCopy() {
+        return new PlainUser(plain.id, StringUtil.sensitive(plain.name), StringUtil.sensitive(plain.phone),
+                StringUtil.sensitive(plain.idCard), StringUtil.sensitive(plain.email));
+    }
+
+    @Benchmark
+    public String fastjsonPlain() {
+        return ToolKit.JSON.toJsonString(plain);
+    }
+
+    @Benchmark
+    public String fastjsonAnnotated() {
+        return ToolKit.JSON.toJsonString(annotated);
+    }
+
+    @Benchmark
+    public String fastjsonManualCopy() {
+        return ToolKit.JSON.toJsonString(maskedCopy());
+    }
+
+    @Benchmark
+    public String jacksonPlain() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(plain);
+    }
+
+    @Benchmark
+    public String jacksonAnnotated() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(annotated);
+    }
+
+    @Benchmark
+    public String jacksonManualCopy() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(maskedCopy());
+    }
+}
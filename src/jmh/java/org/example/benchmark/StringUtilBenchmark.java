@@ -0,0 +1,61 @@
+package org.example.benchmark;
+
+import org.example.utils.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * StringUtil 基准，sensitive 按输入类型分别测量；sensitiveMixed 每次调用依次处理 MIXED 中的全部类型（含不匹配任何类型的输入）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StringUtilBenchmark {
+
+    @Param({"13812345678", "110101199003077777", "user@example.com", "010-12345678",
+            "6222021234567890123", "京A12345", "张三", "1234567", "北京市朝阳区建国路88号", "hello"})
+    public String input;
+
+    private static final String[] MIXED = {"13812345678", "110101199003077777", "user@example.com", "010-12345678",
+            "6222021234567890123", "京A12345", "张三", "1234567", "北京市朝阳区建国路88号", "hello",
+            " order-2024-001 ", "user_name@localhost", "19912345678X", "Hello World 2024"};
+
+    @Benchmark
+    public String sensitive() {
+        return StringUtil.sensitive(input);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(14)
+    public void sensitiveMixed(Blackhole blackhole) {
+        for (String value : MIXED) {
+            blackhole.consume(StringUtil.sensitive(value));
+        }
+    }
+
+    @Benchmark
+    public String concat() {
+        return StringUtil.concat(true, input, null, "-", input);
+    }
+
+    @Benchmark
+    public String join() {
+        return StringUtil.join(",", input, input, input);
+    }
+
+    @Benchmark
+    public String upperFirst() {
+        return StringUtil.upperFirst(input);
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.benchmark;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.aspectj.lang.reflect.SourceLocation;
+import org.aspectj.runtime.internal.AroundClosure;
+
+import java.lang.reflect.Method;
+
+/**
+ * @author nanak
+ *
+ * 基准测试用的可复用连接点：proceed 直接返回固定结果，参数可在每次调用前替换
+ * 用于单独测量切面通知的开销（不含 Spring 代理与连接点构造）
+ */
+final class StubJoinPoint implements ProceedingJoinPoint {
+
+    private final StubSignature signature;
+    private final Object result = "ok";
+    private Object[] args = new Object[0];
+
+    StubJoinPoint(Method method, String[] parameterNames) {
+        this.signature = new StubSignature(method, parameterNames);
+    }
+
+    StubJoinPoint withArgs(Object... args) {
+        this.args = args;
+        return this;
+    }
+
+    @Override
+    public void set$AroundClosure(AroundClosure arc) {
+    }
+
+    @Override
+    public Object proceed() {
+        return result;
+    }
+
+    @Override
+    public Object proceed(Object[] args) {
+        return result;
+    }
+
+    @Override
+    public String toShortString() {
+        return signature.toShortString();
+    }
+
+    @Override
+    public String toLongString() {
+        return signature.toLongString();
+    }
+
+    @Override
+    public Object getThis() {
+        return null;
+    }
+
+    @Override
+    public Object getTarget() {
+        return null;
+    }
+
+    @Override
+    public Object[] getArgs() {
+        return args;
+    }
+
+    @Override
+    public Signature getSignature() {
+        return signature;
+    }
+
+    @Override
+    public SourceLocation getSourceLocation() {
+        return null;
+    }
+
+    @Override
+    public String getKind() {
+        return METHOD_EXECUTION;
+    }
+
+    @Override
+    public StaticPart getStaticPart() {
+        return null;
+    }
+
+    private static final class StubSignature implements MethodSignature {
+        private final Method method;
+        private final String[] parameterNames;
+
+        StubSignature(Method method, String[] parameterNames) {
+            this.method = method;
+            this.parameterNames = parameterNames;
+        }
+
+        @Override
+        public Class getReturnType() {
+            return method.getReturnType();
+        }
+
+        @Override
+        public Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public Class[] getParameterTypes() {
+            return method.getParameterTypes();
+        }
+
+        @Override
+        public String[] getParameterNames() {
+            return parameterNames;
+        }
+
+        @Override
+        public Class[] getExceptionTypes() {
+            return method.getExceptionTypes();
+        }
+
+        @Override
+        public String toShortString() {
+            return method.getName();
+        }
+
+        @Override
+        public String toLongString() {
+            return method.toString();
+        }
+
+        @Override
+        public String getName() {
+            return method.getName();
+        }
+
+        @Override
+        public int getModifiers() {
+            return method.getModifiers();
+        }
+
+        @Override
+        public Class getDeclaringType() {
+            return method.getDeclaringClass();
+        }
+
+        @Override
+        public String getDeclaringTypeName() {
+            return method.getDeclaringClass().getName();
+        }
+    }
+}
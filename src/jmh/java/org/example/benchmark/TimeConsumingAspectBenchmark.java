@@ -0,0 +1,75 @@
+package org.example.benchmark;
+
+import org.example.aop.annotation.TimeConsuming;
+import org.example.aop.aspect.TimeConsumingAspect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * TimeConsumingAspect 通知开销：
+ * bareCall 直接调用；adviceOnly 以复用的连接点直接调用通知（通知本身的开销）；
+ * advisedCall 经 Spring AOP 代理调用（包含代理与连接点构造的开销）
+ * 配合 -prof gc 查看每次调用的分配字节数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimeConsumingAspectBenchmark {
+
+    private Service bare;
+    private Service advised;
+    private TimeConsumingAspect aspect;
+    private TimeConsuming annotation;
+    private StubJoinPoint joinPoint;
+    private long counter;
+
+    public static class Service {
+        private long value;
+
+        @TimeConsuming(threshold = 1000)
+        public long work(long input) {
+            value += input;
+            return value;
+        }
+    }
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        bare = new Service();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Service());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new TimeConsumingAspect());
+        advised = factory.getProxy();
+
+        aspect = new TimeConsumingAspect();
+        Method method = Service.class.getMethod("work", long.class);
+        annotation = method.getAnnotation(TimeConsuming.class);
+        joinPoint = new StubJoinPoint(method, new String[]{"input"});
+    }
+
+    @Benchmark
+    public long bareCall() {
+        return bare.work(++counter);
+    }
+
+    @Benchmark
+    public Object adviceOnly() throws Throwable {
+        return aspect.around(joinPoint, annotation);
+    }
+
+    @Benchmark
+    public long advisedCall() {
+        return advised.work(++counter);
+    }
+}
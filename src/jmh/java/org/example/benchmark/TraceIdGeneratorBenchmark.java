@@ -0,0 +1,49 @@
+package org.example.benchmark;
+
+import org.example.trace.W3cTraceIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * traceId 生成开销：uuid 为原实现（UUID.randomUUID() 去横线），w3c 为 W3cTraceIdGenerator
+ * 4 线程并发时可以看出 SecureRandom 的锁竞争
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TraceIdGeneratorBenchmark {
+
+    private final W3cTraceIdGenerator generator = new W3cTraceIdGenerator(1);
+
+    @Benchmark
+    public String uuid() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Benchmark
+    public String w3c() {
+        return generator.nextTraceId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String uuidContended() {
+        return uuid();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String w3cContended() {
+        return w3c();
+    }
+}
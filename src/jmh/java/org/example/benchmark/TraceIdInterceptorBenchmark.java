@@ -0,0 +1,57 @@
+package org.example.benchmark;
+
+import org.example.interceptor.TraceIdInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * TraceIdInterceptor 基准：一次 preHandle + afterCompletion
+ * generated 为请求头不带 traceId（需要生成），propagated 为上游已传入 traceId，traceparent 为上游传入 W3C traceparent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TraceIdInterceptorBenchmark {
+
+    private final TraceIdInterceptor interceptor = new TraceIdInterceptor();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/hello");
+    private final MockHttpServletRequest propagatedRequest = new MockHttpServletRequest("GET", "/api/hello");
+    private final MockHttpServletRequest traceparentRequest = new MockHttpServletRequest("GET", "/api/hello");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    {
+        propagatedRequest.addHeader(TraceIdInterceptor.TRACE_ID_KEY, "4bf92f3577b34da6a3ce929d0e0e4736");
+        traceparentRequest.addHeader(TraceIdInterceptor.TRACEPARENT_KEY, "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+    }
+
+    @Benchmark
+    public boolean generated() throws Exception {
+        boolean proceed = interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+        return proceed;
+    }
+
+    @Benchmark
+    public boolean propagated() throws Exception {
+        boolean proceed = interceptor.preHandle(propagatedRequest, response, null);
+        interceptor.afterCompletion(propagatedRequest, response, null, null);
+        return proceed;
+    }
+
+    @Benchmark
+    public boolean traceparent() throws Exception {
+        boolean proceed = interceptor.preHandle(traceparentRequest, response, null);
+        interceptor.afterCompletion(traceparentRequest, response, null, null);
+        return proceed;
+    }
+}
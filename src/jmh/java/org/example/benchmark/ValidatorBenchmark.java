@@ -0,0 +1,66 @@
+package org.example.benchmark;
+
+import org.example.validator.annotation.IdCard;
+import org.example.validator.annotation.Mobile;
+import org.example.validator.constraint.IdCardValidator;
+import org.example.validator.constraint.MobileValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * @Mobile / @IdCard 校验器单次调用开销：
+ * mobile / idCard 为当前逐字符校验；regexMobile / regexIdCard 为原做法（String.matches，每次编译正则）
+ * 配合 -prof gc 查看每次调用的分配字节数
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidatorBenchmark {
+
+    private static final String MOBILE_PATTERN = "^1[3-9]\\d{9}$";
+    private static final String ID_CARD_PATTERN = "^[1-9]\\d{5}(18|19|20)\\d{2}((0[1-9])|(1[0-2]))(([0-2][1-9])|10|20|30|31)\\d{3}[0-9Xx]$";
+
+    @Mobile
+    @IdCard
+    private static String annotated;
+
+    private final MobileValidator mobileValidator = new MobileValidator();
+    private final IdCardValidator idCardValidator = new IdCardValidator();
+    private String phone = "13812345678";
+    private String idCard = "11010519491231002X";
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        mobileValidator.initialize(ValidatorBenchmark.class.getDeclaredField("annotated").getAnnotation(Mobile.class));
+        idCardValidator.initialize(ValidatorBenchmark.class.getDeclaredField("annotated").getAnnotation(IdCard.class));
+    }
+
+    @Benchmark
+    public boolean mobile() {
+        return mobileValidator.isValid(phone, null);
+    }
+
+    @Benchmark
+    public boolean regexMobile() {
+        return phone.matches(MOBILE_PATTERN);
+    }
+
+    @Benchmark
+    public boolean idCard() {
+        return idCardValidator.isValid(idCard, null);
+    }
+
+    @Benchmark
+    public boolean regexIdCard() {
+        return idCard.matches(ID_CARD_PATTERN);
+    }
+}
@@ -4,6 +4,7 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author nanak
@@ -15,6 +16,18 @@ import java.lang.annotation.Target;
  * public Result<String> createOrder(Long userId, OrderDTO order) {
  *     // 业务逻辑
  * }
+ *
+ * 按请求体中的嵌套字段判重，并自定义时间窗口：
+ * @Idempotent(key = "#req.orderId", window = 30, timeUnit = TimeUnit.SECONDS)
+ * public Result<String> submit(OrderRequest req) {
+ *     // 业务逻辑
+ * }
+ *
+ * 支付类接口可开启回放，重复请求直接返回首次结果：
+ * @Idempotent(value = "orderNo", replay = true)
+ * public Result<PayVO> pay(String orderNo) {
+ *     // 业务逻辑
+ * }
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
@@ -23,9 +36,37 @@ public @interface Idempotent {
      * 唯一标识的参数名，默认使用所有参数的哈希值
      */
     String value() default "key";
+
+    /**
+     * 唯一标识表达式（SpEL），如 "#req.orderId"，设置后优先于 {@link #value()}
+     * 表达式在方法首次调用时编译并缓存，简单属性路径直接读取字段/getter
+     */
+    String key() default "";
+
+    /**
+     * 幂等时间窗口，从方法执行结束时开始计算
+     */
+    long window() default 5;
+
+    /**
+     * 时间窗口的单位
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
     
     /**
      * 重复请求时的提示消息
      */
     String message() default "too many requests, please try again later";
+
+    /**
+     * 方法执行失败（抛出异常）时是否立即释放 key
+     * 默认不释放，失败后在幂等时间窗口内仍视为重复请求
+     */
+    boolean releaseOnFailure() default false;
+
+    /**
+     * 回放模式：重复请求不再抛出异常，而是返回首个请求的结果
+     * 首个请求仍在执行时，重复请求等待其完成（最长一个幂等窗口）
+     */
+    boolean replay() default false;
 }
@@ -9,19 +9,34 @@ import java.lang.annotation.Target;
  * @author nanak
  *
  * 方法执行时间监控注解
- * 
+ * 耗时记入方法维度的直方图，通过 /actuator/metrics/method.execution.percentile 查看 p50/p99/p999
+ *
  * 使用示例：
  * @TimeConsuming(threshold = 1000)
  * public Result<List<User>> queryUsers() {
  *     // 业务逻辑
  * }
+ *
+ * 负载变化较大的接口可使用自适应阈值，超过近期 p99 的 3 倍即告警：
+ * @TimeConsuming(adaptive = true, multiplier = 3)
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface TimeConsuming {
     /**
      * 执行时间阈值，单位毫秒
-     * 超过此阈值将输出警告日志
+     * 超过此阈值将输出警告日志（同一方法每秒最多一条）
      */
     long threshold() default 500;
+
+    /**
+     * 自适应阈值：按近期耗时分布（指数衰减）的 p99 × {@link #multiplier()} 判定慢调用，
+     * 告警日志附带执行中采样的调用栈；样本不足时仍使用 {@link #threshold()}
+     */
+    boolean adaptive() default false;
+
+    /**
+     * 自适应模式下相对 p99 的倍数
+     */
+    double multiplier() default 3.0;
 }
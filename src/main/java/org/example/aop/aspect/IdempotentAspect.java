@@ -1,128 +1,243 @@
 package org.example.aop.aspect;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.example.aop.annotation.Idempotent;
+import org.example.aop.store.IdempotencyStore;
+import org.example.aop.store.OverflowPolicy;
+import org.example.aop.store.ReserveResult;
+import org.example.aop.support.ExpiryWheel;
+import org.example.aop.support.IdempotentKey;
+import org.example.aop.support.IdempotentKeyGenerator;
+import org.example.aop.support.IdempotentKeyGenerator.KeyMetadata;
+import org.example.aop.support.IdempotentState;
+import org.example.aop.support.KeyHasher;
+import org.example.aop.support.ReplayCache;
+import org.example.config.IdempotentProperties;
 import org.example.exception.BusinessException;
 import org.example.enums.ErrorCode;
-import org.example.utils.ToolKit;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Method;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author nanak
  * 
  * 幂等切面 - 防止重复提交
- * 基于内存缓存实现，生产环境建议使用 Redis
+ * 状态委托给 {@link IdempotencyStore}（默认堆外定长表），生产多机部署建议替换为 Redis 实现
+ * 过期 key 由时间轮 + 单个后台线程淘汰，请求路径上不做扫描
  */
 @Slf4j
 @Aspect
 @Component
-public class IdempotentAspect {
+public class IdempotentAspect implements MeterBinder {
 
     /**
-     * 内存缓存，存储请求标识和过期时间
-     * 生产环境建议使用 Redis 替代
+     * 幂等状态存储
      */
-    private final ConcurrentHashMap<String, Long> requestCache = new ConcurrentHashMap<>();
+    private final IdempotencyStore idempotencyStore;
 
     /**
-     * 默认幂等时间窗口（毫秒）
+     * 存储写满时的处理策略
      */
-    private static final long DEFAULT_EXPIRE_TIME = 5000L;
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * 执行中占位的租期（毫秒）
+     */
+    private final long inFlightLeaseMillis;
+
+    /**
+     * 时间轮每格跨度（毫秒）及格数，一圈覆盖 6.4 秒
+     */
+    private static final long WHEEL_TICK_MILLIS = 100L;
+    private static final int WHEEL_SIZE = 64;
+
+    /**
+     * 过期时间轮：到期时由存储判断是否确实过期，被续期的 key 不受影响
+     */
+    private final ExpiryWheel<IdempotentKey> expiryWheel;
+
+    /**
+     * 回放模式的结果缓存
+     */
+    private final ReplayCache<IdempotentKey> replayCache;
+
+    /**
+     * 幂等 key 生成器（按方法缓存元数据）
+     */
+    private final IdempotentKeyGenerator keyGenerator = new IdempotentKeyGenerator();
+
+    /**
+     * 驱动时间轮的后台线程
+     */
+    private final ScheduledExecutorService expiryTicker;
+
+    public IdempotentAspect(IdempotencyStore idempotencyStore, IdempotentProperties properties) {
+        this.idempotencyStore = idempotencyStore;
+        this.overflowPolicy = properties.getStore().getOverflowPolicy();
+        this.inFlightLeaseMillis = properties.getInFlightLease().toMillis();
+        this.expiryWheel = new ExpiryWheel<>(WHEEL_TICK_MILLIS, WHEEL_SIZE,
+                (key, now) -> idempotencyStore.expire(key.hi(), key.lo(), now));
+        this.replayCache = new ReplayCache<>(properties.getReplayCacheSize(), WHEEL_TICK_MILLIS, WHEEL_SIZE);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Idempotent-Expiry-");
+        threadFactory.setDaemon(true);
+        this.expiryTicker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.expiryTicker.scheduleAtFixedRate(this::tick, WHEEL_TICK_MILLIS, WHEEL_TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
 
     @Around("@annotation(idempotent)")
     public Object around(ProceedingJoinPoint joinPoint, Idempotent idempotent) throws Throwable {
-        // 生成请求唯一标识
-        String requestKey = generateRequestKey(joinPoint, idempotent);
+        // 生成请求唯一标识（128 位哈希）
+        KeyMetadata metadata = keyGenerator.metadata((MethodSignature) joinPoint.getSignature(), idempotent);
+        KeyHasher hasher = keyGenerator.hash(metadata, joinPoint.getArgs());
+        long keyHi = hasher.hi();
+        long keyLo = hasher.lo();
         
-        log.debug("Idempotent check started, request key: {}", requestKey);
+        if (log.isDebugEnabled()) {
+            log.debug("Idempotent check started, method: {}, request key: {}", metadata.name(), new IdempotentKey(keyHi, keyLo));
+        }
         
-        // 检查是否重复请求
-        if (isDuplicateRequest(requestKey)) {
-            log.warn("Duplicate request detected, request key: {}", requestKey);
-            throw new BusinessException(ErrorCode.OPERATION_ERROR.getCode(), idempotent.message());
+        // 回放模式：重复请求等待/复用首个请求的结果
+        IdempotentKey requestKey = null;
+        CompletableFuture<Object> future = null;
+        if (idempotent.replay()) {
+            requestKey = new IdempotentKey(keyHi, keyLo);
+            future = new CompletableFuture<>();
+            CompletableFuture<Object> inflight = replayCache.join(requestKey, future);
+            if (inflight != null) {
+                log.debug("Duplicate request replayed, method: {}, request key: {}", metadata.name(), requestKey);
+                return awaitReplay(inflight, idempotent, metadata.windowMillis());
+            }
+        }
+        
+        // 原子占位，失败即为重复请求；占位带租期，执行超时或进程崩溃后可被重新占位
+        long now = System.currentTimeMillis();
+        ReserveResult reserveResult = idempotencyStore.tryReserve(keyHi, keyLo, now, now + inFlightLeaseMillis);
+        boolean reserved = reserveResult == ReserveResult.RESERVED;
+        if (!reserved && !(reserveResult == ReserveResult.FULL && overflowPolicy == OverflowPolicy.PASS)) {
+            log.warn("Duplicate request detected, method: {}, request key: {}, result: {}",
+                    metadata.name(), new IdempotentKey(keyHi, keyLo), reserveResult);
+            BusinessException duplicate = new BusinessException(ErrorCode.OPERATION_ERROR.getCode(), idempotent.message());
+            if (future != null) {
+                replayCache.discard(requestKey, future);
+                future.completeExceptionally(duplicate);
+            }
+            throw duplicate;
+        }
+        if (!reserved) {
+            // 存储已满且策略为放行：本次请求不做幂等保护
+            log.warn("Idempotent store is full, request passed without protection, method: {}", metadata.name());
         }
         
         try {
             // 执行原方法
             Object result = joinPoint.proceed();
-            log.debug("Idempotent check passed, method executed successfully, request key: {}", requestKey);
+            long expireTime = System.currentTimeMillis() + metadata.windowMillis();
+            if (reserved) {
+                finish(keyHi, keyLo, IdempotentState.COMPLETED, expireTime);
+            }
+            if (future != null) {
+                future.complete(result);
+                replayCache.complete(requestKey, future, expireTime);
+            }
+            log.debug("Idempotent check passed, method executed successfully, method: {}", metadata.name());
             return result;
-        } finally {
-            // 清理过期的缓存项
-            cleanExpiredCache();
+        } catch (Throwable e) {
+            if (future != null) {
+                // 异常不缓存，仅通知正在等待的重复请求
+                replayCache.discard(requestKey, future);
+                future.completeExceptionally(e);
+            }
+            if (!reserved) {
+                throw e;
+            }
+            if (idempotent.releaseOnFailure()) {
+                // 失败释放 key，允许客户端立即重试
+                idempotencyStore.release(keyHi, keyLo);
+            } else {
+                finish(keyHi, keyLo, IdempotentState.FAILED, System.currentTimeMillis() + metadata.windowMillis());
+            }
+            throw e;
         }
     }
 
     /**
-     * 生成请求唯一标识
+     * 执行结束：IN_FLIGHT 转为 COMPLETED/FAILED，从结束时刻开始计算幂等窗口
      */
-    private String generateRequestKey(ProceedingJoinPoint joinPoint, Idempotent idempotent) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        
-        // 基础标识：类名 + 方法名
-        StringBuilder keyBuilder = new StringBuilder();
-        keyBuilder.append(method.getDeclaringClass().getSimpleName())
-                  .append(".")
-                  .append(method.getName());
-        
-        // 如果指定了参数名，则根据参数值生成标识
-        String paramName = idempotent.value();
-        if (!"key".equals(paramName)) {
-            Object[] args = joinPoint.getArgs();
-            String[] paramNames = signature.getParameterNames();
-            
-            // 查找指定参数的值
-            for (int i = 0; i < paramNames.length; i++) {
-                if (paramName.equals(paramNames[i]) && args[i] != null) {
-                    keyBuilder.append(":").append(args[i].toString());
-                    break;
-                }
-            }
-        } else {
-            // 默认使用所有参数的哈希值
-            Object[] args = joinPoint.getArgs();
-            if (args.length > 0) {
-                String argsJson = ToolKit.JSON.toJsonString(args);
-                String argsHash = ToolKit.CRYPTO.md5(argsJson);
-                keyBuilder.append(":").append(argsHash);
-            }
+    private void finish(long keyHi, long keyLo, IdempotentState state, long expireTime) {
+        idempotencyStore.finish(keyHi, keyLo, state, expireTime);
+        expiryWheel.schedule(new IdempotentKey(keyHi, keyLo), expireTime);
+    }
+
+    /**
+     * 等待首个请求的执行结果，最长等待一个幂等窗口
+     * 首个请求抛出的异常原样抛出
+     */
+    private Object awaitReplay(CompletableFuture<Object> inflight, Idempotent idempotent, long windowMillis) throws Throwable {
+        try {
+            return inflight.get(windowMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR.getCode(), idempotent.message());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.OPERATION_ERROR.getCode(), idempotent.message());
         }
-        
-        return keyBuilder.toString();
     }
 
     /**
-     * 检查是否为重复请求
+     * 推进时间轮，淘汰到期的缓存项
      */
-    private boolean isDuplicateRequest(String requestKey) {
-        long currentTime = System.currentTimeMillis();
-        Long existTime = requestCache.get(requestKey);
-        
-        if (existTime != null && currentTime < existTime) {
-            // 存在且未过期，为重复请求
-            return true;
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            expiryWheel.advance(now);
+            replayCache.advance(now);
+        } catch (Exception e) {
+            // 吞掉异常，避免 ScheduledExecutorService 停止调度
+            log.error("Idempotent expiry tick failed: ", e);
         }
-        
-        // 记录新请求，设置过期时间
-        long expireTime = currentTime + DEFAULT_EXPIRE_TIME;
-        requestCache.put(requestKey, expireTime);
-        
-        return false;
     }
 
     /**
-     * 清理过期的缓存项
+     * 暴露存活 key 数量与累计淘汰数量（淘汰速率由监控后端按 counter 计算）
      */
-    private void cleanExpiredCache() {
-        long currentTime = System.currentTimeMillis();
-        requestCache.entrySet().removeIf(entry -> currentTime >= entry.getValue());
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("idempotent.keys.live", idempotencyStore, IdempotencyStore::size)
+                .description("Number of idempotent keys currently tracked")
+                .register(registry);
+        Gauge.builder("idempotent.keys.capacity", idempotencyStore, IdempotencyStore::capacity)
+                .description("Maximum number of idempotent keys the store can hold")
+                .register(registry);
+        FunctionCounter.builder("idempotent.keys.evicted", idempotencyStore, IdempotencyStore::evictedCount)
+                .description("Number of idempotent keys evicted after expiry")
+                .register(registry);
+        Gauge.builder("idempotent.replay.cached", replayCache, ReplayCache::size)
+                .description("Number of results held for duplicate replay")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiryTicker.shutdownNow();
     }
-}
+}
\ No newline at end of file
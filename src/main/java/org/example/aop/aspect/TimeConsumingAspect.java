@@ -1,68 +1,363 @@
 package org.example.aop.aspect;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.example.aop.annotation.TimeConsuming;
-import org.slf4j.MDC;
+import org.example.aop.support.LatencyHistogram;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author nanak
- * 
+ *
  * 方法耗时监控切面
- * 记录方法执行时间，超过阈值时输出警告日志
+ * 每次调用的耗时（nanoTime）记入该方法的无锁直方图，通过 Micrometer 暴露次数、总耗时、最大值及 p50/p99/p999
+ * 只有超过阈值的调用才输出警告日志，且每个方法限速输出
+ * 方法名、阈值等元数据按 Method 缓存，稳态下通知本身不分配对象（traceId 由日志 pattern 从 MDC 输出）
+ * 自适应模式下阈值为近期 p99 的倍数，由后台线程周期计算；执行中超过阈值的调用由后台线程采样一次调用栈
  */
 @Slf4j
 @Aspect
 @Component
-public class TimeConsumingAspect {
+public class TimeConsumingAspect implements MeterBinder {
+
+    /**
+     * 暴露的百分位
+     */
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    /**
+     * 同一方法两条超阈值日志的最小间隔
+     */
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 后台线程周期：每个周期检查执行中的自适应调用并采样调用栈
+     */
+    private static final long TICK_MILLIS = 100L;
+
+    /**
+     * 每 10 个周期（1 秒）重算自适应阈值，每 300 个周期（30 秒）直方图衰减一半
+     */
+    private static final int RECOMPUTE_TICKS = 10;
+    private static final int DECAY_TICKS = 300;
+
+    /**
+     * 自适应阈值生效所需的最少（衰减后）样本数
+     */
+    private static final long MIN_ADAPTIVE_SAMPLES = 100;
+
+    /**
+     * 采样调用栈的最大深度
+     */
+    private static final int MAX_STACK_DEPTH = 32;
+
+    /**
+     * 当前线程正在执行的自适应方法（每个线程一个可复用对象）
+     */
+    private final ThreadLocal<InFlight> inFlight = ThreadLocal.withInitial(this::registerInFlight);
+
+    /**
+     * 所有线程的执行记录，供后台线程扫描
+     */
+    private final Set<InFlight> inFlights = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 周期计算阈值、衰减直方图、采样调用栈的后台线程
+     */
+    private final ScheduledExecutorService ticker;
+
+    private long ticks;
+
+    /**
+     * 方法维度的元数据与统计
+     */
+    private final ConcurrentHashMap<Method, MethodStats> statsCache = new ConcurrentHashMap<>();
+
+    /**
+     * 绑定后的注册表，晚于绑定出现的方法在首次调用时注册指标
+     */
+    private volatile MeterRegistry registry;
+
+    /**
+     * 单个方法的元数据与耗时统计（首次调用时创建）
+     */
+    static final class MethodStats {
+        final String className;
+        final String methodName;
+        final long thresholdMillis;
+        final long thresholdNanos;
+        final boolean adaptive;
+        final double multiplier;
+        /**
+         * 当前生效的阈值，自适应模式下由后台线程更新
+         */
+        volatile long currentThresholdNanos;
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+        final AtomicLong nextWarnNanos = new AtomicLong(System.nanoTime());
+        final LongAdder suppressedWarns = new LongAdder();
+
+        MethodStats(Method method, TimeConsuming timeConsuming) {
+            this.className = method.getDeclaringClass().getSimpleName();
+            this.methodName = method.getName();
+            this.thresholdMillis = timeConsuming.threshold();
+            this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+            this.adaptive = timeConsuming.adaptive();
+            this.multiplier = timeConsuming.multiplier();
+            this.currentThresholdNanos = thresholdNanos;
+        }
+
+        /**
+         * 按近期 p99 重算阈值，样本不足时回退为固定阈值
+         */
+        void recomputeThreshold() {
+            if (histogram.recentCount() < MIN_ADAPTIVE_SAMPLES) {
+                currentThresholdNanos = thresholdNanos;
+            } else {
+                currentThresholdNanos = Math.max(1L, (long) (histogram.percentile(0.99) * multiplier));
+            }
+        }
+
+        /**
+         * 限速：距上条日志不足间隔时返回 false 并累计被抑制的条数
+         */
+        boolean tryAcquireWarn(long now) {
+            long next = nextWarnNanos.get();
+            if (now - next >= 0 && nextWarnNanos.compareAndSet(next, now + WARN_INTERVAL_NANOS)) {
+                return true;
+            }
+            suppressedWarns.increment();
+            return false;
+        }
+    }
+
+    /**
+     * 单个线程上正在执行的自适应调用；字段由执行线程写、后台线程读
+     */
+    static final class InFlight {
+        final WeakReference<Thread> thread;
+        volatile MethodStats stats;
+        volatile long startNanos;
+        volatile StackTraceElement[] snapshot;
+
+        InFlight(Thread thread) {
+            this.thread = new WeakReference<>(thread);
+        }
+    }
+
+    public TimeConsumingAspect() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("TimeConsuming-Ticker-");
+        threadFactory.setDaemon(true);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
 
     @Around("@annotation(timeConsuming)")
     public Object around(ProceedingJoinPoint joinPoint, TimeConsuming timeConsuming) throws Throwable {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        String className = method.getDeclaringClass().getSimpleName();
-        String methodName = method.getName();
-        String fullMethodName = className + "." + methodName;
-        
-        // 获取当前 traceId（如果存在）
-        String traceId = MDC.get("traceId");
-        String logPrefix = traceId != null ? "[" + traceId + "] " : "";
-        
-        long startTime = System.currentTimeMillis();
-        log.debug("{}Method execution started: {}", logPrefix, fullMethodName);
-        
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodStats stats = statsCache.get(method);
+        if (stats == null) {
+            stats = statsCache.computeIfAbsent(method, m -> createStats(m, timeConsuming));
+        }
+
+        // 自适应方法登记到当前线程的执行记录，嵌套调用时保存外层记录
+        InFlight current = null;
+        MethodStats outerStats = null;
+        long outerStart = 0;
+        StackTraceElement[] outerSnapshot = null;
+        long startTime = System.nanoTime();
+        if (stats.adaptive) {
+            current = inFlight.get();
+            outerStats = current.stats;
+            outerStart = current.startNanos;
+            outerSnapshot = current.snapshot;
+            current.snapshot = null;
+            current.startNanos = startTime;
+            current.stats = stats;
+        }
+
+        boolean failed = true;
         try {
             // 执行原方法
             Object result = joinPoint.proceed();
-            
-            long endTime = System.currentTimeMillis();
+            failed = false;
+            return result;
+        } finally {
+            long endTime = System.nanoTime();
             long executionTime = endTime - startTime;
-            
+            stats.histogram.record(executionTime);
+            if (failed) {
+                // 异常由调用方/全局异常处理记录，这里只计数
+                stats.failures.increment();
+            }
+            StackTraceElement[] snapshot = null;
+            if (current != null) {
+                snapshot = current.snapshot;
+                current.stats = outerStats;
+                current.startNanos = outerStart;
+                current.snapshot = outerSnapshot;
+            }
+
             // 检查是否超过阈值
-            if (executionTime > timeConsuming.threshold()) {
-                log.warn("{}Method execution time exceeded threshold: {} - execution time: {}ms (threshold: {}ms)", 
-                        logPrefix, fullMethodName, executionTime, timeConsuming.threshold());
-            } else {
-                log.info("{}Method execution completed: {} - execution time: {}ms", 
-                        logPrefix, fullMethodName, executionTime);
+            long threshold = stats.currentThresholdNanos;
+            if (executionTime > threshold && stats.tryAcquireWarn(endTime)) {
+                logSlowCall(stats, executionTime, threshold, snapshot);
+            }
+        }
+    }
+
+    private static void logSlowCall(MethodStats stats, long executionTime, long threshold, StackTraceElement[] snapshot) {
+        if (!stats.adaptive) {
+            log.warn("Method execution time exceeded threshold: {}.{} - execution time: {}ms (threshold: {}ms), suppressed since last: {}",
+                    stats.className, stats.methodName, TimeUnit.NANOSECONDS.toMillis(executionTime),
+                    stats.thresholdMillis, stats.suppressedWarns.sumThenReset());
+            return;
+        }
+        StringBuilder stack = new StringBuilder();
+        if (snapshot != null) {
+            for (StackTraceElement element : snapshot) {
+                stack.append(System.lineSeparator()).append("\tat ").append(element);
+            }
+        }
+        log.warn("Slow call detected: {}.{} - execution time: {}ms (adaptive threshold: {}ms = {} x p99), suppressed since last: {}, sampled stack:{}",
+                stats.className, stats.methodName, TimeUnit.NANOSECONDS.toMillis(executionTime),
+                TimeUnit.NANOSECONDS.toMillis(threshold), stats.multiplier, stats.suppressedWarns.sumThenReset(),
+                snapshot != null ? stack : " <not sampled>");
+    }
+
+    /**
+     * 后台周期任务：采样执行中超过阈值的调用栈，定期重算自适应阈值并衰减直方图
+     */
+    private void tick() {
+        try {
+            long now = System.nanoTime();
+            for (InFlight current : inFlights) {
+                Thread thread = current.thread.get();
+                if (thread == null || !thread.isAlive()) {
+                    inFlights.remove(current);
+                    continue;
+                }
+                MethodStats stats = current.stats;
+                long startNanos = current.startNanos;
+                if (stats != null && current.snapshot == null && now - startNanos > stats.currentThresholdNanos) {
+                    StackTraceElement[] stack = thread.getStackTrace();
+                    // 采样期间调用可能已结束，确认仍是同一次调用再保存
+                    if (current.stats == stats && current.startNanos == startNanos) {
+                        current.snapshot = Arrays.copyOf(stack, Math.min(stack.length, MAX_STACK_DEPTH));
+                    }
+                }
+            }
+
+            ticks++;
+            if (ticks % RECOMPUTE_TICKS == 0) {
+                recomputeThresholds();
+            }
+            if (ticks % DECAY_TICKS == 0) {
+                statsCache.values().forEach(stats -> stats.histogram.decay());
             }
-            
-            return result;
-            
         } catch (Exception e) {
-            long endTime = System.currentTimeMillis();
-            long executionTime = endTime - startTime;
-            
-            log.error("{}Method execution failed: {} - execution time: {}ms, error: {}", 
-                    logPrefix, fullMethodName, executionTime, e.getMessage(), e);
-            
-            throw e;
+            // 吞掉异常，避免 ScheduledExecutorService 停止调度
+            log.error("Time consuming tick failed: ", e);
         }
     }
+
+    /**
+     * 按近期分布重算所有自适应方法的阈值
+     */
+    void recomputeThresholds() {
+        for (MethodStats stats : statsCache.values()) {
+            if (stats.adaptive) {
+                stats.recomputeThreshold();
+            }
+        }
+    }
+
+    /**
+     * 方法当前生效的阈值（纳秒），方法尚未被调用时返回 -1
+     */
+    long currentThresholdNanos(Method method) {
+        MethodStats stats = statsCache.get(method);
+        return stats != null ? stats.currentThresholdNanos : -1;
+    }
+
+    private InFlight registerInFlight() {
+        InFlight current = new InFlight(Thread.currentThread());
+        inFlights.add(current);
+        return current;
+    }
+
+    /**
+     * 已绑定的注册表立即补注册此前出现的方法
+     */
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        this.registry = registry;
+        statsCache.values().forEach(stats -> register(registry, stats));
+    }
+
+    private MethodStats createStats(Method method, TimeConsuming timeConsuming) {
+        MethodStats stats = new MethodStats(method, timeConsuming);
+        MeterRegistry current = registry;
+        if (current != null) {
+            register(current, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * 注册单个方法的指标（重复注册返回已有指标，不会重复创建）
+     */
+    private static void register(MeterRegistry registry, MethodStats stats) {
+        Tags tags = Tags.of("class", stats.className, "method", stats.methodName);
+        LatencyHistogram histogram = stats.histogram;
+        FunctionTimer.builder("method.execution", histogram,
+                        LatencyHistogram::count, LatencyHistogram::totalNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("Execution time of @TimeConsuming methods")
+                .register(registry);
+        TimeGauge.builder("method.execution.max", histogram, TimeUnit.NANOSECONDS, LatencyHistogram::maxNanos)
+                .tags(tags)
+                .description("Maximum execution time of @TimeConsuming methods")
+                .register(registry);
+        for (double percentile : PERCENTILES) {
+            TimeGauge.builder("method.execution.percentile", histogram, TimeUnit.NANOSECONDS,
+                            h -> h.percentile(percentile))
+                    .tags(tags)
+                    .tag("phi", String.valueOf(percentile))
+                    .description("Execution time percentiles of @TimeConsuming methods")
+                    .register(registry);
+        }
+        FunctionCounter.builder("method.execution.failures", stats.failures, LongAdder::sum)
+                .tags(tags)
+                .description("Number of @TimeConsuming method executions that threw")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
 }
@@ -0,0 +1,56 @@
+package org.example.aop.store;
+
+import org.example.aop.support.IdempotentState;
+
+/**
+ * @author nanak
+ *
+ * 幂等存储 SPI
+ * key 为 128 位哈希（keyHi + keyLo），值为状态 + 过期时间，所有操作需保证单个 key 上的原子性
+ * 内置实现：{@link OffHeapIdempotencyStore}（默认，堆外定长表）、{@link MappedFileIdempotencyStore}（文件映射，同机多实例共享）
+ */
+public interface IdempotencyStore extends AutoCloseable {
+
+    /**
+     * 原子占位：key 不存在或已过期（含租约到期的 IN_FLIGHT）时以 IN_FLIGHT 状态占位
+     *
+     * @param leaseExpireTime IN_FLIGHT 占位的过期时间：执行超时或进程崩溃未调用 finish/release 时，key 在此之后可被重新占位
+     */
+    ReserveResult tryReserve(long keyHi, long keyLo, long now, long leaseExpireTime);
+
+    /**
+     * 执行结束：IN_FLIGHT 转为 COMPLETED/FAILED，expireTime 之后过期
+     */
+    void finish(long keyHi, long keyLo, IdempotentState state, long expireTime);
+
+    /**
+     * 释放执行中的 key
+     */
+    void release(long keyHi, long keyLo);
+
+    /**
+     * 若 key 已过期则移除
+     *
+     * @return 是否移除
+     */
+    boolean expire(long keyHi, long keyLo, long now);
+
+    /**
+     * 当前占用的 key 数量（含已过期但尚未清理的）
+     */
+    long size();
+
+    /**
+     * 容量上限
+     */
+    long capacity();
+
+    /**
+     * 累计淘汰的过期 key 数量
+     */
+    long evictedCount();
+
+    @Override
+    default void close() {
+    }
+}
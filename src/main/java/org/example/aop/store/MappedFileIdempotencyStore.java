@@ -0,0 +1,91 @@
+package org.example.aop.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author nanak
+ *
+ * 文件映射幂等存储
+ * 与 {@link OffHeapIdempotencyStore} 布局相同，数据放在内存映射文件中，
+ * 同一台机器上的多个实例指向同一文件即可共享幂等状态；段操作额外持有文件区间锁保证跨进程互斥
+ * 跨机器部署仍需替换为 Redis 等集中式实现
+ */
+@Slf4j
+public class MappedFileIdempotencyStore extends OffHeapIdempotencyStore {
+
+    private final FileChannel channel;
+    private final FileLock[] fileLocks;
+
+    private MappedFileIdempotencyStore(FileChannel channel, int capacity, int segments) throws IOException {
+        super(channel.map(FileChannel.MapMode.READ_WRITE, 0, requiredBytes(capacity, segments)), capacity, segments);
+        this.channel = channel;
+        this.fileLocks = new FileLock[segmentCount()];
+    }
+
+    /**
+     * 打开（不存在则创建）映射文件，已有文件大小与配置不一致时拒绝启动
+     */
+    public static MappedFileIdempotencyStore open(Path path, int capacity, int segments) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long expected = requiredBytes(capacity, segments);
+            long actual = channel.size();
+            if (actual != 0 && actual != expected) {
+                channel.close();
+                throw new IllegalStateException("idempotent store file " + path + " has size " + actual
+                        + ", expected " + expected + " for capacity " + capacity + " and segments " + segments);
+            }
+            log.info("Idempotent store mapped to file: {}, capacity: {}", path, capacity);
+            return new MappedFileIdempotencyStore(channel, capacity, segments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to open idempotent store file " + path, e);
+        }
+    }
+
+    @Override
+    protected void lockSegment(int segment) {
+        super.lockSegment(segment);
+        try {
+            fileLocks[segment] = channel.lock(segmentRegionStart(segment), segmentRegionSize(), false);
+        } catch (IOException e) {
+            super.unlockSegment(segment);
+            throw new UncheckedIOException("failed to lock idempotent store segment " + segment, e);
+        }
+    }
+
+    @Override
+    protected void unlockSegment(int segment) {
+        try {
+            FileLock fileLock = fileLocks[segment];
+            fileLocks[segment] = null;
+            if (fileLock != null) {
+                fileLock.release();
+            }
+        } catch (IOException e) {
+            log.error("Failed to release idempotent store segment lock: {}", segment, e);
+        } finally {
+            super.unlockSegment(segment);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.error("Failed to close idempotent store file: ", e);
+        }
+    }
+}
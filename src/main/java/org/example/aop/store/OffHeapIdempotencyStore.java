@@ -0,0 +1,318 @@
+package org.example.aop.store;
+
+import org.example.aop.support.IdempotentState;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author nanak
+ *
+ * 堆外定长幂等存储（默认实现）
+ * 开放寻址（线性探测）哈希表，数据放在 direct ByteBuffer 中，不产生堆对象，容量固定不会无限增长
+ * 表按段加锁（非全局锁），段内探测；删除采用 backward-shift，不留墓碑
+ *
+ * 内存布局：
+ * [段头：每段 8 字节占用计数] [槽位：每槽 24 字节 = keyHi(8) + keyLo(8) + meta(8)]
+ * meta = 过期时间 << 2 | 状态，key 全 0 表示空槽
+ * IN_FLIGHT 的过期时间为占位租约，到期后与其他过期 key 一样可被重新占位（文件映射存储在进程崩溃后也不会永久锁住 key）
+ */
+public class OffHeapIdempotencyStore implements IdempotencyStore {
+
+    protected static final int SLOT_BYTES = 24;
+    private static final int KEY_LO = 8;
+    private static final int META = 16;
+    private static final long NEVER_EXPIRE = Long.MAX_VALUE >>> 2;
+    private static final IdempotentState[] STATES = IdempotentState.values();
+
+    protected final ByteBuffer buffer;
+    private final int segmentCount;
+    private final int segmentBits;
+    private final int slotsPerSegment;
+    private final int segmentMask;
+    private final int headerBytes;
+    private final ReentrantLock[] locks;
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * @param capacity 总槽位数，向上取整为 2 的幂
+     * @param segments 段数（锁粒度），向上取整为 2 的幂
+     */
+    public OffHeapIdempotencyStore(int capacity, int segments) {
+        this(null, capacity, segments);
+    }
+
+    /**
+     * @param buffer 外部提供的缓冲区（如文件映射），为 null 时分配 direct buffer
+     */
+    protected OffHeapIdempotencyStore(ByteBuffer buffer, int capacity, int segments) {
+        int segmentCount = ceilPowerOfTwo(segments);
+        int totalSlots = Math.max(ceilPowerOfTwo(capacity), segmentCount);
+        this.segmentCount = segmentCount;
+        this.segmentBits = Integer.numberOfTrailingZeros(segmentCount);
+        this.slotsPerSegment = totalSlots / segmentCount;
+        this.segmentMask = slotsPerSegment - 1;
+        this.headerBytes = segmentCount * Long.BYTES;
+        this.buffer = buffer != null ? buffer : ByteBuffer.allocateDirect(requiredBytes(capacity, segments));
+        this.locks = new ReentrantLock[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 指定容量和段数所需的字节数
+     */
+    public static int requiredBytes(int capacity, int segments) {
+        int segmentCount = ceilPowerOfTwo(segments);
+        int totalSlots = Math.max(ceilPowerOfTwo(capacity), segmentCount);
+        return segmentCount * Long.BYTES + totalSlots * SLOT_BYTES;
+    }
+
+    @Override
+    public ReserveResult tryReserve(long keyHi, long keyLo, long now, long leaseExpireTime) {
+        long lo = normalize(keyHi, keyLo);
+        long mixed = mix(keyHi, lo);
+        int segment = segmentOf(mixed);
+        lockSegment(segment);
+        try {
+            int home = (int) mixed & segmentMask;
+            int reusable = -1;
+            for (int probe = 0; probe < slotsPerSegment; probe++) {
+                int index = (home + probe) & segmentMask;
+                int offset = slotOffset(segment, index);
+                long slotHi = buffer.getLong(offset);
+                long slotLo = buffer.getLong(offset + KEY_LO);
+                if (isEmpty(slotHi, slotLo)) {
+                    if (reusable < 0) {
+                        reusable = index;
+                    }
+                    break;
+                }
+                long meta = buffer.getLong(offset + META);
+                if (slotHi == keyHi && slotLo == lo) {
+                    if (now < expireTimeOf(meta)) {
+                        return ReserveResult.DUPLICATE;
+                    }
+                    // 已过期（含租约到期的 IN_FLIGHT）：原地接管
+                    buffer.putLong(offset + META, encode(IdempotentState.IN_FLIGHT, leaseExpireTime));
+                    return ReserveResult.RESERVED;
+                }
+                if (reusable < 0 && now >= expireTimeOf(meta)) {
+                    // 探测链上的过期槽位可原地复用，但需继续探测确认 key 不在后面
+                    reusable = index;
+                }
+            }
+            if (reusable < 0) {
+                return ReserveResult.FULL;
+            }
+            int offset = slotOffset(segment, reusable);
+            if (isEmpty(buffer.getLong(offset), buffer.getLong(offset + KEY_LO))) {
+                addCount(segment, 1);
+            } else {
+                evicted.increment();
+            }
+            buffer.putLong(offset, keyHi);
+            buffer.putLong(offset + KEY_LO, lo);
+            buffer.putLong(offset + META, encode(IdempotentState.IN_FLIGHT, leaseExpireTime));
+            return ReserveResult.RESERVED;
+        } finally {
+            unlockSegment(segment);
+        }
+    }
+
+    @Override
+    public void finish(long keyHi, long keyLo, IdempotentState state, long expireTime) {
+        long lo = normalize(keyHi, keyLo);
+        long mixed = mix(keyHi, lo);
+        int segment = segmentOf(mixed);
+        lockSegment(segment);
+        try {
+            int index = find(segment, mixed, keyHi, lo);
+            if (index >= 0) {
+                buffer.putLong(slotOffset(segment, index) + META, encode(state, expireTime));
+            }
+        } finally {
+            unlockSegment(segment);
+        }
+    }
+
+    @Override
+    public void release(long keyHi, long keyLo) {
+        long lo = normalize(keyHi, keyLo);
+        long mixed = mix(keyHi, lo);
+        int segment = segmentOf(mixed);
+        lockSegment(segment);
+        try {
+            int index = find(segment, mixed, keyHi, lo);
+            if (index >= 0 && stateOf(buffer.getLong(slotOffset(segment, index) + META)) == IdempotentState.IN_FLIGHT) {
+                delete(segment, index);
+            }
+        } finally {
+            unlockSegment(segment);
+        }
+    }
+
+    @Override
+    public boolean expire(long keyHi, long keyLo, long now) {
+        long lo = normalize(keyHi, keyLo);
+        long mixed = mix(keyHi, lo);
+        int segment = segmentOf(mixed);
+        lockSegment(segment);
+        try {
+            int index = find(segment, mixed, keyHi, lo);
+            if (index < 0 || now < expireTimeOf(buffer.getLong(slotOffset(segment, index) + META))) {
+                return false;
+            }
+            delete(segment, index);
+            evicted.increment();
+            return true;
+        } finally {
+            unlockSegment(segment);
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (int segment = 0; segment < segmentCount; segment++) {
+            size += buffer.getLong(segment * Long.BYTES);
+        }
+        return size;
+    }
+
+    @Override
+    public long capacity() {
+        return (long) slotsPerSegment * segmentCount;
+    }
+
+    @Override
+    public long evictedCount() {
+        return evicted.sum();
+    }
+
+    /**
+     * 段加锁，子类可扩展为跨进程锁
+     */
+    protected void lockSegment(int segment) {
+        locks[segment].lock();
+    }
+
+    protected void unlockSegment(int segment) {
+        locks[segment].unlock();
+    }
+
+    protected int segmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * 段内槽位在缓冲区中的字节区间，供子类做区间锁
+     */
+    protected long segmentRegionStart(int segment) {
+        return headerBytes + (long) segment * slotsPerSegment * SLOT_BYTES;
+    }
+
+    protected long segmentRegionSize() {
+        return (long) slotsPerSegment * SLOT_BYTES;
+    }
+
+    private int find(int segment, long mixed, long keyHi, long keyLo) {
+        int home = (int) mixed & segmentMask;
+        for (int probe = 0; probe < slotsPerSegment; probe++) {
+            int index = (home + probe) & segmentMask;
+            int offset = slotOffset(segment, index);
+            long slotHi = buffer.getLong(offset);
+            long slotLo = buffer.getLong(offset + KEY_LO);
+            if (slotHi == keyHi && slotLo == keyLo) {
+                return index;
+            }
+            if (isEmpty(slotHi, slotLo)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * backward-shift 删除：把后续槽位中可前移的条目前移，保持探测链连续
+     * 段可以被占满（没有空槽结束探测链），因此最多检查段内其余 segmentMask 个槽位
+     */
+    private void delete(int segment, int index) {
+        int hole = index;
+        int next = index;
+        for (int step = 0; step < segmentMask; step++) {
+            next = (next + 1) & segmentMask;
+            int offset = slotOffset(segment, next);
+            long slotHi = buffer.getLong(offset);
+            long slotLo = buffer.getLong(offset + KEY_LO);
+            if (isEmpty(slotHi, slotLo)) {
+                break;
+            }
+            int home = (int) mix(slotHi, slotLo) & segmentMask;
+            // home 不在 (hole, next] 区间内，说明可以前移到 hole
+            boolean between = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!between) {
+                int holeOffset = slotOffset(segment, hole);
+                buffer.putLong(holeOffset, slotHi);
+                buffer.putLong(holeOffset + KEY_LO, slotLo);
+                buffer.putLong(holeOffset + META, buffer.getLong(offset + META));
+                hole = next;
+            }
+        }
+        int holeOffset = slotOffset(segment, hole);
+        buffer.putLong(holeOffset, 0L);
+        buffer.putLong(holeOffset + KEY_LO, 0L);
+        buffer.putLong(holeOffset + META, 0L);
+        addCount(segment, -1);
+    }
+
+    private void addCount(int segment, long delta) {
+        int offset = segment * Long.BYTES;
+        buffer.putLong(offset, buffer.getLong(offset) + delta);
+    }
+
+    private int slotOffset(int segment, int index) {
+        return headerBytes + ((segment * slotsPerSegment) + index) * SLOT_BYTES;
+    }
+
+    private int segmentOf(long mixed) {
+        return segmentBits == 0 ? 0 : (int) (mixed >>> (Long.SIZE - segmentBits));
+    }
+
+    private static long encode(IdempotentState state, long expireTime) {
+        return (Math.min(expireTime, NEVER_EXPIRE) << 2) | state.ordinal();
+    }
+
+    private static long expireTimeOf(long meta) {
+        return meta >>> 2;
+    }
+
+    private static IdempotentState stateOf(long meta) {
+        return STATES[(int) (meta & 3)];
+    }
+
+    private static boolean isEmpty(long keyHi, long keyLo) {
+        return keyHi == 0L && keyLo == 0L;
+    }
+
+    /**
+     * 全 0 用作空槽标记，此时把低 64 位映射为 1
+     */
+    private static long normalize(long keyHi, long keyLo) {
+        return keyHi == 0L && keyLo == 0L ? 1L : keyLo;
+    }
+
+    /**
+     * 折叠 128 位 key 并再散列，高位选段、低位定槽
+     */
+    private static long mix(long keyHi, long keyLo) {
+        long h = (keyHi ^ Long.rotateLeft(keyLo, 32)) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private static int ceilPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
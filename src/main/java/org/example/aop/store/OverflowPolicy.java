@@ -0,0 +1,17 @@
+package org.example.aop.store;
+
+/**
+ * @author nanak
+ *
+ * 幂等存储写满时的处理策略
+ */
+public enum OverflowPolicy {
+    /**
+     * 拒绝请求（fail-closed，默认，适合支付等强幂等场景）
+     */
+    REJECT,
+    /**
+     * 放行请求但不做幂等保护（fail-open，适合可用性优先的场景）
+     */
+    PASS
+}
@@ -0,0 +1,21 @@
+package org.example.aop.store;
+
+/**
+ * @author nanak
+ *
+ * 幂等占位结果
+ */
+public enum ReserveResult {
+    /**
+     * 占位成功
+     */
+    RESERVED,
+    /**
+     * 重复请求（执行中或仍在幂等窗口内）
+     */
+    DUPLICATE,
+    /**
+     * 存储已满，按 {@link OverflowPolicy} 处理
+     */
+    FULL
+}
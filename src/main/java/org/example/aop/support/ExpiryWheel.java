@@ -0,0 +1,122 @@
+package org.example.aop.support;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nanak
+ *
+ * 时间轮过期引擎（time-bucketed ring）
+ * 请求线程只负责把 key 挂到对应槽位（O(1) 无锁入栈），
+ * 由单个后台 ticker 线程调用 {@link #advance(long)} 逐槽摘取并淘汰到期 key，
+ * 请求路径上不再做全表扫描
+ */
+public class ExpiryWheel<K> {
+
+    /**
+     * 淘汰回调：返回 true 表示 key 确实被移除（未被续期）
+     */
+    @FunctionalInterface
+    public interface Expirer<K> {
+        boolean expire(K key, long now);
+    }
+
+    /**
+     * 槽位节点，每个槽位是一个 Treiber 栈，摘取时整体 getAndSet(null)，不会丢节点
+     */
+    private static final class Node<K> {
+        final K key;
+        final long deadline;
+        Node<K> next;
+
+        Node(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final AtomicReferenceArray<Node<K>> buckets;
+    private final Expirer<K> expirer;
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * 已推进到的 tick（该 tick 及之前的槽位已处理或正在处理），仅 ticker 线程写
+     */
+    private volatile long cursor;
+
+    /**
+     * @param tickMillis 每个槽位的时间跨度（毫秒）
+     * @param wheelSize  槽位数量，向上取整为 2 的幂
+     * @param expirer    到期淘汰回调
+     */
+    public ExpiryWheel(long tickMillis, int wheelSize, Expirer<K> expirer) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new AtomicReferenceArray<>(size);
+        this.expirer = expirer;
+        this.cursor = System.currentTimeMillis() / tickMillis - 1;
+    }
+
+    /**
+     * 登记 key 的过期时间（请求线程调用）
+     */
+    public void schedule(K key, long deadline) {
+        push(new Node<>(key, deadline));
+    }
+
+    /**
+     * 推进时间轮到 now，处理期间已完整走过的槽位（ticker 线程调用）
+     * now 所在的 tick 仍在进行中，留到下次推进：否则其中未到期的 key 重新入槽后会落在已走过的槽位，要等一整圈才被处理
+     * 落后超过一圈时最多处理一圈，每个槽位只摘取一次
+     */
+    public void advance(long now) {
+        long target = now / tickMillis - 1;
+        long current = cursor;
+        if (target <= current) {
+            return;
+        }
+        long steps = Math.min(target - current, mask + 1L);
+        // 先发布游标，处理期间新登记和重新入槽的 key 都挂到 target 之后的槽位
+        cursor = target;
+        for (long i = 1; i <= steps; i++) {
+            Node<K> node = buckets.getAndSet((int) ((current + i) & mask), null);
+            while (node != null) {
+                Node<K> next = node.next;
+                if (node.deadline <= now) {
+                    if (expirer.expire(node.key, now)) {
+                        evicted.increment();
+                    }
+                } else {
+                    // 跨圈的 key 重新入槽，等待下一圈
+                    node.next = null;
+                    push(node);
+                }
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * 累计淘汰数量
+     */
+    public long evictedCount() {
+        return evicted.sum();
+    }
+
+    private void push(Node<K> node) {
+        // 已经走过的 tick 挂到下一个槽位，避免错过
+        long tick = Math.max(node.deadline / tickMillis, cursor + 1);
+        int index = (int) (tick & mask);
+        Node<K> head;
+        do {
+            head = buckets.get(index);
+            node.next = head;
+        } while (!buckets.compareAndSet(index, head, node));
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.aop.support;
+
+/**
+ * @author nanak
+ *
+ * 128 位幂等 key
+ * 请求路径上以两个 long 传递，仅在需要放入集合（过期时间轮、回放缓存）时才包装为对象
+ */
+public record IdempotentKey(long hi, long lo) {
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", hi, lo);
+    }
+}
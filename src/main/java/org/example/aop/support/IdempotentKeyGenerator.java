@@ -0,0 +1,278 @@
+package org.example.aop.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.example.aop.annotation.Idempotent;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author nanak
+ *
+ * 幂等 key 生成器
+ * 每个方法的元数据（"类名.方法名"、编译后的 key 提取器、时间窗口、前缀哈希种子）只解析一次并缓存，
+ * 参数值直接流式写入 128 位哈希，不做 JSON 序列化、不拼接字符串
+ */
+@Slf4j
+public class IdempotentKeyGenerator {
+
+    /**
+     * 默认参数名：使用全部参数
+     */
+    public static final String ALL_ARGS = "key";
+
+    /**
+     * 对象嵌套的最大深度，防止循环引用
+     */
+    private static final int MAX_DEPTH = 8;
+
+    // 类型标记，区分不同类型的相同取值
+    private static final long TAG_NULL = 0x01;
+    private static final long TAG_TEXT = 0x02;
+    private static final long TAG_INTEGRAL = 0x03;
+    private static final long TAG_FLOATING = 0x04;
+    private static final long TAG_BOOLEAN = 0x05;
+    private static final long TAG_CHAR = 0x06;
+    private static final long TAG_ENUM = 0x07;
+    private static final long TAG_ARRAY = 0x08;
+    private static final long TAG_COLLECTION = 0x09;
+    private static final long TAG_MAP = 0x0A;
+    private static final long TAG_OBJECT = 0x0B;
+    private static final long TAG_TOO_DEEP = 0x0C;
+
+    /**
+     * 方法元数据缓存
+     */
+    private final ConcurrentHashMap<Method, KeyMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    /**
+     * 线程复用的哈希器
+     */
+    private static final ThreadLocal<KeyHasher> HASHER = ThreadLocal.withInitial(KeyHasher::new);
+
+    /**
+     * 按类缓存参与哈希的字段
+     */
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    if (trySetAccessible(field)) {
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    /**
+     * 方法元数据（首次调用时解析，之后直接复用）
+     */
+    public static final class KeyMetadata {
+        private final String name;
+        private final long seedHi;
+        private final long seedLo;
+        /**
+         * key 提取器；为 null 时使用全部参数
+         */
+        private final KeyExtractor extractor;
+        private final long windowMillis;
+
+        private KeyMetadata(String name, KeyExtractor extractor, long windowMillis) {
+            this.name = name;
+            this.extractor = extractor;
+            this.windowMillis = windowMillis;
+            KeyHasher seed = new KeyHasher().reset(0, 0).putChars(name).finish();
+            this.seedHi = seed.hi();
+            this.seedLo = seed.lo();
+        }
+
+        /**
+         * "类名.方法名"
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * 幂等时间窗口（毫秒）
+         */
+        public long windowMillis() {
+            return windowMillis;
+        }
+    }
+
+    /**
+     * 获取方法元数据
+     */
+    public KeyMetadata metadata(MethodSignature signature, Idempotent idempotent) {
+        Method method = signature.getMethod();
+        KeyMetadata metadata = metadataCache.get(method);
+        if (metadata == null) {
+            metadata = metadataCache.computeIfAbsent(method, m -> resolve(m, signature.getParameterNames(), idempotent));
+        }
+        return metadata;
+    }
+
+    /**
+     * 计算 128 位 key，结果通过返回的哈希器 hi()/lo() 读取
+     * 返回的哈希器为线程复用对象，需在同一线程下次调用前读取
+     */
+    public KeyHasher hash(KeyMetadata metadata, Object[] args) {
+        KeyHasher hasher = HASHER.get().reset(metadata.seedHi, metadata.seedLo);
+        if (metadata.extractor == null) {
+            for (Object arg : args) {
+                feed(hasher, arg, 0);
+            }
+        } else {
+            feed(hasher, metadata.extractor.extract(args), 0);
+        }
+        return hasher.finish();
+    }
+
+    private KeyMetadata resolve(Method method, String[] paramNames, Idempotent idempotent) {
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        long windowMillis = idempotent.timeUnit().toMillis(idempotent.window());
+        if (windowMillis <= 0) {
+            throw new IllegalStateException("Idempotent window must be positive, method: " + name);
+        }
+        if (!idempotent.key().isBlank()) {
+            return new KeyMetadata(name, KeyExpressionCompiler.compile(method, paramNames, idempotent.key()), windowMillis);
+        }
+        String paramName = idempotent.value();
+        if (ALL_ARGS.equals(paramName)) {
+            return new KeyMetadata(name, null, windowMillis);
+        }
+        KeyExtractor extractor = KeyExpressionCompiler.parameter(paramNames, paramName);
+        if (extractor == null) {
+            log.warn("Idempotent parameter not found, method: {}, parameter: {}", name, paramName);
+            extractor = KeyExtractor.NONE;
+        }
+        return new KeyMetadata(name, extractor, windowMillis);
+    }
+
+    /**
+     * 按类型把参数值写入哈希
+     */
+    private static void feed(KeyHasher hasher, Object value, int depth) {
+        if (value == null) {
+            hasher.putLong(TAG_NULL);
+        } else if (depth > MAX_DEPTH) {
+            hasher.putLong(TAG_TOO_DEEP);
+        } else if (value instanceof CharSequence chars) {
+            hasher.putLong(TAG_TEXT).putChars(chars);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            hasher.putLong(TAG_INTEGRAL).putLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            hasher.putLong(TAG_FLOATING).putLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof Boolean bool) {
+            hasher.putLong(TAG_BOOLEAN).putLong(bool ? 1 : 0);
+        } else if (value instanceof Character c) {
+            hasher.putLong(TAG_CHAR).putLong(c);
+        } else if (value instanceof Enum<?> e) {
+            hasher.putLong(TAG_ENUM).putChars(e.name());
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            hasher.putLong(TAG_ARRAY).putLong(length);
+            if (value instanceof Object[] array) {
+                for (Object element : array) {
+                    feed(hasher, element, depth + 1);
+                }
+            } else {
+                feedPrimitiveArray(hasher, value, length);
+            }
+        } else if (value instanceof Iterable<?> iterable) {
+            hasher.putLong(TAG_COLLECTION);
+            for (Object element : iterable) {
+                feed(hasher, element, depth + 1);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            hasher.putLong(TAG_MAP).putLong(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                feed(hasher, entry.getKey(), depth + 1);
+                feed(hasher, entry.getValue(), depth + 1);
+            }
+        } else if (isPlatformType(value.getClass())) {
+            // JDK / 框架类型（日期、BigDecimal 等）使用其文本表示
+            hasher.putLong(TAG_TEXT).putChars(value.toString());
+        } else {
+            hasher.putLong(TAG_OBJECT);
+            for (Field field : FIELDS.get(value.getClass())) {
+                feedField(hasher, value, field, depth);
+            }
+        }
+    }
+
+    private static void feedField(KeyHasher hasher, Object owner, Field field, int depth) {
+        try {
+            Class<?> type = field.getType();
+            if (!type.isPrimitive()) {
+                feed(hasher, field.get(owner), depth + 1);
+            } else if (type == boolean.class) {
+                hasher.putLong(field.getBoolean(owner) ? 1 : 0);
+            } else if (type == double.class || type == float.class) {
+                hasher.putLong(Double.doubleToLongBits(field.getDouble(owner)));
+            } else if (type == char.class) {
+                hasher.putLong(field.getChar(owner));
+            } else {
+                hasher.putLong(field.getLong(owner));
+            }
+        } catch (IllegalAccessException e) {
+            hasher.putLong(TAG_NULL);
+        }
+    }
+
+    private static void feedPrimitiveArray(KeyHasher hasher, Object array, int length) {
+        if (array instanceof byte[] bytes) {
+            for (byte b : bytes) {
+                hasher.putLong(b);
+            }
+        } else if (array instanceof int[] ints) {
+            for (int i : ints) {
+                hasher.putLong(i);
+            }
+        } else if (array instanceof long[] longs) {
+            for (long l : longs) {
+                hasher.putLong(l);
+            }
+        } else if (array instanceof char[] chars) {
+            for (char c : chars) {
+                hasher.putLong(c);
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                Object element = Array.get(array, i);
+                feed(hasher, element, 1);
+            }
+        }
+    }
+
+    private static boolean isPlatformType(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jakarta.")
+                || name.startsWith("org.springframework.");
+    }
+
+    private static boolean trySetAccessible(AccessibleObject object) {
+        try {
+            return object.trySetAccessible();
+        } catch (SecurityException e) {
+            return false;
+        }
+    }
+}
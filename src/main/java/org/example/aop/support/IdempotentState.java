@@ -0,0 +1,24 @@
+package org.example.aop.support;
+
+/**
+ * @author nanak
+ *
+ * 幂等 key 状态机
+ * IN_FLIGHT（执行中） → COMPLETED（执行成功） / FAILED（执行失败）
+ * IN_FLIGHT 在占位租约（idempotent.in-flight-lease）到期后过期，之后同一 key 可被重新占位，避免进程崩溃后永久锁住 key；
+ * COMPLETED、FAILED 在幂等时间窗口结束后过期
+ */
+public enum IdempotentState {
+    /**
+     * 业务方法执行中
+     */
+    IN_FLIGHT,
+    /**
+     * 业务方法执行成功
+     */
+    COMPLETED,
+    /**
+     * 业务方法执行失败
+     */
+    FAILED
+}
@@ -0,0 +1,205 @@
+package org.example.aop.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * @author nanak
+ *
+ * 幂等 key 表达式编译器，每个方法只编译一次：
+ * 形如 "#req.orderId.value" 的属性路径按声明类型解析为 getter/字段的 MethodHandle 链，调用时直接读取；
+ * 其余表达式交给 SpEL（MIXED 编译模式）计算
+ */
+@Slf4j
+public final class KeyExpressionCompiler {
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, KeyExpressionCompiler.class.getClassLoader()));
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private KeyExpressionCompiler() {
+    }
+
+    /**
+     * 按参数名（或 p0/a0 下标）提取整个参数，参数不存在时返回 null
+     */
+    public static KeyExtractor parameter(String[] paramNames, String name) {
+        int index = indexOf(paramNames, name);
+        if (index < 0) {
+            return null;
+        }
+        return args -> args[index];
+    }
+
+    /**
+     * 编译 key 表达式
+     *
+     * @throws IllegalStateException 表达式无法解析或引用了不存在的参数
+     */
+    public static KeyExtractor compile(Method method, String[] paramNames, String expression) {
+        KeyExtractor path = compilePath(method, paramNames, expression.trim());
+        return path != null ? path : compileSpel(paramNames, expression);
+    }
+
+    /**
+     * 属性路径 "#param.a.b"：逐级按声明类型解析访问器，任何一级无法静态解析时返回 null
+     */
+    private static KeyExtractor compilePath(Method method, String[] paramNames, String expression) {
+        if (expression.length() < 2 || expression.charAt(0) != '#') {
+            return null;
+        }
+        String[] parts = expression.substring(1).split("\\.", -1);
+        for (String part : parts) {
+            if (!isIdentifier(part)) {
+                return null;
+            }
+        }
+        int index = indexOf(paramNames, parts[0]);
+        if (index < 0) {
+            throw new IllegalStateException("Idempotent key expression '" + expression
+                    + "' refers to unknown parameter on " + method);
+        }
+        MethodHandle[] getters = new MethodHandle[parts.length - 1];
+        Class<?> type = method.getParameterTypes()[index];
+        for (int i = 1; i < parts.length; i++) {
+            MethodHandle getter = findGetter(type, parts[i]);
+            if (getter == null) {
+                return null;
+            }
+            getters[i - 1] = getter.asType(GETTER_TYPE);
+            type = getter.type().returnType();
+        }
+        if (getters.length == 0) {
+            return args -> args[index];
+        }
+        return args -> {
+            Object value = args[index];
+            try {
+                for (MethodHandle getter : getters) {
+                    if (value == null) {
+                        return null;
+                    }
+                    value = (Object) getter.invokeExact(value);
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to evaluate idempotent key expression: " + expression, e);
+            }
+            return value;
+        };
+    }
+
+    private static KeyExtractor compileSpel(String[] paramNames, String expression) {
+        Expression compiled;
+        try {
+            compiled = PARSER.parseExpression(expression);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid idempotent key expression: " + expression, e);
+        }
+        String[] names = paramNames != null ? paramNames.clone() : new String[0];
+        return args -> {
+            EvaluationContext context = SimpleEvaluationContext.forReadOnlyDataBinding().build();
+            for (int i = 0; i < args.length; i++) {
+                if (i < names.length) {
+                    context.setVariable(names[i], args[i]);
+                }
+                context.setVariable("p" + i, args[i]);
+            }
+            return compiled.getValue(context);
+        };
+    }
+
+    /**
+     * 参数下标：支持参数名以及 p0/a0 形式
+     */
+    private static int indexOf(String[] paramNames, String name) {
+        if (paramNames != null) {
+            for (int i = 0; i < paramNames.length; i++) {
+                if (name.equals(paramNames[i])) {
+                    return i;
+                }
+            }
+        }
+        if (name.length() > 1 && (name.charAt(0) == 'p' || name.charAt(0) == 'a')) {
+            try {
+                int index = Integer.parseInt(name.substring(1));
+                if (paramNames == null || index < paramNames.length) {
+                    return index;
+                }
+            } catch (NumberFormatException ignored) {
+                // 不是下标形式
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 依次查找 getX() / isX() / x()（record）方法，最后退回字段
+     */
+    private static MethodHandle findGetter(Class<?> type, String property) {
+        if (type.isPrimitive() || type.isArray() || type == Object.class) {
+            return null;
+        }
+        String capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (String name : new String[]{"get" + capitalized, "is" + capitalized, property}) {
+            MethodHandle handle = findMethod(type, name);
+            if (handle != null) {
+                return handle;
+            }
+        }
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                Field field = c.getDeclaredField(property);
+                if (!Modifier.isStatic(field.getModifiers()) && field.trySetAccessible()) {
+                    return MethodHandles.lookup().unreflectGetter(field);
+                }
+            } catch (NoSuchFieldException ignored) {
+                // 继续查找父类
+            } catch (IllegalAccessException | SecurityException e) {
+                log.debug("Field not accessible: {}.{}", c.getName(), property);
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static MethodHandle findMethod(Class<?> type, String name) {
+        try {
+            Method method = type.getMethod(name);
+            if (Modifier.isStatic(method.getModifiers()) || method.getReturnType() == void.class
+                    || method.getDeclaringClass() == Object.class || !method.trySetAccessible()) {
+                return null;
+            }
+            return MethodHandles.lookup().unreflect(method);
+        } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private static boolean isIdentifier(String part) {
+        if (part.isEmpty() || !Character.isJavaIdentifierStart(part.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < part.length(); i++) {
+            if (!Character.isJavaIdentifierPart(part.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.aop.support;
+
+/**
+ * @author nanak
+ *
+ * 幂等 key 提取器：从方法参数中取出参与哈希的值，由 {@link KeyExpressionCompiler} 编译生成
+ */
+@FunctionalInterface
+public interface KeyExtractor {
+
+    /**
+     * 不提取任何值
+     */
+    KeyExtractor NONE = args -> null;
+
+    Object extract(Object[] args);
+}
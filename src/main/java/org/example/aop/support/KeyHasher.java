@@ -0,0 +1,110 @@
+package org.example.aop.support;
+
+/**
+ * @author nanak
+ *
+ * 流式 128 位非加密哈希（MurmurHash3 x64 128 的轮函数，按 8 字节为单位输入）
+ * 可复用的可变对象：reset → put* → finish → hi()/lo()，整个过程不分配对象
+ * 非线程安全，按线程复用
+ */
+public final class KeyHasher {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private long h1;
+    private long h2;
+    private long length;
+
+    /**
+     * 以指定种子重置状态
+     */
+    public KeyHasher reset(long seed1, long seed2) {
+        this.h1 = seed1;
+        this.h2 = seed2;
+        this.length = 0;
+        return this;
+    }
+
+    public KeyHasher putLong(long value) {
+        long k1 = value * C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        long k2 = value * C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        h2 ^= k2;
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+
+        length += Long.BYTES;
+        return this;
+    }
+
+    /**
+     * 字符序列：先写长度再按 4 个 char 一组写入，避免 "ab"+"c" 与 "a"+"bc" 冲突
+     */
+    public KeyHasher putChars(CharSequence chars) {
+        int len = chars.length();
+        putLong(len);
+        int i = 0;
+        for (; i + 4 <= len; i += 4) {
+            putLong(chars.charAt(i)
+                    | (long) chars.charAt(i + 1) << 16
+                    | (long) chars.charAt(i + 2) << 32
+                    | (long) chars.charAt(i + 3) << 48);
+        }
+        if (i < len) {
+            long tail = 0;
+            for (int shift = 0; i < len; i++, shift += 16) {
+                tail |= (long) chars.charAt(i) << shift;
+            }
+            putLong(tail);
+        }
+        return this;
+    }
+
+    /**
+     * 结束输入，计算最终哈希
+     */
+    public KeyHasher finish() {
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        return this;
+    }
+
+    /**
+     * 高 64 位（finish 之后有效）
+     */
+    public long hi() {
+        return h1;
+    }
+
+    /**
+     * 低 64 位（finish 之后有效）
+     */
+    public long lo() {
+        return h2;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
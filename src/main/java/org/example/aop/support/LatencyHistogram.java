@@ -0,0 +1,138 @@
+package org.example.aop.support;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nanak
+ *
+ * 无锁耗时直方图（HDR 风格的对数-线性分桶，单位纳秒）
+ * 每个 2 的幂区间再均分为 32 个子桶，相对误差约 3%；记录时只做一次原子自增，不加锁、不分配对象
+ * 桶数组按线程分条（stripe），降低热点桶上的 CAS 竞争；读取百分位时把各条合并
+ * 桶计数可周期性衰减（{@link #decay()}），百分位反映近期分布；次数、总耗时、最大值不衰减
+ */
+public final class LatencyHistogram {
+
+    /**
+     * 每个 2 的幂区间的子桶位数（32 个子桶）
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 可记录的最大值 2^40 ns（约 18 分钟），超出部分计入最后一个桶
+     */
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private static final int STRIPES = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1), 8);
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT * STRIPES);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * 记录一次耗时
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0L), MAX_VALUE);
+        int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        buckets.getAndIncrement(stripe * BUCKET_COUNT + bucketIndex(value));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * 桶计数减半（后台线程周期调用），与并发记录之间允许少量误差
+     */
+    public void decay() {
+        for (int i = 0; i < buckets.length(); i++) {
+            if (buckets.get(i) != 0) {
+                buckets.getAndUpdate(i, n -> n >>> 1);
+            }
+        }
+    }
+
+    /**
+     * 衰减后的样本数
+     */
+    public long recentCount() {
+        long total = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            total += buckets.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * 百分位（纳秒，基于衰减后的分布），返回所在桶的上界；无数据时返回 0
+     *
+     * @param percentile 0 ~ 1，如 0.99
+     */
+    public long percentile(double percentile) {
+        long[] merged = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            int base = stripe * BUCKET_COUNT;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long n = buckets.get(base + i);
+                merged[i] += n;
+                total += n;
+            }
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += merged[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * 值所在的桶：小于 32 的值一一对应，其余按最高位所在区间 + 次高 5 位定位
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + sub;
+    }
+
+    /**
+     * 桶内可能的最大值
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long sub = index & (SUB_BUCKET_COUNT - 1);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((SUB_BUCKET_COUNT + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.aop.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author nanak
+ *
+ * 幂等结果回放缓存（single-flight）
+ * 首个请求登记一个 future，并发的重复请求等待同一个 future，
+ * 执行成功后结果在幂等窗口内保留，供后续重复请求直接回放
+ * 缓存条数有上限，超出上限的结果不保留（重复请求回退为拒绝）
+ */
+public class ReplayCache<K> {
+
+    /**
+     * 缓存槽位：执行中 expireTime 为 Long.MAX_VALUE
+     */
+    private static final class Slot {
+        final CompletableFuture<Object> future;
+        volatile long expireTime = Long.MAX_VALUE;
+
+        Slot(CompletableFuture<Object> future) {
+            this.future = future;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Slot> slots = new ConcurrentHashMap<>();
+    private final ExpiryWheel<K> expiryWheel;
+    private final int maxSize;
+
+    /**
+     * @param maxSize        最多保留的结果数量
+     * @param tickMillis     时间轮每格跨度（毫秒）
+     * @param wheelSize      时间轮格数
+     */
+    public ReplayCache(int maxSize, long tickMillis, int wheelSize) {
+        this.maxSize = maxSize;
+        this.expiryWheel = new ExpiryWheel<>(tickMillis, wheelSize, this::expire);
+    }
+
+    /**
+     * 尝试以 candidate 作为 key 的执行结果登记
+     *
+     * @return 登记成功返回 null；已有执行中或未过期的结果时返回已有的 future
+     */
+    public CompletableFuture<Object> join(K key, CompletableFuture<Object> candidate) {
+        Slot slot = new Slot(candidate);
+        while (true) {
+            Slot existing = slots.putIfAbsent(key, slot);
+            if (existing == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() < existing.expireTime) {
+                return existing.future;
+            }
+            if (slots.replace(key, existing, slot)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 执行成功：保留结果到 expireTime，超出容量上限时直接丢弃
+     */
+    public void complete(K key, CompletableFuture<Object> future, long expireTime) {
+        Slot slot = slots.get(key);
+        if (slot == null || slot.future != future) {
+            return;
+        }
+        if (slots.size() > maxSize) {
+            slots.remove(key, slot);
+            return;
+        }
+        slot.expireTime = expireTime;
+        expiryWheel.schedule(key, expireTime);
+    }
+
+    /**
+     * 执行失败或未拿到幂等占位：移除登记，不缓存异常
+     */
+    public void discard(K key, CompletableFuture<Object> future) {
+        Slot slot = slots.get(key);
+        if (slot != null && slot.future == future) {
+            slots.remove(key, slot);
+        }
+    }
+
+    /**
+     * 推进过期时间轮（由外部 ticker 调用）
+     */
+    public void advance(long now) {
+        expiryWheel.advance(now);
+    }
+
+    /**
+     * 当前缓存条数（含执行中）
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    private boolean expire(K key, long now) {
+        Slot slot = slots.get(key);
+        return slot != null && now >= slot.expireTime && slots.remove(key, slot);
+    }
+}
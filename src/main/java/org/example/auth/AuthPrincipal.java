@@ -0,0 +1,18 @@
+package org.example.auth;
+
+/**
+ * @author nanak
+ *
+ * 当前请求的认证主体（不可变），由 {@link org.example.interceptor.AuthInterceptor} 验证 token 后放入请求属性，
+ * 控制器方法通过 {@link CurrentUser} 注入
+ *
+ * @param userId 用户 ID
+ * @param expire token 过期时间（毫秒时间戳）
+ */
+public record AuthPrincipal(long userId, long expire) {
+
+    /**
+     * 请求属性名
+     */
+    public static final String REQUEST_ATTRIBUTE = AuthPrincipal.class.getName();
+}
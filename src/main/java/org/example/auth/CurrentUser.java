@@ -0,0 +1,27 @@
+package org.example.auth;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author nanak
+ *
+ * 注入当前登录用户：参数类型为 {@link AuthPrincipal} 时注入认证主体，为 Long / long 时注入 userId
+ * <pre>
+ * public Result&lt;?&gt; profile(@CurrentUser AuthPrincipal principal) { ... }
+ * public Result&lt;?&gt; orders(@CurrentUser Long userId) { ... }
+ * </pre>
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+
+    /**
+     * 是否必须已登录：true 时未认证抛出未授权异常，false 时注入 null（基本类型 long 始终必须）
+     */
+    boolean required() default true;
+}
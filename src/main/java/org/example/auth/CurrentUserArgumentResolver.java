@@ -0,0 +1,41 @@
+package org.example.auth;
+
+import org.example.exception.UnauthorizedException;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * @author nanak
+ *
+ * {@link CurrentUser} 参数解析器：直接读取拦截器放入请求属性的认证主体，不再解析 token
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        if (!parameter.hasParameterAnnotation(CurrentUser.class)) {
+            return false;
+        }
+        Class<?> type = parameter.getParameterType();
+        return type == AuthPrincipal.class || type == Long.class || type == long.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object principal = webRequest.getAttribute(AuthPrincipal.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        Class<?> type = parameter.getParameterType();
+        if (principal instanceof AuthPrincipal authPrincipal) {
+            return type == AuthPrincipal.class ? authPrincipal : authPrincipal.userId();
+        }
+        CurrentUser currentUser = parameter.getParameterAnnotation(CurrentUser.class);
+        if (type == long.class || currentUser == null || currentUser.required()) {
+            throw new UnauthorizedException("login required");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.executor.AdaptivePoolSizer;
+import org.example.executor.MonitoredThreadPoolTaskExecutor;
+import org.example.trace.TraceTaskDecorator;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * @author nanak
+ *
+ * 按 {@link ExecutorPoolProperties} 创建执行器，默认 @Async 线程池与命名执行器共用
+ * 两种执行器都配置了 TraceTaskDecorator，异步任务中的日志携带提交方的 traceId
+ */
+@Slf4j
+final class AsyncExecutorFactory {
+
+    private AsyncExecutorFactory() {
+    }
+
+    /**
+     * 平台线程池（未初始化：作为 Bean 时由容器调用 afterPropertiesSet，否则由调用方 initialize()）
+     */
+    static MonitoredThreadPoolTaskExecutor threadPool(String name, ExecutorPoolProperties pool) {
+        MonitoredThreadPoolTaskExecutor executor = new MonitoredThreadPoolTaskExecutor(name);
+        executor.setCorePoolSize(pool.getCorePoolSize());
+        executor.setMaxPoolSize(pool.getMaxPoolSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setQueueType(pool.getQueueType());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+        executor.setThreadNamePrefix(pool.getThreadNamePrefix() != null ? pool.getThreadNamePrefix() : name + "-");
+        // 关键配置：传播 traceId / spanId 到异步线程（MDC 基于 ThreadLocal，不装饰则异步日志丢失 traceId）
+        executor.setTaskDecorator(new TraceTaskDecorator());
+
+        // 关键配置：拒绝策略（核心业务用CallerRunsPolicy，避免任务丢失）
+        executor.setRejectedExecutionHandler(pool.getRejectionPolicy().handler());
+        // 关键配置：关闭策略（等待已提交任务完成，避免任务中断）
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds((int) pool.getAwaitTermination().toSeconds());
+        // 线程池只有在队列满后才会超过核心线程数，由自适应控制器根据排队等待时间提前调整核心线程数
+        ExecutorPoolProperties.Adaptive adaptive = pool.getAdaptive();
+        if (adaptive.isEnabled()) {
+            int minCore = adaptive.getMinCorePoolSize() != null ? adaptive.getMinCorePoolSize() : pool.getCorePoolSize();
+            int maxCore = Math.min(adaptive.getMaxCorePoolSize() != null ? adaptive.getMaxCorePoolSize() : pool.getMaxPoolSize(),
+                    pool.getMaxPoolSize());
+            executor.setAdaptivePoolSizer(new AdaptivePoolSizer(minCore, maxCore, adaptive.getTargetQueueWait().toNanos(),
+                    adaptive.getLatencyGuard()), adaptive.getInterval());
+        }
+        log.info("Executor {}: platform threads, core: {}, max: {}, queue: {} {}, rejection: {}, adaptive: {}",
+                name, pool.getCorePoolSize(), pool.getMaxPoolSize(), pool.getQueueType(), pool.getQueueCapacity(),
+                pool.getRejectionPolicy(), adaptive.isEnabled());
+        return executor;
+    }
+
+    /**
+     * 虚拟线程：每个任务一个虚拟线程，不排队、不需要拒绝策略，阻塞时不占用平台线程
+     *
+     * @param concurrencyLimit 并发上限，超出时提交方阻塞等待；小于 0 表示不限制
+     */
+    static SimpleAsyncTaskExecutor virtualThreads(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskDecorator(new TraceTaskDecorator());
+        log.info("Executor {}: virtual threads, concurrency limit: {}", threadNamePrefix, concurrencyLimit);
+        return executor;
+    }
+}
@@ -1,48 +1,111 @@
 package org.example.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.example.executor.MonitoredThreadPoolTaskExecutor;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.NonNull;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.Arrays;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * @author nanak
  *
  * 异步配置类
+ * spring.threads.virtual.enabled=true 且运行在 Java 21+ 时使用虚拟线程执行 @Async 任务（Tomcat 由 Spring Boot 同步切换），
+ * 否则使用平台线程池（配置见 {@link AsyncProperties}，线程池指标通过 actuator 的 executor.* 查看）
+ * 未指定执行器的 @Async 方法使用默认线程池，@Async("名称") 使用 async.executors 下的命名执行器
  */
 @Slf4j
 @Configuration
 @EnableAsync // 必须开启异步支持
-public class AsyncGlobalConfig implements AsyncConfigurer {
+@EnableConfigurationProperties(AsyncProperties.class)
+public class AsyncGlobalConfig implements AsyncConfigurer, MeterBinder {
+
+    private static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+
+    private final Environment environment;
+    private final AsyncProperties properties;
+    private Executor executor;
+
+    public AsyncGlobalConfig(Environment environment, AsyncProperties properties) {
+        this.environment = environment;
+        this.properties = properties;
+    }
 
     /**
      * 1. 配置自定义线程池（生产环境必配，避免默认线程池的资源风险）
      */
     @Override
-    public Executor getAsyncExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(100);
-        executor.setQueueCapacity(300);
-        executor.setKeepAliveSeconds(300);
-        executor.setThreadNamePrefix("Async-Thread-");
+    public synchronized Executor getAsyncExecutor() {
+        if (executor == null) {
+            executor = createExecutor();
+        }
+        return executor;
+    }
 
-        // 关键配置：拒绝策略（核心业务用CallerRunsPolicy，避免任务丢失）
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
-        // 关键配置：关闭策略（等待已提交任务完成，避免任务中断）
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(120);
+    private Executor createExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualThreadExecutor();
+        }
+        if (environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false)) {
+            log.warn("Virtual threads require Java 21+, running on Java {}, @Async falls back to platform thread pool",
+                    JavaVersion.getJavaVersion());
+        }
+        return platformThreadExecutor();
+    }
 
+    private Executor virtualThreadExecutor() {
+        return AsyncExecutorFactory.virtualThreads("Async-Virtual-", SimpleAsyncTaskExecutor.UNBOUNDED_CONCURRENCY);
+    }
+
+    private Executor platformThreadExecutor() {
+        MonitoredThreadPoolTaskExecutor executor = AsyncExecutorFactory.threadPool("async", properties);
         executor.initialize();
         return executor;
     }
 
+    /**
+     * 注册 async.executors 下的命名执行器（隔离舱），通过 @Async("名称") 使用
+     */
+    @Bean
+    public static BulkheadExecutorRegistrar bulkheadExecutorRegistrar() {
+        return new BulkheadExecutorRegistrar();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        if (getAsyncExecutor() instanceof MonitoredThreadPoolTaskExecutor monitored) {
+            // 默认线程池不是 Bean，Spring Boot 不会为它注册线程池状态指标（命名执行器是 Bean，由 Spring Boot 注册）
+            new ExecutorServiceMetrics(monitored.getThreadPoolExecutor(), monitored.getName(), Tags.empty()).bindTo(registry);
+            monitored.bindTo(registry);
+        }
+    }
+
+    /**
+     * 关闭线程池（等待已提交任务完成）
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor instanceof MonitoredThreadPoolTaskExecutor monitored) {
+            monitored.shutdown();
+        }
+    }
+
     /**
      * 2. 配置全局 Async 异常处理器
      */
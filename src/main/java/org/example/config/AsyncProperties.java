@@ -0,0 +1,32 @@
+package org.example.config;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author nanak
+ *
+ * @Async 线程池配置项（前缀 async）：根级配置为默认线程池，executors 下为命名执行器（隔离舱）
+ * 启用虚拟线程时线程池相关配置不生效
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@ConfigurationProperties(prefix = "async")
+public class AsyncProperties extends ExecutorPoolProperties {
+
+    /**
+     * 命名执行器，key 为 Bean 名称，通过 @Async("名称") 选择；每个执行器独立的线程、队列与拒绝策略，
+     * 一类任务堆积不会占满其他任务的线程池
+     */
+    private Map<String, ExecutorPoolProperties> executors = new LinkedHashMap<>();
+
+    public AsyncProperties() {
+        setThreadNamePrefix("Async-Thread-");
+    }
+}
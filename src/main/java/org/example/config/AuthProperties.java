@@ -0,0 +1,50 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author nanak
+ *
+ * 认证配置项（前缀 auth）
+ */
+@Data
+@ConfigurationProperties(prefix = "auth")
+public class AuthProperties {
+
+    /**
+     * 是否启用认证拦截器
+     */
+    private boolean enabled = true;
+
+    /**
+     * 需要认证的路径
+     */
+    private List<String> includePaths = new ArrayList<>(List.of("/api/**"));
+
+    /**
+     * 不需要认证的路径（优先于 includePaths）
+     */
+    private List<String> excludePaths = new ArrayList<>();
+
+    /**
+     * 携带 token 的请求头，值为 "Bearer &lt;token&gt;"
+     */
+    private String header = "Authorization";
+
+    /**
+     * 超过该长度的 token 直接拒绝，不做解析
+     */
+    private int maxTokenLength = 1024;
+
+    /**
+     * 无效 token 负缓存：最多条数与缓存时长，同一个无效 token 重复请求时不再验签
+     */
+    private int negativeCacheSize = 10000;
+
+    private Duration negativeCacheTtl = Duration.ofMinutes(5);
+}
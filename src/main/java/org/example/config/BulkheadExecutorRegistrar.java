@@ -0,0 +1,66 @@
+package org.example.config;
+
+import org.example.executor.MonitoredThreadPoolTaskExecutor;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.NonNull;
+
+import java.util.Map;
+
+/**
+ * @author nanak
+ *
+ * 把 async.executors 下的每一项注册为同名的执行器 Bean（隔离舱），@Async("名称") 按 Bean 名称选择
+ * 执行器数量由配置决定，无法用固定的 @Bean 方法声明，因此在 Bean 定义阶段从 Environment 绑定配置后注册
+ * 平台线程池类型为 MonitoredThreadPoolTaskExecutor（生命周期与指标由容器管理）；启用虚拟线程时为虚拟线程执行器，maxPoolSize 作为并发上限
+ */
+public class BulkheadExecutorRegistrar implements BeanDefinitionRegistryPostProcessor, EnvironmentAware {
+
+    static final String PREFIX = "async.executors";
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(@NonNull Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(@NonNull BeanDefinitionRegistry registry) throws BeansException {
+        Map<String, ExecutorPoolProperties> executors = Binder.get(environment)
+                .bind(PREFIX, Bindable.mapOf(String.class, ExecutorPoolProperties.class))
+                .orElse(Map.of());
+        boolean virtual = Threading.VIRTUAL.isActive(environment);
+        executors.forEach((name, pool) -> {
+            if (registry.containsBeanDefinition(name)) {
+                throw new IllegalStateException("Bean name of executor " + PREFIX + "." + name + " is already in use");
+            }
+            AbstractBeanDefinition definition = virtual
+                    ? BeanDefinitionBuilder.genericBeanDefinition(SimpleAsyncTaskExecutor.class,
+                            () -> AsyncExecutorFactory.virtualThreads(threadNamePrefix(name, pool), pool.getMaxPoolSize()))
+                    .getBeanDefinition()
+                    : BeanDefinitionBuilder.genericBeanDefinition(MonitoredThreadPoolTaskExecutor.class,
+                            () -> AsyncExecutorFactory.threadPool(name, pool))
+                    .getBeanDefinition();
+            registry.registerBeanDefinition(name, definition);
+        });
+    }
+
+    @Override
+    public void postProcessBeanFactory(@NonNull ConfigurableListableBeanFactory beanFactory) throws BeansException {
+    }
+
+    private static String threadNamePrefix(String name, ExecutorPoolProperties pool) {
+        return pool.getThreadNamePrefix() != null ? pool.getThreadNamePrefix() : name + "-";
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.config;
+
+import lombok.Data;
+import org.example.executor.QueueType;
+import org.example.executor.RejectionPolicy;
+
+import java.time.Duration;
+
+/**
+ * @author nanak
+ *
+ * 线程池配置项，默认 @Async 线程池（{@link AsyncProperties}）与各命名执行器（async.executors.*）共用
+ * 启用虚拟线程时只有 maxPoolSize 生效（作为并发上限）
+ */
+@Data
+public class ExecutorPoolProperties {
+
+    /**
+     * 核心线程数（自适应开启时为初始值）
+     */
+    private int corePoolSize = 5;
+
+    /**
+     * 最大线程数（队列满后才会超过核心线程数）
+     */
+    private int maxPoolSize = 100;
+
+    /**
+     * 队列容量，0 表示不排队（SynchronousQueue）
+     */
+    private int queueCapacity = 300;
+
+    /**
+     * 队列类型：ARRAY（有界数组）/ LINKED（有界链表，默认）/ PRIORITY（有界优先级队列，
+     * 只对直接提交的 {@link org.example.executor.PrioritizedTask} 生效，@Async 任务不带优先级）
+     */
+    private QueueType queueType = QueueType.LINKED;
+
+    /**
+     * 拒绝策略：CALLER_RUNS（默认，由提交线程执行）/ ABORT / DISCARD / DISCARD_OLDEST
+     */
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+    /**
+     * 超过核心线程数的空闲线程存活时间
+     */
+    private Duration keepAlive = Duration.ofSeconds(300);
+
+    /**
+     * 线程名前缀，默认为 "执行器名-"
+     */
+    private String threadNamePrefix;
+
+    /**
+     * 关闭时等待已提交任务完成的最长时间
+     */
+    private Duration awaitTermination = Duration.ofSeconds(120);
+
+    private Adaptive adaptive = new Adaptive();
+
+    /**
+     * 核心线程数自适应：任务排队等待超过目标值（或触发 CallerRuns）时扩大核心线程数，持续空闲时逐步收缩
+     */
+    @Data
+    public static class Adaptive {
+        /**
+         * 是否开启
+         */
+        private boolean enabled = true;
+
+        /**
+         * 核心线程数下限，默认为 corePoolSize
+         */
+        private Integer minCorePoolSize;
+
+        /**
+         * 核心线程数上限，默认为 maxPoolSize
+         */
+        private Integer maxCorePoolSize;
+
+        /**
+         * 目标排队等待时间（平均值），超过时扩容
+         */
+        private Duration targetQueueWait = Duration.ofMillis(50);
+
+        /**
+         * 调整周期
+         */
+        private Duration interval = Duration.ofSeconds(1);
+
+        /**
+         * 任务平均执行时间超过历史均值的倍数时暂停扩容（下游已饱和，加线程只会更慢）
+         */
+        private double latencyGuard = 2.0;
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.config;
 
+import org.example.interceptor.TraceIdInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -31,6 +32,12 @@ public class GlobalCorsConfig implements WebMvcConfigurer {
      */
     private static final String ALLOWED_HEADERS = "*";
 
+    /**
+     * 允许前端读取的响应头（跨域时浏览器默认只暴露简单响应头）
+     * 链路追踪拦截器返回的 traceId、traceparent
+     */
+    private static final String[] EXPOSED_HEADERS = {TraceIdInterceptor.TRACE_ID_KEY, TraceIdInterceptor.TRACEPARENT_KEY};
+
     /**
      * 是否允许携带凭证（Cookie、Authorization等）
      * 注意：若设为true，ALLOWED_ORIGINS 不能为 *，需指定具体域名
@@ -54,6 +61,8 @@ public class GlobalCorsConfig implements WebMvcConfigurer {
                 .allowedMethods(ALLOWED_METHODS.split(","))
                 // 允许的请求头
                 .allowedHeaders(ALLOWED_HEADERS.split(","))
+                // 允许前端读取的响应头
+                .exposedHeaders(EXPOSED_HEADERS)
                 // 是否允许携带凭证
                 .allowCredentials(ALLOW_CREDENTIALS)
                 // 预检请求有效期
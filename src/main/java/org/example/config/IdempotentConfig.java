@@ -0,0 +1,36 @@
+package org.example.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.aop.store.IdempotencyStore;
+import org.example.aop.store.MappedFileIdempotencyStore;
+import org.example.aop.store.OffHeapIdempotencyStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * @author nanak
+ *
+ * 幂等存储配置
+ * 通过 idempotent.store.type 选择内置实现，也可自行声明 IdempotencyStore Bean（如 Redis 实现）覆盖
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(IdempotentProperties.class)
+public class IdempotentConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public IdempotencyStore idempotencyStore(IdempotentProperties properties) {
+        IdempotentProperties.Store store = properties.getStore();
+        log.info("Idempotent store type: {}, capacity: {}, overflow policy: {}",
+                store.getType(), store.getCapacity(), store.getOverflowPolicy());
+        return switch (store.getType()) {
+            case FILE -> MappedFileIdempotencyStore.open(Path.of(store.getFile()), store.getCapacity(), store.getSegments());
+            case OFF_HEAP -> new OffHeapIdempotencyStore(store.getCapacity(), store.getSegments());
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.config;
+
+import lombok.Data;
+import org.example.aop.store.OverflowPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @author nanak
+ *
+ * 幂等配置项（前缀 idempotent）
+ */
+@Data
+@ConfigurationProperties(prefix = "idempotent")
+public class IdempotentProperties {
+
+    private Store store = new Store();
+
+    /**
+     * 回放模式最多保留的结果数量
+     */
+    private int replayCacheSize = 10000;
+
+    /**
+     * 执行中（IN_FLIGHT）占位的租期：方法执行超过租期、或进程崩溃未结束的 key 在租期后可被重新占位，
+     * 应大于被保护方法的最长执行时间
+     */
+    private Duration inFlightLease = Duration.ofMinutes(10);
+
+    @Data
+    public static class Store {
+        /**
+         * 存储类型：OFF_HEAP（默认，进程内堆外表）/ FILE（文件映射，同机多实例共享）
+         */
+        private StoreType type = StoreType.OFF_HEAP;
+
+        /**
+         * 最大 key 数量（向上取整为 2 的幂），每个 key 占 24 字节
+         */
+        private int capacity = 65536;
+
+        /**
+         * 分段数（锁粒度）
+         */
+        private int segments = 64;
+
+        /**
+         * 存储写满时的处理策略
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
+
+        /**
+         * FILE 类型的映射文件路径
+         */
+        private String file = "./data/idempotent.store";
+    }
+
+    public enum StoreType {
+        OFF_HEAP,
+        FILE
+    }
+}
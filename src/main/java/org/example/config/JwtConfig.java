@@ -0,0 +1,67 @@
+package org.example.config;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.utils.TokenRevocationList;
+import org.example.utils.ToolKit;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author nanak
+ *
+ * JWT 配置：把 jwt.* 应用到 ToolKit.JWT，并由后台线程按时推进签名密钥环（请求线程在 epoch 切换时不需要派生密钥）、
+ * 定期压缩吊销列表
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(JwtProperties.class)
+public class JwtConfig {
+
+    /**
+     * 后台检查间隔上限（毫秒）
+     */
+    private static final long MAX_TICK_MILLIS = 60_000;
+
+    private final ScheduledExecutorService ticker;
+    private final TokenRevocationList revocationList;
+
+    public JwtConfig(JwtProperties properties) {
+        ToolKit.JWT.configure(properties.getSecret(), properties.getPreviousSecrets(), properties.getRotationInterval(),
+                properties.isAcceptLegacyTokens());
+        if (properties.getSecret() == null || properties.getSecret().isEmpty()) {
+            log.warn("jwt.secret is not configured, using the built-in default secret");
+        }
+        log.info("JWT key rotation interval: {}, current kid: {}, previous secrets: {}, accept legacy tokens: {}",
+                properties.getRotationInterval(), ToolKit.JWT.currentKid(), properties.getPreviousSecrets().size(),
+                properties.isAcceptLegacyTokens());
+
+        JwtProperties.Revocation revocation = properties.getRevocation();
+        Path logFile = revocation.getLogFile() == null || revocation.getLogFile().isEmpty()
+                ? null : Path.of(revocation.getLogFile());
+        this.revocationList = new TokenRevocationList(logFile, revocation.getExpectedEntries());
+        ToolKit.JWT.useRevocationList(revocationList).close();
+
+        long tickMillis = Math.max(1, Math.min(properties.getRotationInterval().toMillis() / 10, MAX_TICK_MILLIS));
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("Jwt-Key-Rotation-");
+        threadFactory.setDaemon(true);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.ticker.scheduleAtFixedRate(() -> ToolKit.JWT.rotateKeys(System.currentTimeMillis()),
+                tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        long compactionMillis = revocation.getCompactionInterval().toMillis();
+        this.ticker.scheduleAtFixedRate(() -> revocationList.compact(System.currentTimeMillis()),
+                compactionMillis, compactionMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        revocationList.close();
+    }
+}
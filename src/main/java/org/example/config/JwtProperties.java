@@ -0,0 +1,62 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author nanak
+ *
+ * JWT 配置项（前缀 jwt）
+ */
+@Data
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    /**
+     * 主密钥，各 epoch 的签名密钥由它派生；不配置时使用内置默认密钥（生产环境务必配置）
+     */
+    private String secret;
+
+    /**
+     * 更换前的主密钥，只用于验签：更换 secret 时把旧值移到这里，旧主密钥签发的 token 在过期前仍然有效，
+     * 最长有效期（刷新令牌 7 天）过后即可移除
+     */
+    private List<String> previousSecrets = new ArrayList<>();
+
+    /**
+     * 签名密钥轮换周期，所有节点需一致；修改后按旧周期签发的 token 失效
+     * 需要保留的历史密钥数（token 最长有效期 / 周期）超过 {@link org.example.utils.JwtKeyRing#MAX_RETAINED_EPOCHS} 时启动失败
+     */
+    private Duration rotationInterval = Duration.ofDays(1);
+
+    /**
+     * 是否接受旧 token：不带 kid 的 token（启用轮换前签发）用主密钥验签，不带 typ 的 token 当作访问令牌；
+     * 旧 token 全部过期后可关闭
+     */
+    private boolean acceptLegacyTokens = true;
+
+    private Revocation revocation = new Revocation();
+
+    @Data
+    public static class Revocation {
+        /**
+         * 吊销日志路径（追加写入，重启时回放），默认不配置，吊销记录只保存在内存中、重启后丢失；
+         * 需要跨重启保留吊销时配置为可写路径（如 ./data/jwt-revocations.log）
+         */
+        private String logFile;
+
+        /**
+         * 预计同时有效的吊销数量，决定布隆过滤器大小
+         */
+        private int expectedEntries = 100_000;
+
+        /**
+         * 压缩周期：移除已过期的吊销记录并重写日志
+         */
+        private Duration compactionInterval = Duration.ofMinutes(10);
+    }
+}
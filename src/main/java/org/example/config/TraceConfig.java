@@ -0,0 +1,32 @@
+package org.example.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.trace.TraceIdGenerator;
+import org.example.trace.W3cTraceIdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author nanak
+ *
+ * 链路追踪配置
+ * 默认使用 W3C 兼容的 traceId 生成器，可自行声明 TraceIdGenerator Bean 覆盖
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TraceProperties.class)
+public class TraceConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TraceIdGenerator traceIdGenerator(TraceProperties properties) {
+        W3cTraceIdGenerator generator = properties.getNodeId() == null
+                ? new W3cTraceIdGenerator()
+                : new W3cTraceIdGenerator(properties.getNodeId());
+        log.info("TraceId generator node id: {}{}", generator.nodeId(),
+                properties.getNodeId() == null ? " (derived from host and pid)" : "");
+        return generator;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @author nanak
+ *
+ * 链路追踪配置项（前缀 trace）
+ */
+@Data
+@ConfigurationProperties(prefix = "trace")
+public class TraceProperties {
+
+    /**
+     * 节点号（0 ~ 65535），写入 traceId 的高 64 位；多节点部署时应为每个节点配置不同的值
+     * 不配置时由主机名 + 进程号哈希得出，节点数较多时可能冲突
+     */
+    private Integer nodeId;
+
+    /**
+     * 本服务开启新链路时的采样比例（0 ~ 1）；上游通过 traceparent 传入时沿用其 sampled 标志
+     * 只有采样的请求记录 span
+     */
+    private double sampleRatio = 1.0;
+
+    /**
+     * 采样请求耗时超过该值时输出 span 明细
+     */
+    private Duration slowRequestThreshold = Duration.ofSeconds(1);
+}
@@ -1,26 +1,50 @@
 package org.example.config;
 
 import jakarta.annotation.Resource;
+import org.example.auth.CurrentUserArgumentResolver;
+import org.example.interceptor.AuthInterceptor;
 import org.example.interceptor.TraceIdInterceptor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
  * @author nanak
  *
  * WebMvcConfigurer 配置类
  */
 @Configuration
+@EnableConfigurationProperties(AuthProperties.class)
 public class WebMvcConfig implements WebMvcConfigurer {
     @Resource
     private TraceIdInterceptor traceIdInterceptor;
 
+    @Resource
+    private AuthInterceptor authInterceptor;
+
+    @Resource
+    private AuthProperties authProperties;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         // 拦截所有请求，排除静态资源
         registry.addInterceptor(traceIdInterceptor)
                 .addPathPatterns("/**")
                 .excludePathPatterns("/static/**", "/favicon.ico");
+        // 认证在 traceId 之后，拒绝的请求也带 traceId
+        if (authProperties.isEnabled()) {
+            registry.addInterceptor(authInterceptor)
+                    .addPathPatterns(authProperties.getIncludePaths())
+                    .excludePathPatterns(authProperties.getExcludePaths());
+        }
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
     }
 }
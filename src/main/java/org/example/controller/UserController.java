@@ -0,0 +1,40 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.example.auth.AuthPrincipal;
+import org.example.auth.CurrentUser;
+import org.example.result.Result;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author nanak
+ * <p>
+ * 用户控制器 - 展示认证拦截器与 {@link CurrentUser} 注入
+ * 请求需携带 Authorization: Bearer &lt;accessToken&gt;
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/user")
+@Tag(name = "用户接口", description = "需要登录的示例接口")
+public class UserController {
+
+    /**
+     * 当前登录用户
+     */
+    @GetMapping("/me")
+    @Operation(summary = "当前用户", description = "返回 token 中的用户信息，token 只在拦截器中验证一次")
+    public Result<Map<String, Object>> me(@CurrentUser AuthPrincipal principal) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("userId", principal.userId());
+        result.put("expire", principal.expire());
+        log.info("当前用户: {}", principal.userId());
+        return Result.success(result);
+    }
+}
@@ -21,6 +21,15 @@ import java.util.stream.Collectors;
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    /**
+     * 未认证（高频出现时不刷错误日志）
+     */
+    @ExceptionHandler(UnauthorizedException.class)
+    public Result<?> unauthorizedExceptionHandler(UnauthorizedException e) {
+        log.debug("UnauthorizedException: {}", e.getMessage());
+        return Result.error(e.getCode(), e.getMessage());
+    }
+
     /**
      * 业务异常
      */
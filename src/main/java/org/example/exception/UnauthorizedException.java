@@ -0,0 +1,21 @@
+package org.example.exception;
+
+import org.example.enums.ErrorCode;
+
+/**
+ * @author nanak
+ *
+ * 未认证异常（错误码 40100）
+ * 无效 token 可能被大量刷入，不填充堆栈，由全局异常处理器按 debug 级别记录
+ */
+public class UnauthorizedException extends BusinessException {
+
+    public UnauthorizedException(String message) {
+        super(ErrorCode.UNAUTHORIZED.getCode(), message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
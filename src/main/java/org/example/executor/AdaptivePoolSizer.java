@@ -0,0 +1,84 @@
+package org.example.executor;
+
+/**
+ * @author nanak
+ *
+ * 核心线程数自适应控制器（只做计算，不持有线程池）
+ * 每个周期根据本周期的平均排队等待、平均执行时间、CallerRuns 次数给出新的核心线程数：
+ * 排队等待超过目标或发生 CallerRuns 时按当前值的 1/4（至少 1）扩容；
+ * 但平均执行时间超过历史均值 latencyGuard 倍时不扩容（通常是下游饱和，加线程只会放大排队）；
+ * 连续 {@link #SHRINK_AFTER_IDLE_TICKS} 个周期排队等待低于目标 1/4、队列为空且活跃线程不足一半时减 1
+ */
+public class AdaptivePoolSizer {
+
+    static final int SHRINK_AFTER_IDLE_TICKS = 5;
+
+    /**
+     * 执行时间均值的平滑系数
+     */
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final int minCore;
+    private final int maxCore;
+    private final long targetWaitNanos;
+    private final double latencyGuard;
+
+    private double runEwmaNanos;
+    private int idleTicks;
+
+    public AdaptivePoolSizer(int minCore, int maxCore, long targetWaitNanos, double latencyGuard) {
+        if (minCore < 1 || maxCore < minCore) {
+            throw new IllegalArgumentException("invalid core pool size range: " + minCore + " ~ " + maxCore);
+        }
+        this.minCore = minCore;
+        this.maxCore = maxCore;
+        this.targetWaitNanos = targetWaitNanos;
+        this.latencyGuard = latencyGuard;
+    }
+
+    /**
+     * 一个周期内的观测值
+     *
+     * @param core        当前核心线程数
+     * @param active      当前活跃线程数
+     * @param queued      当前队列长度
+     * @param tasks       本周期开始执行的任务数
+     * @param waitNanos   本周期任务排队等待总时间
+     * @param completed   本周期完成的任务数
+     * @param runNanos    本周期任务执行总时间
+     * @param callerRuns  本周期 CallerRuns 次数
+     */
+    public record Sample(int core, int active, int queued, long tasks, long waitNanos,
+                         long completed, long runNanos, long callerRuns) {
+    }
+
+    /**
+     * 计算新的核心线程数（不变时返回 sample.core()）
+     */
+    public int next(Sample sample) {
+        int core = Math.min(Math.max(sample.core(), minCore), maxCore);
+        double avgWait = sample.tasks() == 0 ? 0 : (double) sample.waitNanos() / sample.tasks();
+        double avgRun = sample.completed() == 0 ? 0 : (double) sample.runNanos() / sample.completed();
+        boolean latencyInflated = runEwmaNanos > 0 && avgRun > runEwmaNanos * latencyGuard;
+        if (sample.completed() > 0) {
+            runEwmaNanos = runEwmaNanos == 0 ? avgRun : runEwmaNanos + EWMA_ALPHA * (avgRun - runEwmaNanos);
+        }
+
+        if (avgWait > targetWaitNanos || sample.callerRuns() > 0) {
+            idleTicks = 0;
+            if (latencyInflated) {
+                return core;
+            }
+            return Math.min(maxCore, core + Math.max(1, core / 4));
+        }
+        if (avgWait < targetWaitNanos / 4.0 && sample.queued() == 0 && sample.active() * 2 < core) {
+            if (++idleTicks >= SHRINK_AFTER_IDLE_TICKS) {
+                idleTicks = 0;
+                return Math.max(minCore, core - 1);
+            }
+        } else {
+            idleTicks = 0;
+        }
+        return core;
+    }
+}
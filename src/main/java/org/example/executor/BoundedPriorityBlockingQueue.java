@@ -0,0 +1,31 @@
+package org.example.executor;
+
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * @author nanak
+ *
+ * 有界优先级队列：PriorityBlockingQueue 本身无界，线程池永远不会扩容到核心线程数以上也不会触发拒绝策略；
+ * 这里在 offer 时检查容量（检查与入队之间不加锁，并发时可能略超容量）
+ */
+class BoundedPriorityBlockingQueue<E> extends PriorityBlockingQueue<E> {
+
+    private final int capacity;
+
+    BoundedPriorityBlockingQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (size() >= capacity) {
+            return false;
+        }
+        return super.offer(e);
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - size());
+    }
+}
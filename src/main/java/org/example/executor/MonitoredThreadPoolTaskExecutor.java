@@ -0,0 +1,295 @@
+package org.example.executor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.example.aop.support.LatencyHistogram;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nanak
+ *
+ * 带监控的线程池：记录每个任务的排队等待时间与执行时间（无锁直方图），统计 CallerRuns 与拒绝次数，
+ * 可选地由 {@link AdaptivePoolSizer} 周期调整核心线程数；队列类型见 {@link QueueType}
+ *
+ * 指标（tag name 为线程池名）：
+ * executor.queue.wait / executor.queue.wait.percentile     排队等待时间（提交到开始执行）
+ * executor.execution / executor.execution.percentile       执行时间
+ * executor.caller.runs                                     CallerRunsPolicy 在提交线程执行的次数
+ * executor.rejections                                      其他拒绝策略的拒绝次数
+ * 线程池状态（executor.queued / executor.active / executor.pool.* 等）不在这里注册：作为 Bean 时由 Spring Boot 的
+ * TaskExecutorMetricsAutoConfiguration 按 Bean 名称注册，不是 Bean 的实例由持有者注册（见 AsyncGlobalConfig），避免重复注册
+ */
+@Slf4j
+public class MonitoredThreadPoolTaskExecutor extends ThreadPoolTaskExecutor implements MeterBinder {
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    /**
+     * 直方图衰减周期，百分位反映近期分布
+     */
+    private static final long DECAY_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+
+    private final String name;
+    private final LatencyHistogram waitHistogram = new LatencyHistogram();
+    private final LatencyHistogram runHistogram = new LatencyHistogram();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * 任务提交序号，优先级相同时保证先进先出
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    private QueueType queueType = QueueType.LINKED;
+    private AdaptivePoolSizer sizer;
+    private Duration tickInterval = DEFAULT_TICK;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * 上一周期的累计值（只在 ticker 线程中读写）
+     */
+    private long lastTasks;
+    private long lastWaitNanos;
+    private long lastCompleted;
+    private long lastRunNanos;
+    private long lastCallerRuns;
+    private long lastDecayNanos = System.nanoTime();
+
+    public MonitoredThreadPoolTaskExecutor(String name) {
+        this.name = name;
+        super.setTaskDecorator(runnable -> monitor(runnable, runnable));
+    }
+
+    /**
+     * 业务装饰器先执行，计时包在最外层
+     */
+    @Override
+    public void setTaskDecorator(@NonNull TaskDecorator taskDecorator) {
+        super.setTaskDecorator(runnable -> monitor(runnable, taskDecorator.decorate(runnable)));
+    }
+
+    /**
+     * 队列类型，需在 initialize() 之前调用
+     */
+    public void setQueueType(QueueType queueType) {
+        this.queueType = queueType;
+    }
+
+    /**
+     * 开启核心线程数自适应，需在 initialize() 之前调用
+     */
+    public void setAdaptivePoolSizer(AdaptivePoolSizer sizer, Duration interval) {
+        this.sizer = sizer;
+        this.tickInterval = interval;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyHistogram getWaitHistogram() {
+        return waitHistogram;
+    }
+
+    public LatencyHistogram getRunHistogram() {
+        return runHistogram;
+    }
+
+    public long getCallerRuns() {
+        return callerRuns.sum();
+    }
+
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    private Runnable monitor(Runnable original, Runnable decorated) {
+        int priority = original instanceof PrioritizedTask prioritized ? prioritized.priority() : 0;
+        return new MonitoredTask(decorated, priority, sequence.getAndIncrement(), System.nanoTime());
+    }
+
+    @Override
+    @NonNull
+    protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            return new SynchronousQueue<>();
+        }
+        return switch (queueType) {
+            case ARRAY -> new ArrayBlockingQueue<>(queueCapacity);
+            case LINKED -> new LinkedBlockingQueue<>(queueCapacity);
+            case PRIORITY -> new BoundedPriorityBlockingQueue<>(queueCapacity);
+        };
+    }
+
+    /**
+     * 计时包装：记录排队等待与执行时间；按优先级（大的在前）、提交序号排序，供优先级队列使用
+     */
+    private final class MonitoredTask implements Runnable, Comparable<MonitoredTask> {
+        private final Runnable task;
+        private final int priority;
+        private final long sequence;
+        private final long submitted;
+
+        MonitoredTask(Runnable task, int priority, long sequence, long submitted) {
+            this.task = task;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.submitted = submitted;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            waitHistogram.record(start - submitted);
+            try {
+                task.run();
+            } finally {
+                runHistogram.record(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public int compareTo(MonitoredTask other) {
+            int byPriority = Integer.compare(other.priority, priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    @Override
+    @NonNull
+    protected ExecutorService initializeExecutor(@NonNull ThreadFactory threadFactory,
+                                                 @NonNull RejectedExecutionHandler rejectedExecutionHandler) {
+        ExecutorService executor = super.initializeExecutor(threadFactory, counting(rejectedExecutionHandler));
+        ticker = Executors.newSingleThreadScheduledExecutor(tickerThreadFactory());
+        long millis = tickInterval.toMillis();
+        ticker.scheduleWithFixedDelay(this::tick, millis, millis, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    private RejectedExecutionHandler counting(RejectedExecutionHandler handler) {
+        boolean callerRunsPolicy = handler instanceof ThreadPoolExecutor.CallerRunsPolicy;
+        return (runnable, executor) -> {
+            if (callerRunsPolicy && !executor.isShutdown()) {
+                callerRuns.increment();
+            } else {
+                rejections.increment();
+            }
+            handler.rejectedExecution(runnable, executor);
+        };
+    }
+
+    private ThreadFactory tickerThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(name + "-Ticker-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    /**
+     * 周期任务：调整核心线程数、衰减直方图
+     */
+    void tick() {
+        try {
+            long tasks = waitHistogram.count();
+            long waitNanos = waitHistogram.totalNanos();
+            long completed = runHistogram.count();
+            long runNanos = runHistogram.totalNanos();
+            long callerRunCount = callerRuns.sum();
+            if (sizer != null) {
+                resize(new AdaptivePoolSizer.Sample(getCorePoolSize(), getActiveCount(), getQueueSize(),
+                        tasks - lastTasks, waitNanos - lastWaitNanos, completed - lastCompleted,
+                        runNanos - lastRunNanos, callerRunCount - lastCallerRuns));
+            }
+            lastTasks = tasks;
+            lastWaitNanos = waitNanos;
+            lastCompleted = completed;
+            lastRunNanos = runNanos;
+            lastCallerRuns = callerRunCount;
+
+            long now = System.nanoTime();
+            if (now - lastDecayNanos >= DECAY_INTERVAL_NANOS) {
+                lastDecayNanos = now;
+                waitHistogram.decay();
+                runHistogram.decay();
+            }
+        } catch (RuntimeException e) {
+            // 不能让异常终止周期任务
+            log.warn("Executor {} tick failed", name, e);
+        }
+    }
+
+    private void resize(AdaptivePoolSizer.Sample sample) {
+        int next = sizer.next(sample);
+        if (next == sample.core()) {
+            return;
+        }
+        log.info("Executor {} core pool size {} -> {} (queued: {}, avg queue wait: {}ms, caller runs: {})",
+                name, sample.core(), next, sample.queued(),
+                sample.tasks() == 0 ? 0 : sample.waitNanos() / sample.tasks() / 1_000_000, sample.callerRuns());
+        setCorePoolSize(next);
+    }
+
+    @Override
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        super.shutdown();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Tags tags = Tags.of("name", name);
+        register(registry, "executor.queue.wait", "Time tasks spent waiting in the queue", waitHistogram, tags);
+        register(registry, "executor.execution", "Task execution time", runHistogram, tags);
+        FunctionCounter.builder("executor.caller.runs", callerRuns, LongAdder::sum)
+                .tags(tags)
+                .description("Number of tasks run on the submitting thread by CallerRunsPolicy")
+                .register(registry);
+        FunctionCounter.builder("executor.rejections", rejections, LongAdder::sum)
+                .tags(tags)
+                .description("Number of tasks rejected by the executor")
+                .register(registry);
+    }
+
+    private static void register(MeterRegistry registry, String meterName, String description,
+                                 LatencyHistogram histogram, Tags tags) {
+        FunctionTimer.builder(meterName, histogram,
+                        LatencyHistogram::count, LatencyHistogram::totalNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description(description)
+                .register(registry);
+        for (double percentile : PERCENTILES) {
+            TimeGauge.builder(meterName + ".percentile", histogram, TimeUnit.NANOSECONDS,
+                            h -> h.percentile(percentile))
+                    .tags(tags)
+                    .tag("phi", String.valueOf(percentile))
+                    .description(description + " percentiles")
+                    .register(registry);
+        }
+    }
+}
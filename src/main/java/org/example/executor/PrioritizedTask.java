@@ -0,0 +1,29 @@
+package org.example.executor;
+
+/**
+ * @author nanak
+ *
+ * 带优先级的任务，提交到 {@link QueueType#PRIORITY} 队列时数值大的先执行
+ * <pre>
+ * executor.execute(PrioritizedTask.of(10, () -> ...));
+ * </pre>
+ * 注意 @Async 方法由 Spring 包装为 FutureTask，无法携带优先级，按先进先出执行
+ */
+public interface PrioritizedTask extends Runnable {
+
+    int priority();
+
+    static PrioritizedTask of(int priority, Runnable task) {
+        return new PrioritizedTask() {
+            @Override
+            public int priority() {
+                return priority;
+            }
+
+            @Override
+            public void run() {
+                task.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.executor;
+
+/**
+ * @author nanak
+ *
+ * 线程池队列类型（均为有界队列，容量为 0 时统一使用 SynchronousQueue）
+ */
+public enum QueueType {
+
+    /**
+     * ArrayBlockingQueue：预分配数组，入队出队共用一把锁，内存稳定
+     */
+    ARRAY,
+
+    /**
+     * LinkedBlockingQueue：入队出队分离锁，吞吐更高，每个任务多分配一个节点
+     */
+    LINKED,
+
+    /**
+     * 优先级队列：实现 {@link PrioritizedTask} 的任务按优先级出队，其余任务优先级为 0，同优先级先进先出
+     */
+    PRIORITY
+}
@@ -0,0 +1,41 @@
+package org.example.executor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * @author nanak
+ *
+ * 线程池拒绝策略
+ */
+public enum RejectionPolicy {
+
+    /**
+     * 由提交线程执行（任务不丢失，但会阻塞提交方，例如 Tomcat 请求线程）
+     */
+    CALLER_RUNS,
+
+    /**
+     * 抛出 RejectedExecutionException（Spring 包装为 TaskRejectedException）
+     */
+    ABORT,
+
+    /**
+     * 静默丢弃新任务，适用于可丢弃的低优先级任务
+     */
+    DISCARD,
+
+    /**
+     * 丢弃队头任务后重试提交（优先级队列中队头为优先级最高的任务，不建议搭配使用）
+     */
+    DISCARD_OLDEST;
+
+    public RejectedExecutionHandler handler() {
+        return switch (this) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.interceptor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.auth.AuthPrincipal;
+import org.example.config.AuthProperties;
+import org.example.exception.UnauthorizedException;
+import org.example.utils.JwtTokenType;
+import org.example.utils.JwtUtil;
+import org.example.utils.ToolKit;
+import org.example.utils.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nanak
+ *
+ * 认证拦截器：每个请求只验证一次 Bearer token，把不可变的 {@link AuthPrincipal} 放入请求属性，
+ * 控制器通过 {@link org.example.auth.CurrentUser} 取用，不再重复解析
+ * 只接受访问令牌（typ=access，以及 jwt.accept-legacy-tokens 开启时不带 typ 的旧 token），刷新令牌按无效处理；
+ * 验证失败的 token 进入负缓存，同一个无效 token 被反复刷入时直接拒绝，不再验签；超长 token 不做解析直接拒绝
+ * 只拦截控制器方法，静态资源与 CORS 预检请求放行；拦截路径与排除路径见 {@link AuthProperties}
+ */
+@Component
+public class AuthInterceptor implements HandlerInterceptor, MeterBinder {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final String header;
+    private final int maxTokenLength;
+    private final VerifiedTokenCache<Boolean> negativeCache;
+
+    private final LongAdder missing = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+
+    public AuthInterceptor() {
+        this(ToolKit.JWT, new AuthProperties());
+    }
+
+    @Autowired
+    public AuthInterceptor(AuthProperties properties) {
+        this(ToolKit.JWT, properties);
+    }
+
+    public AuthInterceptor(JwtUtil jwtUtil, AuthProperties properties) {
+        this.jwtUtil = jwtUtil;
+        this.header = properties.getHeader();
+        this.maxTokenLength = properties.getMaxTokenLength();
+        this.negativeCache = new VerifiedTokenCache<>(properties.getNegativeCacheSize(),
+                properties.getNegativeCacheTtl().toMillis());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        String token = resolveToken(request.getHeader(header));
+        if (token == null) {
+            missing.increment();
+            throw new UnauthorizedException("missing token");
+        }
+        if (token.length() > maxTokenLength) {
+            invalid.increment();
+            throw new UnauthorizedException("invalid token");
+        }
+        long now = System.currentTimeMillis();
+        if (negativeCache.get(token, now) != null) {
+            negativeHits.increment();
+            throw new UnauthorizedException("invalid token");
+        }
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
+        Long userId = verified.valid() && verified.type() == JwtTokenType.ACCESS ? verified.userId() : null;
+        if (userId == null) {
+            invalid.increment();
+            negativeCache.put(token, Boolean.TRUE, Long.MAX_VALUE, now);
+            throw new UnauthorizedException("invalid token");
+        }
+        request.setAttribute(AuthPrincipal.REQUEST_ATTRIBUTE, new AuthPrincipal(userId, verified.expire()));
+        return true;
+    }
+
+    /**
+     * 负缓存当前条数
+     */
+    public int negativeCacheSize() {
+        return negativeCache.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.rejections", missing, LongAdder::sum)
+                .tag("reason", "missing")
+                .description("Requests rejected without a bearer token")
+                .register(registry);
+        FunctionCounter.builder("auth.rejections", invalid, LongAdder::sum)
+                .tag("reason", "invalid")
+                .description("Requests rejected after token verification")
+                .register(registry);
+        FunctionCounter.builder("auth.rejections", negativeHits, LongAdder::sum)
+                .tag("reason", "negative_cache")
+                .description("Requests rejected by the invalid-token cache without verification")
+                .register(registry);
+    }
+
+    private static String resolveToken(String value) {
+        if (value == null || value.length() <= BEARER_PREFIX.length()
+                || !value.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = value.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+}
@@ -2,47 +2,121 @@ package org.example.interceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.example.config.TraceProperties;
+import org.example.trace.Span;
+import org.example.trace.SpanRecorder;
+import org.example.trace.TraceContext;
+import org.example.trace.TraceIdGenerator;
+import org.example.trace.TraceparentParser;
+import org.example.trace.W3cTraceIdGenerator;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * @author nanak
  *
  * MDC 链路追踪拦截器：生成 traceId 并放入 MDC
+ * 优先解析 W3C traceparent / tracestate（沿用上游 traceId 与 sampled 标志，本服务作为子 span），
+ * 其次使用自定义 traceId 请求头，都没有时生成新的 traceId
+ * 响应头返回 traceId 和本服务 span 的 traceparent（traceId 不符合 W3C 格式时不返回 traceparent），前端或调用方可据此关联链路
+ * 每个请求开启一个 {@link SpanRecorder}，采样的慢请求在结束时输出 span 明细
  */
+@Slf4j
 @Component
 public class TraceIdInterceptor implements HandlerInterceptor {
 
     // 定义 traceId 在 MDC 中的 key（统一命名，方便日志配置）
     public static final String TRACE_ID_KEY = "traceId";
 
+    public static final String TRACEPARENT_KEY = "traceparent";
+    public static final String TRACESTATE_KEY = "tracestate";
+
+    /**
+     * 请求开始前的 MDC 内容，请求结束时恢复
+     */
+    private static final String MDC_SNAPSHOT_ATTRIBUTE = TraceIdInterceptor.class.getName() + ".MDC_SNAPSHOT";
+
+    private final TraceIdGenerator traceIdGenerator;
+    private final double sampleRatio;
+    private final long slowRequestNanos;
+
+    public TraceIdInterceptor() {
+        this(new W3cTraceIdGenerator(), new TraceProperties());
+    }
+
+    @Autowired
+    public TraceIdInterceptor(TraceIdGenerator traceIdGenerator, TraceProperties properties) {
+        this.traceIdGenerator = traceIdGenerator;
+        this.sampleRatio = properties.getSampleRatio();
+        this.slowRequestNanos = properties.getSlowRequestThreshold().toNanos();
+    }
+
     /**
      * 请求处理前：生成 traceId 并放入 MDC
      */
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        // 1. 优先从请求头获取 traceId（跨服务调用时传递），没有则生成
-        String traceId = request.getHeader(TRACE_ID_KEY);
-        if (traceId == null || traceId.trim().isEmpty()) {
-            // 生成 UUID 并去掉横线，缩短长度（也可直接用 UUID.randomUUID().toString()）
-            traceId = UUID.randomUUID().toString().replace("-", "");
+        Map<String, String> snapshot = MDC.getCopyOfContextMap();
+        if (snapshot != null && !snapshot.isEmpty()) {
+            request.setAttribute(MDC_SNAPSHOT_ATTRIBUTE, snapshot);
+        }
+        // 1. 优先解析 traceparent，其次从请求头获取 traceId（跨服务调用时传递），都没有则生成
+        String spanId = traceIdGenerator.nextSpanId();
+        TraceContext parent = TraceparentParser.parse(request.getHeader(TRACEPARENT_KEY), request.getHeader(TRACESTATE_KEY));
+        TraceContext context;
+        if (parent != null) {
+            context = parent.child(spanId);
+        } else {
+            String traceId = request.getHeader(TRACE_ID_KEY);
+            if (traceId == null || traceId.trim().isEmpty()) {
+                // 32 位十六进制（W3C traceparent 的 trace-id 格式），比 UUID 去横线少一次加锁随机数和两次字符串拷贝
+                traceId = traceIdGenerator.nextTraceId();
+            }
+            context = new TraceContext(traceId, spanId, null, sample() ? TraceContext.FLAG_SAMPLED : 0, null);
         }
         // 2. 放入 MDC（MDC 底层是 ThreadLocal，仅当前线程可见）
-        MDC.put(TRACE_ID_KEY, traceId);
-        // 3. 可选：将 traceId 放入响应头，方便前端查看
-        response.setHeader(TRACE_ID_KEY, traceId);
+        MDC.put(TRACE_ID_KEY, context.traceId());
+        MDC.put(SpanRecorder.SPAN_ID_KEY, spanId);
+        // 3. 可选：将 traceId 和 traceparent 放入响应头，方便前端查看
+        response.setHeader(TRACE_ID_KEY, context.traceId());
+        String traceparent = context.traceparent();
+        if (traceparent != null) {
+            response.setHeader(TRACEPARENT_KEY, traceparent);
+        }
+        SpanRecorder.begin(context, request.getMethod() + " " + request.getRequestURI(), traceIdGenerator);
         return true;
     }
 
     /**
-     * 请求处理后：清理 MDC（必须！否则线程池复用会导致 traceId 串号）
+     * 请求处理后：输出慢请求的 span 明细，并把 MDC 恢复为请求前的内容（必须！否则线程池复用会导致 traceId 串号）
      */
     @Override
+    @SuppressWarnings("unchecked")
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
-        // 清空当前线程的 MDC 数据
-        MDC.clear();
+        SpanRecorder recorder = SpanRecorder.current();
+        if (recorder != null) {
+            Span root = recorder.end();
+            if (recorder.context().sampled() && root.durationNanos() >= slowRequestNanos) {
+                log.warn("Slow request {} took {}ms, spans:{}", root.name(), root.durationNanos() / 1_000_000, recorder.dump());
+            }
+        }
+        // 请求中新增的 MDC 数据一并清除，请求前已有的保留
+        Object snapshot = request.getAttribute(MDC_SNAPSHOT_ATTRIBUTE);
+        if (snapshot instanceof Map) {
+            request.removeAttribute(MDC_SNAPSHOT_ATTRIBUTE);
+            MDC.setContextMap((Map<String, String>) snapshot);
+        } else {
+            MDC.clear();
+        }
+    }
+
+    private boolean sample() {
+        return sampleRatio >= 1.0 || (sampleRatio > 0 && ThreadLocalRandom.current().nextDouble() < sampleRatio);
     }
 }
\ No newline at end of file
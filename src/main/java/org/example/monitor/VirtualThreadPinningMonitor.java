@@ -0,0 +1,104 @@
+package org.example.monitor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author nanak
+ *
+ * 虚拟线程钉住（pinning）监控：虚拟线程在 synchronized 块或本地方法中阻塞时无法让出载体线程，
+ * 大量发生会让虚拟线程退化为平台线程池，并可能耗尽载体线程
+ * 通过 JFR 事件流订阅 jdk.VirtualThreadPinned（超过 20ms 才记录），记录次数与总时长，并输出钉住位置的调用栈（每秒最多一条）
+ * 仅在启用虚拟线程（spring.threads.virtual.enabled=true 且 Java 21+）时生效
+ *
+ * 指标：
+ * jvm.threads.virtual.pinned        钉住次数
+ * jvm.threads.virtual.pinned.time   钉住总时长（秒）
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements MeterBinder {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final Duration THRESHOLD = Duration.ofMillis(20);
+    private static final int MAX_STACK_DEPTH = 16;
+    private static final long WARN_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final LongAdder pinnedCount = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final AtomicLong nextWarnNanos = new AtomicLong(System.nanoTime());
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(THRESHOLD).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started, threshold: {}ms", THRESHOLD.toMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        Duration duration = event.getDuration();
+        pinnedCount.increment();
+        pinnedNanos.add(duration.toNanos());
+        long now = System.nanoTime();
+        long next = nextWarnNanos.get();
+        if (now - next < 0 || !nextWarnNanos.compareAndSet(next, now + WARN_INTERVAL_NANOS)) {
+            return;
+        }
+        log.warn("Virtual thread pinned for {}ms (total {} times), stack:{}",
+                duration.toMillis(), pinnedCount.sum(), format(event.getStackTrace()));
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return " <unavailable>";
+        }
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(frames.size(), MAX_STACK_DEPTH); i++) {
+            RecordedFrame frame = frames.get(i);
+            sb.append("\n\tat ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jvm.threads.virtual.pinned", pinnedCount, LongAdder::sum)
+                .description("Number of virtual thread pinned events longer than " + THRESHOLD.toMillis() + "ms")
+                .register(registry);
+        FunctionCounter.builder("jvm.threads.virtual.pinned.time", pinnedNanos, adder -> adder.sum() / 1e9)
+                .description("Total time virtual threads were pinned to their carrier")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+}
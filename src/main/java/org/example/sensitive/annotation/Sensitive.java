@@ -0,0 +1,35 @@
+package org.example.sensitive.annotation;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.example.sensitive.serializer.SensitiveJsonSerializer;
+import org.example.utils.SensitiveType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author nanak
+ *
+ * 字段脱敏注解，序列化时按指定类型脱敏（String / CharSequence 字段，其他类型字段忽略）；
+ * 字段值与指定类型的形状不符时按值识别类型脱敏，不会因类型不符而原样输出
+ * Jackson（接口响应）通过 {@link SensitiveJsonSerializer} 生效；FastJSON2（ToolKit.JSON）通过
+ * {@link org.example.sensitive.serializer.SensitiveWriterModule} 生效
+ * 两者都在生成类的序列化器时解析一次注解，未使用本注解的类没有额外开销
+ *
+ * 使用示例：
+ * @Sensitive(type = SensitiveType.MOBILE_PHONE)
+ * private String phone;
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@JacksonAnnotationsInside
+@JsonSerialize(using = SensitiveJsonSerializer.class)
+public @interface Sensitive {
+    /**
+     * 脱敏类型
+     */
+    SensitiveType type();
+}
@@ -0,0 +1,51 @@
+package org.example.sensitive.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.example.sensitive.annotation.Sensitive;
+import org.example.utils.SensitiveType;
+import org.example.utils.StringUtil;
+
+import java.io.IOException;
+
+/**
+ * @author nanak
+ *
+ * {@link Sensitive} 字段的 Jackson 序列化器
+ * Jackson 为每个 bean 属性调用一次 {@link #createContextual}，返回绑定了脱敏类型的实例并随 BeanSerializer 缓存，
+ * 序列化时直接写出脱敏后的值
+ */
+public class SensitiveJsonSerializer extends StdSerializer<Object> implements ContextualSerializer {
+
+    private final SensitiveType type;
+
+    public SensitiveJsonSerializer() {
+        this(null);
+    }
+
+    private SensitiveJsonSerializer(SensitiveType type) {
+        super(Object.class);
+        this.type = type;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+        Sensitive sensitive = property == null ? null : property.getAnnotation(Sensitive.class);
+        if (sensitive == null || !CharSequence.class.isAssignableFrom(property.getType().getRawClass())) {
+            // 非字符串字段按原类型序列化
+            return property == null ? this : provider.findValueSerializer(property.getType(), property);
+        }
+        return new SensitiveJsonSerializer(sensitive.type());
+    }
+
+    @Override
+    public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        String str = value.toString();
+        gen.writeString(type == null ? StringUtil.sensitive(str) : StringUtil.sensitive(str, type));
+    }
+}
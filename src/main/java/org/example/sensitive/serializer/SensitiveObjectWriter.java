@@ -0,0 +1,97 @@
+package org.example.sensitive.serializer;
+
+import com.alibaba.fastjson2.JSONWriter;
+import com.alibaba.fastjson2.writer.ObjectWriter;
+import org.example.utils.SensitiveType;
+import org.example.utils.StringUtil;
+
+import java.lang.reflect.Type;
+
+/**
+ * @author nanak
+ *
+ * {@link org.example.sensitive.annotation.Sensitive} 字段的 FastJSON2 序列化器
+ * FastJSON2 按 Class 无参实例化字段序列化器（FieldInfo.writeUsing），每种脱敏类型对应一个子类，
+ * 由 {@link SensitiveWriterModule#writerOf(SensitiveType)} 选择
+ */
+public abstract class SensitiveObjectWriter implements ObjectWriter<Object> {
+
+    private final SensitiveType type;
+
+    protected SensitiveObjectWriter(SensitiveType type) {
+        this.type = type;
+    }
+
+    public SensitiveType type() {
+        return type;
+    }
+
+    @Override
+    public void write(JSONWriter jsonWriter, Object object, Object fieldName, Type fieldType, long features) {
+        if (object == null) {
+            jsonWriter.writeNull();
+            return;
+        }
+        jsonWriter.writeString(StringUtil.sensitive(object.toString(), type));
+    }
+
+    public static final class MobilePhone extends SensitiveObjectWriter {
+        public MobilePhone() {
+            super(SensitiveType.MOBILE_PHONE);
+        }
+    }
+
+    public static final class IdCard extends SensitiveObjectWriter {
+        public IdCard() {
+            super(SensitiveType.ID_CARD);
+        }
+    }
+
+    public static final class Email extends SensitiveObjectWriter {
+        public Email() {
+            super(SensitiveType.EMAIL);
+        }
+    }
+
+    public static final class FixedPhone extends SensitiveObjectWriter {
+        public FixedPhone() {
+            super(SensitiveType.FIXED_PHONE);
+        }
+    }
+
+    public static final class BankCard extends SensitiveObjectWriter {
+        public BankCard() {
+            super(SensitiveType.BANK_CARD);
+        }
+    }
+
+    public static final class CarLicense extends SensitiveObjectWriter {
+        public CarLicense() {
+            super(SensitiveType.CAR_LICENSE);
+        }
+    }
+
+    public static final class ChineseName extends SensitiveObjectWriter {
+        public ChineseName() {
+            super(SensitiveType.CHINESE_NAME);
+        }
+    }
+
+    public static final class UserId extends SensitiveObjectWriter {
+        public UserId() {
+            super(SensitiveType.USER_ID);
+        }
+    }
+
+    public static final class Address extends SensitiveObjectWriter {
+        public Address() {
+            super(SensitiveType.ADDRESS);
+        }
+    }
+
+    public static final class Default extends SensitiveObjectWriter {
+        public Default() {
+            super(SensitiveType.DEFAULT);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.sensitive.serializer;
+
+import cn.hutool.core.util.StrUtil;
+import com.alibaba.fastjson2.codec.BeanInfo;
+import com.alibaba.fastjson2.codec.FieldInfo;
+import com.alibaba.fastjson2.modules.ObjectWriterAnnotationProcessor;
+import com.alibaba.fastjson2.modules.ObjectWriterModule;
+import org.example.sensitive.annotation.Sensitive;
+import org.example.utils.SensitiveType;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * @author nanak
+ *
+ * FastJSON2 脱敏模块：在创建类的 ObjectWriter 时（每个类一次）检查字段上的 {@link Sensitive}，
+ * 为标注的 String / CharSequence 字段指定 {@link SensitiveObjectWriter}；未标注的字段和类沿用 FastJSON2 原有的序列化器
+ * 需在首次序列化相关类之前注册（JsonUtil 加载时注册），已生成的 ObjectWriter 不会更新
+ */
+public final class SensitiveWriterModule implements ObjectWriterModule {
+
+    public static final SensitiveWriterModule INSTANCE = new SensitiveWriterModule();
+
+    private final ObjectWriterAnnotationProcessor annotationProcessor = new ObjectWriterAnnotationProcessor() {
+        @Override
+        public void getFieldInfo(BeanInfo beanInfo, FieldInfo fieldInfo, Class objectClass, Field field) {
+            apply(fieldInfo, field);
+        }
+
+        @Override
+        public void getFieldInfo(BeanInfo beanInfo, FieldInfo fieldInfo, Class objectClass, Method method) {
+            // 通过 getter 序列化时（如 Lombok 生成的 getter），注解在对应的字段上
+            String fieldName = StrUtil.getGeneralField(method.getName());
+            if (fieldName != null) {
+                apply(fieldInfo, findField(objectClass, fieldName));
+            }
+        }
+    };
+
+    private SensitiveWriterModule() {
+    }
+
+    @Override
+    public ObjectWriterAnnotationProcessor getAnnotationProcessor() {
+        return annotationProcessor;
+    }
+
+    /**
+     * 脱敏类型对应的序列化器类
+     */
+    public static Class<? extends SensitiveObjectWriter> writerOf(SensitiveType type) {
+        return switch (type) {
+            case MOBILE_PHONE -> SensitiveObjectWriter.MobilePhone.class;
+            case ID_CARD -> SensitiveObjectWriter.IdCard.class;
+            case EMAIL -> SensitiveObjectWriter.Email.class;
+            case FIXED_PHONE -> SensitiveObjectWriter.FixedPhone.class;
+            case BANK_CARD -> SensitiveObjectWriter.BankCard.class;
+            case CAR_LICENSE -> SensitiveObjectWriter.CarLicense.class;
+            case CHINESE_NAME -> SensitiveObjectWriter.ChineseName.class;
+            case USER_ID -> SensitiveObjectWriter.UserId.class;
+            case ADDRESS -> SensitiveObjectWriter.Address.class;
+            case DEFAULT -> SensitiveObjectWriter.Default.class;
+        };
+    }
+
+    private static void apply(FieldInfo fieldInfo, Field field) {
+        if (field == null || !CharSequence.class.isAssignableFrom(field.getType())) {
+            return;
+        }
+        Sensitive sensitive = field.getAnnotation(Sensitive.class);
+        if (sensitive != null) {
+            fieldInfo.writeUsing = writerOf(sensitive.type());
+        }
+    }
+
+    private static Field findField(Class<?> objectClass, String name) {
+        for (Class<?> c = objectClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // 继续查找父类
+            }
+        }
+        return null;
+    }
+}
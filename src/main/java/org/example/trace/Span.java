@@ -0,0 +1,77 @@
+package org.example.trace;
+
+/**
+ * @author nanak
+ *
+ * 进程内 span：记录一段代码的起止时间，配合 try-with-resources 使用
+ * <pre>
+ * try (Span span = SpanRecorder.startSpan("order.query")) {
+ *     ...
+ * }
+ * </pre>
+ * 未采样或不在请求线程中时返回 {@link #NOOP}，close 不做任何事
+ */
+public final class Span implements AutoCloseable {
+
+    /**
+     * 不记录的空 span
+     */
+    public static final Span NOOP = new Span(null, "noop", null, null, 0L);
+
+    private final SpanRecorder recorder;
+    private final String name;
+    private final String spanId;
+    private final Span parent;
+    private final int depth;
+    private final long startNanos;
+    private long endNanos = -1;
+
+    Span(SpanRecorder recorder, String name, String spanId, Span parent, long startNanos) {
+        this.recorder = recorder;
+        this.name = name;
+        this.spanId = spanId;
+        this.parent = parent;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.startNanos = startNanos;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String spanId() {
+        return spanId;
+    }
+
+    public Span parent() {
+        return parent;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public boolean finished() {
+        return endNanos >= 0;
+    }
+
+    /**
+     * 耗时（纳秒），未结束时返回截至当前的耗时
+     */
+    public long durationNanos() {
+        return (finished() ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    @Override
+    public void close() {
+        if (recorder == null || finished()) {
+            return;
+        }
+        endNanos = System.nanoTime();
+        recorder.finish(this);
+    }
+}
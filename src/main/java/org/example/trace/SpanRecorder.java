@@ -0,0 +1,173 @@
+package org.example.trace;
+
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author nanak
+ *
+ * 单个请求的 span 记录器（绑定到处理请求的线程）
+ * 由 TraceIdInterceptor 在请求开始时创建根 span、结束时收尾，业务代码通过 {@link #startSpan(String)} 记录子 span
+ * 只有采样的请求记录子 span；每个请求最多记录 {@link #MAX_SPANS} 个，超出的只计数，避免循环中打点撑爆内存
+ * 记录只在请求线程中进行，不做同步
+ */
+public final class SpanRecorder {
+
+    /**
+     * 当前 span ID 在 MDC 中的 key
+     */
+    public static final String SPAN_ID_KEY = "spanId";
+
+    static final int MAX_SPANS = 256;
+
+    private static final ThreadLocal<SpanRecorder> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 由 {@link TraceSnapshot} 带到异步线程的链路上下文（异步线程不记录 span）
+     */
+    private static final ThreadLocal<TraceContext> PROPAGATED = new ThreadLocal<>();
+
+    private final TraceContext context;
+    private final TraceIdGenerator generator;
+    private final List<Span> spans = new ArrayList<>();
+    private final Span root;
+    private Span current;
+    private int dropped;
+
+    private SpanRecorder(TraceContext context, String name, TraceIdGenerator generator) {
+        this.context = context;
+        this.generator = generator;
+        this.root = new Span(this, name, context.spanId(), null, System.nanoTime());
+        this.current = root;
+        spans.add(root);
+    }
+
+    /**
+     * 开始一个请求：创建根 span（ID 为 context.spanId()）并绑定到当前线程
+     */
+    public static SpanRecorder begin(TraceContext context, String name, TraceIdGenerator generator) {
+        SpanRecorder recorder = new SpanRecorder(context, name, generator);
+        CURRENT.set(recorder);
+        return recorder;
+    }
+
+    /**
+     * 当前线程的记录器，不在请求中时返回 null
+     */
+    public static SpanRecorder current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 当前线程的链路上下文（请求线程或由请求线程派生的异步任务），都不是时返回 null
+     */
+    public static TraceContext currentContext() {
+        SpanRecorder recorder = CURRENT.get();
+        return recorder == null ? PROPAGATED.get() : recorder.context;
+    }
+
+    /**
+     * 设置当前线程传播而来的链路上下文，返回原值；传入 null 表示清除
+     */
+    static TraceContext propagate(TraceContext context) {
+        TraceContext previous = PROPAGATED.get();
+        if (context == null) {
+            PROPAGATED.remove();
+        } else {
+            PROPAGATED.set(context);
+        }
+        return previous;
+    }
+
+    /**
+     * 在当前 span 下开始子 span；未采样或不在请求中时返回 {@link Span#NOOP}
+     */
+    public static Span startSpan(String name) {
+        SpanRecorder recorder = CURRENT.get();
+        if (recorder == null || !recorder.context.sampled() || recorder.root.finished()) {
+            return Span.NOOP;
+        }
+        return recorder.start(name);
+    }
+
+    private Span start(String name) {
+        if (spans.size() >= MAX_SPANS) {
+            dropped++;
+            return Span.NOOP;
+        }
+        Span span = new Span(this, name, generator.nextSpanId(), current, System.nanoTime());
+        spans.add(span);
+        current = span;
+        MDC.put(SPAN_ID_KEY, span.spanId());
+        return span;
+    }
+
+    /**
+     * span 结束：若为当前 span 则回到父 span（未按嵌套顺序关闭时不改变当前 span）
+     */
+    void finish(Span span) {
+        if (span == current && span.parent() != null) {
+            current = span.parent();
+            MDC.put(SPAN_ID_KEY, current.spanId());
+        }
+    }
+
+    /**
+     * 结束请求：关闭根 span 并解除与当前线程的绑定
+     */
+    public Span end() {
+        root.close();
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        return root;
+    }
+
+    public TraceContext context() {
+        return context;
+    }
+
+    public Span root() {
+        return root;
+    }
+
+    public List<Span> spans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    public int dropped() {
+        return dropped;
+    }
+
+    /**
+     * 按开始顺序输出 span 树，每行：相对根 span 的开始偏移、耗时、名称、spanId
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder(64 * spans.size());
+        long origin = root.startNanos();
+        for (Span span : spans) {
+            sb.append("\n\t");
+            for (int i = 0; i < span.depth(); i++) {
+                sb.append("  ");
+            }
+            sb.append("[+").append(formatMillis(span.startNanos() - origin)).append("ms] ")
+                    .append(span.name()).append(' ')
+                    .append(formatMillis(span.durationNanos())).append("ms");
+            if (!span.finished()) {
+                sb.append(" (unfinished)");
+            }
+            sb.append(" spanId=").append(span.spanId());
+        }
+        if (dropped > 0) {
+            sb.append("\n\t... ").append(dropped).append(" spans dropped");
+        }
+        return sb.toString();
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.trace;
+
+/**
+ * @author nanak
+ *
+ * 当前请求的链路上下文
+ *
+ * @param traceId      链路 ID（上游传入的自定义 traceId 不一定符合 W3C 格式）
+ * @param spanId       本服务处理该请求的 span ID
+ * @param parentSpanId 上游 span ID，本服务为链路起点时为 null
+ * @param flags        trace-flags，最低位为 sampled
+ * @param traceState   上游的 tracestate，原样透传，可为 null
+ */
+public record TraceContext(String traceId, String spanId, String parentSpanId, int flags, String traceState) {
+
+    public static final int FLAG_SAMPLED = 0x01;
+
+    public boolean sampled() {
+        return (flags & FLAG_SAMPLED) != 0;
+    }
+
+    /**
+     * 以当前 span 为父节点派生子上下文（traceId、flags、tracestate 不变）
+     */
+    public TraceContext child(String childSpanId) {
+        return new TraceContext(traceId, childSpanId, spanId, flags, traceState);
+    }
+
+    /**
+     * 向下游传递的 traceparent 头（version 00），traceId 不符合 W3C 格式时返回 null
+     */
+    public String traceparent() {
+        if (!TraceIds.isValidTraceId(traceId) || !TraceIds.isValidSpanId(spanId)) {
+            return null;
+        }
+        char[] buffer = new char[TraceparentParser.VERSION_00_LENGTH];
+        buffer[0] = '0';
+        buffer[1] = '0';
+        buffer[2] = '-';
+        traceId.getChars(0, TraceIds.TRACE_ID_LENGTH, buffer, 3);
+        buffer[35] = '-';
+        spanId.getChars(0, TraceIds.SPAN_ID_LENGTH, buffer, 36);
+        buffer[52] = '-';
+        buffer[53] = Character.forDigit((flags >>> 4) & 0xF, 16);
+        buffer[54] = Character.forDigit(flags & 0xF, 16);
+        return new String(buffer);
+    }
+}
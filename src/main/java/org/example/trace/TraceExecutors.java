@@ -0,0 +1,44 @@
+package org.example.trace;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author nanak
+ *
+ * 传播链路状态的 Executor 包装，用于 CompletableFuture 等不经过 TaskDecorator 的场景：
+ * <pre>
+ * CompletableFuture.supplyAsync(this::query, TraceExecutors.wrap(executor))
+ *         .thenApplyAsync(this::convert, TraceExecutors.commonPool());
+ * </pre>
+ * 每次 execute 时捕获调用线程的快照；后续阶段由上一阶段的工作线程提交，而该线程已恢复了快照，
+ * 因此整条链路都能拿到发起请求时的 traceId
+ */
+public final class TraceExecutors {
+
+    private static final Executor COMMON_POOL = wrap(ForkJoinPool.commonPool());
+
+    private TraceExecutors() {
+    }
+
+    public static Executor wrap(Executor delegate) {
+        if (delegate instanceof TracingExecutor) {
+            return delegate;
+        }
+        return new TracingExecutor(delegate);
+    }
+
+    /**
+     * 包装后的 ForkJoinPool.commonPool()，替代 CompletableFuture 的默认异步执行器
+     */
+    public static Executor commonPool() {
+        return COMMON_POOL;
+    }
+
+    private record TracingExecutor(Executor delegate) implements Executor {
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(TraceSnapshot.capture().wrap(command));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author nanak
+ *
+ * traceId 生成器，可声明自定义实现的 Bean 替换默认的 {@link W3cTraceIdGenerator}
+ */
+@FunctionalInterface
+public interface TraceIdGenerator {
+
+    /**
+     * 生成新的 traceId
+     */
+    String nextTraceId();
+
+    /**
+     * 生成新的 spanId（16 位小写十六进制，不为全 0）
+     */
+    default String nextSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return TraceIds.toHex(id);
+    }
+}
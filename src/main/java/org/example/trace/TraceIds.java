@@ -0,0 +1,77 @@
+package org.example.trace;
+
+/**
+ * @author nanak
+ *
+ * W3C Trace Context 标识的编码与校验工具（trace-id 32 位、span-id 16 位小写十六进制，全 0 无效）
+ * 校验逐字符进行，不使用正则、不拆分字符串
+ */
+public final class TraceIds {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public static final int TRACE_ID_LENGTH = 32;
+    public static final int SPAN_ID_LENGTH = 16;
+
+    private TraceIds() {
+    }
+
+    /**
+     * 把 64 位整数按 16 位十六进制写入缓冲区
+     */
+    public static void writeHex(char[] buffer, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            buffer[offset + i] = HEX[(int) value & 0xF];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * 64 位整数转 16 位十六进制（span-id）
+     */
+    public static String toHex(long value) {
+        char[] buffer = new char[SPAN_ID_LENGTH];
+        writeHex(buffer, 0, value);
+        return new String(buffer);
+    }
+
+    /**
+     * 合法的 trace-id：32 位小写十六进制且不全为 0
+     */
+    public static boolean isValidTraceId(CharSequence value) {
+        return value != null && value.length() == TRACE_ID_LENGTH && isValidId(value, 0, TRACE_ID_LENGTH);
+    }
+
+    /**
+     * 合法的 span-id：16 位小写十六进制且不全为 0
+     */
+    public static boolean isValidSpanId(CharSequence value) {
+        return value != null && value.length() == SPAN_ID_LENGTH && isValidId(value, 0, SPAN_ID_LENGTH);
+    }
+
+    /**
+     * [from, to) 区间为小写十六进制且不全为 0
+     */
+    static boolean isValidId(CharSequence value, int from, int to) {
+        boolean nonZero = false;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (!isLowerHex(c)) {
+                return false;
+            }
+            nonZero |= c != '0';
+        }
+        return nonZero;
+    }
+
+    static boolean isLowerHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+    }
+
+    /**
+     * 单个小写十六进制字符的值，调用前需已校验
+     */
+    static int hexValue(char c) {
+        return c <= '9' ? c - '0' : c - 'a' + 10;
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.trace;
+
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import org.slf4j.MDC;
+import org.slf4j.spi.MDCAdapter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * @author nanak
+ *
+ * 当前线程链路状态（MDC + 链路上下文）的不可变快照，用于把 traceId / spanId 带到异步线程
+ * 使用 Logback 时直接取 MDC 的只读视图：MDC 未变化时多次捕获共享同一个 Map，提交任务时不复制
+ * 在目标线程恢复时才写入一次，任务结束后还原目标线程原有的 MDC 与链路上下文
+ */
+public final class TraceSnapshot {
+
+    private static final TraceSnapshot EMPTY = new TraceSnapshot(Collections.emptyMap(), null);
+
+    private final Map<String, String> mdc;
+    private final TraceContext context;
+
+    private TraceSnapshot(Map<String, String> mdc, TraceContext context) {
+        this.mdc = mdc;
+        this.context = context;
+    }
+
+    /**
+     * 捕获当前线程的链路状态
+     */
+    public static TraceSnapshot capture() {
+        Map<String, String> mdc = mdcView();
+        TraceContext context = SpanRecorder.currentContext();
+        if (mdc.isEmpty() && context == null) {
+            return EMPTY;
+        }
+        return new TraceSnapshot(mdc, context);
+    }
+
+    public Map<String, String> mdc() {
+        return mdc;
+    }
+
+    public TraceContext context() {
+        return context;
+    }
+
+    /**
+     * 在当前线程恢复快照，返回的 Scope 关闭时还原为恢复前的状态
+     */
+    public Scope restore() {
+        Map<String, String> previousMdc = mdcView();
+        TraceContext previousContext = SpanRecorder.propagate(context);
+        if (previousMdc != mdc) {
+            setMdc(mdc);
+        }
+        return () -> {
+            SpanRecorder.propagate(previousContext);
+            if (mdcView() != previousMdc) {
+                setMdc(previousMdc);
+            }
+        };
+    }
+
+    public Runnable wrap(Runnable task) {
+        if (this == EMPTY) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = restore()) {
+                task.run();
+            }
+        };
+    }
+
+    public <T> Callable<T> wrap(Callable<T> task) {
+        return () -> {
+            try (Scope ignored = restore()) {
+                return task.call();
+            }
+        };
+    }
+
+    public <T> Supplier<T> wrap(Supplier<T> task) {
+        return () -> {
+            try (Scope ignored = restore()) {
+                return task.get();
+            }
+        };
+    }
+
+    /**
+     * 恢复作用域，关闭时还原（不抛受检异常）
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * 当前线程 MDC 的只读视图：Logback 返回其缓存的只读 Map（MDC 修改前保持同一实例），其他实现退化为复制
+     */
+    private static Map<String, String> mdcView() {
+        MDCAdapter adapter = MDC.getMDCAdapter();
+        if (adapter instanceof LogbackMDCAdapter logback) {
+            Map<String, String> map = logback.getPropertyMap();
+            return map == null ? Collections.emptyMap() : map;
+        }
+        Map<String, String> copy = MDC.getCopyOfContextMap();
+        return copy == null ? Collections.emptyMap() : Collections.unmodifiableMap(copy);
+    }
+
+    private static void setMdc(Map<String, String> map) {
+        if (map.isEmpty()) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(map);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.trace;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * @author nanak
+ *
+ * 线程池任务装饰器：提交任务时捕获链路快照，执行时在工作线程恢复 MDC（traceId / spanId）与链路上下文，
+ * 执行完毕后还原工作线程原有状态，避免线程复用导致串号
+ */
+public class TraceTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return TraceSnapshot.capture().wrap(runnable);
+    }
+}
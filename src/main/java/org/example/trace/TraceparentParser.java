@@ -0,0 +1,70 @@
+package org.example.trace;
+
+/**
+ * @author nanak
+ *
+ * W3C traceparent / tracestate 解析
+ * traceparent 格式：version(2)-trace-id(32)-parent-id(16)-trace-flags(2)，按固定偏移逐字符校验，
+ * 不使用正则、不拆分字符串，只为结果中的 ID 各截取一次子串
+ */
+public final class TraceparentParser {
+
+    /**
+     * version 00 的固定长度
+     */
+    static final int VERSION_00_LENGTH = 55;
+
+    /**
+     * tracestate 最多 32 个成员，每个成员最长 256 字符；这里只限制总长度，超出时丢弃
+     */
+    static final int MAX_TRACESTATE_LENGTH = 512;
+
+    private TraceparentParser() {
+    }
+
+    /**
+     * 解析上游传入的链路上下文，traceparent 缺失或非法时返回 null（由调用方开启新链路）
+     * 返回值的 spanId 为上游的 parent-id
+     */
+    public static TraceContext parse(String traceparent, String tracestate) {
+        if (traceparent == null) {
+            return null;
+        }
+        int length = traceparent.length();
+        if (length < VERSION_00_LENGTH) {
+            return null;
+        }
+        char v0 = traceparent.charAt(0);
+        char v1 = traceparent.charAt(1);
+        if (!TraceIds.isLowerHex(v0) || !TraceIds.isLowerHex(v1) || (v0 == 'f' && v1 == 'f')) {
+            return null;
+        }
+        // version 00 必须恰好 55 位；更高版本允许在末尾以 '-' 追加字段
+        boolean version00 = v0 == '0' && v1 == '0';
+        if (length > VERSION_00_LENGTH && (version00 || traceparent.charAt(VERSION_00_LENGTH) != '-')) {
+            return null;
+        }
+        if (traceparent.charAt(2) != '-' || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-') {
+            return null;
+        }
+        if (!TraceIds.isValidId(traceparent, 3, 35) || !TraceIds.isValidId(traceparent, 36, 52)) {
+            return null;
+        }
+        char f0 = traceparent.charAt(53);
+        char f1 = traceparent.charAt(54);
+        if (!TraceIds.isLowerHex(f0) || !TraceIds.isLowerHex(f1)) {
+            return null;
+        }
+        int flags = TraceIds.hexValue(f0) << 4 | TraceIds.hexValue(f1);
+        return new TraceContext(traceparent.substring(3, 35), traceparent.substring(36, 52), null, flags,
+                normalizeTraceState(tracestate));
+    }
+
+    private static String normalizeTraceState(String tracestate) {
+        if (tracestate == null || tracestate.isEmpty() || tracestate.length() > MAX_TRACESTATE_LENGTH
+                || tracestate.isBlank()) {
+            return null;
+        }
+        return tracestate;
+    }
+}
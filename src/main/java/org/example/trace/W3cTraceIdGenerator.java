@@ -0,0 +1,106 @@
+package org.example.trace;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author nanak
+ *
+ * W3C Trace Context 兼容的 128 位 traceId 生成器（32 位小写十六进制）
+ *
+ * 布局：[毫秒时间戳 48 位][节点号 16 位][mix(线程槽位 20 位 | 线程内序号 44 位) 64 位]
+ * 低 64 位由线程本地状态生成，不加锁、不访问 SecureRandom（只在启动时取一次进程密钥），
+ * mix 为以进程密钥异或后的 64 位可逆混淆（murmur3 fmix64），因此输出看起来随机但与输入一一对应：
+ * 节点号不同则 traceId 必不同；同一节点同一毫秒内，只要线程槽位不回绕（少于 2^20 个线程）即不重复
+ * 结果直接写入线程复用的 char[32]，每次只分配最终的 String
+ */
+public class W3cTraceIdGenerator implements TraceIdGenerator {
+
+    private static final int SLOT_BITS = 20;
+    private static final int SEQUENCE_BITS = 64 - SLOT_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long TIMESTAMP_MASK = (1L << 48) - 1;
+
+    private final long node;
+    private final long processKey;
+    private final AtomicInteger slots = new AtomicInteger();
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(this::newState);
+
+    /**
+     * 线程本地状态：槽位、序号与输出缓冲区
+     */
+    private static final class State {
+        final long slot;
+        long sequence;
+        final char[] buffer = new char[32];
+
+        State(long slot) {
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * 使用由主机名与进程号推导的节点号（多节点部署建议显式配置，以保证节点号互不相同）
+     */
+    public W3cTraceIdGenerator() {
+        this(defaultNodeId());
+    }
+
+    /**
+     * @param nodeId 节点号，0 ~ 65535
+     */
+    public W3cTraceIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > 0xFFFF) {
+            throw new IllegalArgumentException("nodeId must be between 0 and 65535: " + nodeId);
+        }
+        this.node = nodeId;
+        this.processKey = new SecureRandom().nextLong();
+    }
+
+    @Override
+    public String nextTraceId() {
+        State current = state.get();
+        long hi = (System.currentTimeMillis() & TIMESTAMP_MASK) << 16 | node;
+        long lo = mix(current.slot << SEQUENCE_BITS | (current.sequence++ & SEQUENCE_MASK));
+        char[] buffer = current.buffer;
+        TraceIds.writeHex(buffer, 0, hi);
+        TraceIds.writeHex(buffer, 16, lo);
+        return new String(buffer);
+    }
+
+    public int nodeId() {
+        return (int) node;
+    }
+
+    private long mix(long value) {
+        long k = value ^ processKey;
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private State newState() {
+        return new State(slots.getAndIncrement() & ((1L << SLOT_BITS) - 1));
+    }
+
+    /**
+     * 主机名 + 进程号的哈希（低 16 位）
+     */
+    static int defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        String identity = host + "/" + ManagementFactory.getRuntimeMXBean().getName();
+        int h = identity.hashCode();
+        return (h ^ (h >>> 16)) & 0xFFFF;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author nanak
+ *
+ * 无锁布隆过滤器（对 64 位哈希值）
+ * 位数组为 AtomicLongArray，写入只做 CAS 置位，查询只读；k 个位置由两个哈希双重散列得到
+ * 不支持删除，需要删除时重建
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions 预计元素数量
+     * @param fpp                期望误判率，如 0.01
+     */
+    public BloomFilter(int expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and fpp in (0, 1)");
+        }
+        // m = -n ln p / (ln 2)^2，k = m / n ln 2
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min((Math.max(m, 64) + 63) >>> 6, Integer.MAX_VALUE - 8);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(long hash) {
+        long h1 = mix(hash);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * 返回 false 时一定不存在；返回 true 时可能存在
+     */
+    public boolean mightContain(long hash) {
+        long h1 = mix(hash);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    /**
+     * MurmurHash3 fmix64
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
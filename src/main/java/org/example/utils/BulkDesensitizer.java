@@ -0,0 +1,311 @@
+package org.example.utils;
+
+import cn.hutool.core.util.CharUtil;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * @author nanak
+ *
+ * 批量脱敏（导出、大结果集）
+ * 类型按列识别：采样列中前 {@value #SAMPLE_SIZE} 个非空值，类型一致时作为列类型，不一致时退回逐值识别；
+ * 有列类型时每个值只做该类型的形状检查（{@link SensitiveClassifier#matches}），不符合的值（采样窗口之后混入的其他数据）
+ * 改为逐值识别，因此无论是否指定类型，结果都与 {@link StringUtil#sensitive(String)} 完全相同
+ * 输入为任意 CharSequence（String、StringBuilder、CharBuffer 等），按下标去除首尾空白，脱敏结果直接写入 {@link MaskedColumn}，
+ * 不为每个值生成去空白副本和脱敏副本；只有含代理对或 Hutool 空白字符等少见情况才退回 {@link SensitiveType#mask(String)}
+ * 大批量数据可按分块并行脱敏，各分块写入输出缓冲区内复用的分块缓冲，完成后按顺序合并
+ */
+public final class BulkDesensitizer {
+
+    /**
+     * 列类型识别的采样数
+     */
+    public static final int SAMPLE_SIZE = 64;
+
+    /**
+     * 默认并行分块大小，列长度达到两个分块且公共 ForkJoinPool 并行度大于 1 时 {@link #maskColumn} 改为并行
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16_384;
+
+    /**
+     * 单值脱敏的线程内缓冲区，超过该字符数后丢弃，避免长期持有大数组
+     */
+    private static final int MAX_SCRATCH_CHARS = 4096;
+
+    private static final ThreadLocal<MaskedColumn> SCRATCH = ThreadLocal.withInitial(() -> new MaskedColumn(1, 64));
+
+    private BulkDesensitizer() {
+    }
+
+    /**
+     * 清空 out 后脱敏整列：识别列类型，数据量大时并行
+     *
+     * @return out
+     */
+    public static MaskedColumn maskColumn(List<? extends CharSequence> column, MaskedColumn out) {
+        out.clear();
+        SensitiveType type = detectType(column);
+        if (column.size() >= DEFAULT_CHUNK_SIZE * 2 && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            maskParallel(column, type, out, DEFAULT_CHUNK_SIZE);
+        } else {
+            mask(column, type, out);
+        }
+        return out;
+    }
+
+    /**
+     * 识别列类型：前 {@value #SAMPLE_SIZE} 个非空值类型一致时返回该类型，不一致或没有非空值时返回 null（逐值识别）
+     */
+    public static SensitiveType detectType(Iterable<? extends CharSequence> column) {
+        SensitiveType type = null;
+        int sampled = 0;
+        for (CharSequence value : column) {
+            if (value == null) {
+                continue;
+            }
+            int from = trimStart(value);
+            int to = trimEnd(value, from);
+            if (from == to) {
+                continue;
+            }
+            SensitiveType current = SensitiveClassifier.classify(value, from, to);
+            if (type == null) {
+                type = current;
+            } else if (type != current) {
+                return null;
+            }
+            if (++sampled == SAMPLE_SIZE) {
+                break;
+            }
+        }
+        return type;
+    }
+
+    /**
+     * 依次脱敏并追加到 out（流式数据可分批调用，out 不会被清空）
+     *
+     * @param type 列类型，null 表示逐值识别
+     */
+    public static void mask(Iterable<? extends CharSequence> column, SensitiveType type, MaskedColumn out) {
+        for (CharSequence value : column) {
+            mask(value, type, out);
+        }
+    }
+
+    /**
+     * 按分块并行脱敏并按原顺序追加到 out；不支持随机访问的列或不足两个分块时在当前线程执行
+     *
+     * @param type      列类型，null 表示逐值识别
+     * @param chunkSize 分块大小
+     */
+    public static void maskParallel(List<? extends CharSequence> column, SensitiveType type, MaskedColumn out, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        int size = column.size();
+        int chunks = (int) ((size + (long) chunkSize - 1) / chunkSize);
+        if (chunks <= 1 || !(column instanceof RandomAccess)) {
+            mask(column, type, out);
+            return;
+        }
+        MaskedColumn[] parts = new MaskedColumn[chunks];
+        for (int c = 0; c < chunks; c++) {
+            parts[c] = out.part(c);
+            parts[c].clear();
+        }
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int end = (int) Math.min(size, (long) (c + 1) * chunkSize);
+            for (int i = c * chunkSize; i < end; i++) {
+                mask(column.get(i), type, parts[c]);
+            }
+        });
+        for (MaskedColumn part : parts) {
+            out.appendAll(part);
+        }
+    }
+
+    /**
+     * 脱敏单个值并返回新字符串（序列化时逐字段脱敏用），规则同 {@link #mask(CharSequence, SensitiveType, MaskedColumn)}；
+     * 结果只分配一次，不经过 Hutool 的码点数组
+     *
+     * @param type 脱敏类型，null 表示按值识别；值与该类型的形状不符时同样按值识别
+     */
+    public static String mask(CharSequence value, SensitiveType type) {
+        if (value == null) {
+            return null;
+        }
+        MaskedColumn scratch = SCRATCH.get();
+        scratch.clear();
+        mask(value, type, scratch);
+        String masked = scratch.get(0);
+        if (scratch.length() > MAX_SCRATCH_CHARS) {
+            SCRATCH.remove();
+        }
+        return masked;
+    }
+
+    /**
+     * 脱敏单个值并追加到 out：null 追加 null，空白串原样追加
+     *
+     * @param type 列类型，null 表示按值识别；值与该类型的形状不符时同样按值识别
+     */
+    public static void mask(CharSequence value, SensitiveType type, MaskedColumn out) {
+        if (value == null) {
+            out.appendNull();
+            return;
+        }
+        int from = trimStart(value);
+        int to = trimEnd(value, from);
+        if (from == to) {
+            out.append(value, 0, value.length());
+            return;
+        }
+        SensitiveType actual = type != null && SensitiveClassifier.matches(type, value, from, to)
+                ? type : SensitiveClassifier.classify(value, from, to);
+        if (!maskInPlace(value, from, to, actual, out)) {
+            String masked = actual.mask(value.subSequence(from, to).toString());
+            out.append(masked, 0, masked.length());
+        }
+    }
+
+    /**
+     * 按 {@link SensitiveType#mask(String)} 的规则直接写入 out；
+     * 含代理对（Hutool 按码点计数）、全部为 Hutool 空白字符、或银行卡号中含空白字符时返回 false，由调用方退回
+     */
+    private static boolean maskInPlace(CharSequence value, int from, int to, SensitiveType type, MaskedColumn out) {
+        int n = to - from;
+        boolean nonBlank = false;
+        boolean blank = false;
+        int at = -1;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (Character.isSurrogate(c)) {
+                return false;
+            }
+            if (CharUtil.isBlankChar(c)) {
+                blank = true;
+            } else {
+                nonBlank = true;
+            }
+            if (c == '@' && at < 0) {
+                at = i - from;
+            }
+        }
+        if (!nonBlank || (blank && type == SensitiveType.BANK_CARD)) {
+            return false;
+        }
+        // 与 StrUtil.hide(str, start, end) 相同：[start, end) 替换为 '*'
+        int start;
+        int end;
+        switch (type) {
+            case MOBILE_PHONE -> {
+                start = 3;
+                end = n - 4;
+            }
+            case ID_CARD -> {
+                if (n < 8) {
+                    out.commit(out.length());
+                    return true;
+                }
+                start = 6;
+                end = n - 2;
+            }
+            case EMAIL -> {
+                start = 1;
+                end = at <= 1 ? 0 : at;
+            }
+            case FIXED_PHONE -> {
+                start = 4;
+                end = n - 2;
+            }
+            case BANK_CARD -> {
+                if (n >= 9) {
+                    writeBankCard(value, from, to, out);
+                    return true;
+                }
+                start = 0;
+                end = 0;
+            }
+            case CAR_LICENSE -> {
+                start = 3;
+                end = n == 7 ? 6 : n == 8 ? 7 : 0;
+            }
+            case CHINESE_NAME -> {
+                start = 1;
+                end = n;
+            }
+            case USER_ID -> {
+                if (n < 4) {
+                    out.commit(out.length());
+                    return true;
+                }
+                start = 0;
+                end = n - 4;
+            }
+            case ADDRESS -> {
+                start = n - 8;
+                end = n;
+            }
+            default -> {
+                start = 1;
+                end = n - 1;
+            }
+        }
+        char[] dest = out.reserve(n);
+        int pos = out.length();
+        out.append(value, from, to);
+        if (start <= n) {
+            end = Math.min(end, n);
+            if (start < end) {
+                Arrays.fill(dest, pos + Math.max(start, 0), pos + end, '*');
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 与 DesensitizedUtil.bankCard 相同：保留前 4 位和末组，中间每 4 位一组以空格分隔
+     */
+    private static void writeBankCard(CharSequence value, int from, int to, MaskedColumn out) {
+        int n = to - from;
+        int endLength = n % 4 == 0 ? 4 : n % 4;
+        int midLength = n - 4 - endLength;
+        char[] dest = out.reserve(n + midLength / 4 + 2);
+        int pos = out.length();
+        for (int i = 0; i < 4; i++) {
+            dest[pos++] = value.charAt(from + i);
+        }
+        for (int i = 0; i < midLength; i++) {
+            if (i % 4 == 0) {
+                dest[pos++] = ' ';
+            }
+            dest[pos++] = '*';
+        }
+        dest[pos++] = ' ';
+        for (int i = to - endLength; i < to; i++) {
+            dest[pos++] = value.charAt(i);
+        }
+        out.commit(pos);
+    }
+
+    private static int trimStart(CharSequence value) {
+        int from = 0;
+        int len = value.length();
+        while (from < len && value.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(CharSequence value, int from) {
+        int to = value.length();
+        while (to > from && value.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+}
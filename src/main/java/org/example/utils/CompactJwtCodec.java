@@ -0,0 +1,492 @@
+package org.example.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * @author nanak
+ *
+ * 固定载荷（userId、expire，可选 typ）的 HS256 JWT 编解码器
+ * 不带 kid 时输出与 Hutool 生成的 token 逐字节一致（头部 {"typ":"JWT","alg":"HS256"}，
+ * 载荷 {"userId":N,"expire":M} 或 {"userId":N,"expire":M,"typ":"access|refresh"}），两者可互相验签；
+ * 带 kid 时头部为 {"typ":"JWT","alg":"HS256","kid":"N"}（kid 为非负整数，见 {@link JwtKeyRing}）
+ * 每个线程从预先初始化密钥的 Mac 模板克隆一份并复用，连同字节缓冲区；编码/解码都在 byte[] 上单趟完成，
+ * 不构建 JSON 树、不产生中间 String，claim 直接按十进制解析为 long
+ * 不是这种固定形状的 token（其他头部、其他载荷字段）由 {@link #decode(String)} 返回 null，交给调用方走通用解析
+ */
+public final class CompactJwtCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final String HEADER_JSON = "{\"typ\":\"JWT\",\"alg\":\"HS256\"}";
+
+    /**
+     * 带 kid 的头部：KID_HEADER_PREFIX + kid + KID_HEADER_SUFFIX
+     */
+    private static final byte[] KID_HEADER_PREFIX = "{\"typ\":\"JWT\",\"alg\":\"HS256\",\"kid\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KID_HEADER_SUFFIX = "\"}".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int MAX_KID_HEADER_JSON = KID_HEADER_PREFIX.length + 19 + KID_HEADER_SUFFIX.length;
+
+    private static final ThreadLocal<byte[]> KID_BUFFER = ThreadLocal.withInitial(() -> new byte[MAX_KID_HEADER_JSON]);
+
+    private static final byte[] USER_ID = "\"userId\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXPIRE = "\"expire\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TYP = ",\"typ\":\"".getBytes(StandardCharsets.US_ASCII);
+
+    private static final JwtTokenType[] TOKEN_TYPES = JwtTokenType.values();
+
+    /**
+     * 各 token 类型的 typ 值（含结尾引号），按 ordinal 存放
+     */
+    private static final byte[][] TYP_VALUES = new byte[TOKEN_TYPES.length][];
+
+    static {
+        for (JwtTokenType type : TOKEN_TYPES) {
+            TYP_VALUES[type.ordinal()] = (type.claim() + "\"").getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Long.MAX_VALUE 的十进制表示，用于 19 位数字的溢出判断
+     */
+    private static final byte[] MAX_DIGITS = Long.toString(Long.MAX_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private static final int MAC_LENGTH = 32;
+
+    /**
+     * 32 字节签名的 base64url（无填充）长度
+     */
+    private static final int SIGNATURE_LENGTH = 43;
+
+    /**
+     * 载荷 JSON 最大长度：两个键 + 两个 long（含符号）+ 括号逗号 + typ
+     */
+    private static final int MAX_PAYLOAD_JSON = 2 + USER_ID.length + EXPIRE.length + 20 * 2 + 1 + TYP.length
+            + Arrays.stream(TYP_VALUES).mapToInt(value -> value.length).max().orElse(0);
+
+
+    private static final byte[] ENCODE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ENCODE.length; i++) {
+            DECODE[ENCODE[i]] = (byte) i;
+        }
+    }
+
+    /**
+     * 解码结果
+     *
+     * @param signatureValid 签名是否正确
+     * @param type           载荷中的 typ，没有 typ 时为 null
+     */
+    public record Claims(boolean signatureValid, long userId, long expire, JwtTokenType type) {
+    }
+
+    /**
+     * 线程私有的 Mac 与缓冲区
+     */
+    private static final class Buffers {
+        final Mac mac;
+        final byte[] json = new byte[MAX_PAYLOAD_JSON];
+        final byte[] token;
+        final byte[] digest = new byte[MAC_LENGTH];
+        final byte[] signature = new byte[MAC_LENGTH];
+
+        Buffers(Mac mac, int maxTokenLength) {
+            this.mac = mac;
+            this.token = new byte[maxTokenLength];
+        }
+    }
+
+    /**
+     * base64url 后的头部
+     */
+    private final byte[] header;
+    private final int maxTokenLength;
+    private final long kid;
+    private final ThreadLocal<Buffers> buffers;
+
+    /**
+     * 不带 kid 的编解码器（与 Hutool 输出一致）
+     */
+    public CompactJwtCodec(byte[] key) {
+        this(key, -1);
+    }
+
+    /**
+     * @param kid 非负时写入头部的 kid，负数表示不带 kid
+     */
+    public CompactJwtCodec(byte[] key, long kid) {
+        String headerJson = kid < 0 ? HEADER_JSON
+                : new String(KID_HEADER_PREFIX, StandardCharsets.US_ASCII) + kid + new String(KID_HEADER_SUFFIX, StandardCharsets.US_ASCII);
+        byte[] json = headerJson.getBytes(StandardCharsets.US_ASCII);
+        this.header = new byte[base64Length(json.length)];
+        encodeBase64(json, json.length, header, 0);
+        this.maxTokenLength = header.length + 1 + base64Length(MAX_PAYLOAD_JSON) + 1 + SIGNATURE_LENGTH;
+        this.kid = kid < 0 ? -1 : kid;
+
+        // Mac 模板：密钥只初始化一次（同时提前校验密钥），各线程克隆使用
+        SecretKeySpec keySpec = new SecretKeySpec(key.clone(), ALGORITHM);
+        Mac template = newMac(keySpec);
+        this.buffers = ThreadLocal.withInitial(() -> new Buffers(cloneMac(template, keySpec), maxTokenLength));
+    }
+
+    /**
+     * 头部中的 kid，不带 kid 时为 -1
+     */
+    public long kid() {
+        return kid;
+    }
+
+    /**
+     * 签发不带 typ 的 token
+     */
+    public String encode(long userId, long expire) {
+        return encode(userId, expire, null);
+    }
+
+    /**
+     * 签发 token
+     *
+     * @param type 写入载荷的 typ，null 表示不写
+     */
+    public String encode(long userId, long expire, JwtTokenType type) {
+        Buffers buf = buffers.get();
+        byte[] json = buf.json;
+        int jsonLength = 0;
+        json[jsonLength++] = '{';
+        jsonLength = put(json, jsonLength, USER_ID);
+        jsonLength = writeLong(json, jsonLength, userId);
+        json[jsonLength++] = ',';
+        jsonLength = put(json, jsonLength, EXPIRE);
+        jsonLength = writeLong(json, jsonLength, expire);
+        if (type != null) {
+            jsonLength = put(json, jsonLength, TYP);
+            jsonLength = put(json, jsonLength, TYP_VALUES[type.ordinal()]);
+        }
+        json[jsonLength++] = '}';
+
+        byte[] out = buf.token;
+        int length = put(out, 0, header);
+        out[length++] = '.';
+        length = encodeBase64(json, jsonLength, out, length);
+
+        Mac mac = buf.mac;
+        mac.update(out, 0, length);
+        doFinal(mac, buf.digest);
+        out[length++] = '.';
+        length = encodeBase64(buf.digest, MAC_LENGTH, out, length);
+        return new String(out, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 解码并验签
+     *
+     * @return 固定形状的 token 返回解析结果（签名错误时 signatureValid 为 false）；其他形状返回 null
+     */
+    public Claims decode(String token) {
+        int length = token.length();
+        int payloadStart = header.length + 1;
+        if (length > maxTokenLength || length < payloadStart + 1 + SIGNATURE_LENGTH + 1) {
+            return null;
+        }
+        int signatureStart = length - SIGNATURE_LENGTH;
+        if (token.charAt(signatureStart - 1) != '.') {
+            return null;
+        }
+        Buffers buf = buffers.get();
+        byte[] bytes = buf.token;
+        for (int i = 0; i < signatureStart - 1; i++) {
+            char c = token.charAt(i);
+            if (c >= 0x80) {
+                return null;
+            }
+            bytes[i] = (byte) c;
+        }
+        if (!Arrays.equals(bytes, 0, header.length, header, 0, header.length) || bytes[header.length] != '.') {
+            return null;
+        }
+        int jsonLength = decodeBase64(bytes, payloadStart, signatureStart - 1, buf.json);
+        if (jsonLength < 0 || decodeBase64(token, signatureStart, length, buf.signature) != MAC_LENGTH) {
+            return null;
+        }
+        Claims claims = parseClaims(buf.json, jsonLength);
+        if (claims == null) {
+            return null;
+        }
+
+        Mac mac = buf.mac;
+        mac.update(bytes, 0, signatureStart - 1);
+        doFinal(mac, buf.digest);
+        if (!MessageDigest.isEqual(buf.digest, buf.signature)) {
+            return new Claims(false, claims.userId(), claims.expire(), claims.type());
+        }
+        return claims;
+    }
+
+    /**
+     * 读取头部 {"typ":"JWT","alg":"HS256","kid":"N"} 中的 kid，不带 kid 或不是该格式时返回 -1（只解码头部，不验签）
+     */
+    public static long kid(String token) {
+        int headerEnd = token.indexOf('.');
+        if (headerEnd <= 0 || base64Decoded(headerEnd) > MAX_KID_HEADER_JSON) {
+            return -1;
+        }
+        byte[] json = KID_BUFFER.get();
+        int length = decodeBase64(token, 0, headerEnd, json);
+        int prefix = KID_HEADER_PREFIX.length;
+        int end = length - KID_HEADER_SUFFIX.length;
+        if (end <= prefix || !startsWith(json, 0, KID_HEADER_PREFIX)
+                || !Arrays.equals(json, end, length, KID_HEADER_SUFFIX, 0, KID_HEADER_SUFFIX.length)) {
+            return -1;
+        }
+        if (json[prefix] == '-' || numberEnd(json, prefix, end) != end) {
+            return -1;
+        }
+        return parseLong(json, prefix, end);
+    }
+
+    /**
+     * 按固定顺序解析 {"userId":N,"expire":M} 或 {"userId":N,"expire":M,"typ":"..."}（Hutool 按写入顺序输出），不符合时返回 null
+     */
+    private static Claims parseClaims(byte[] json, int length) {
+        if (length < 2 || json[0] != '{' || json[length - 1] != '}') {
+            return null;
+        }
+        int pos = 1;
+        if (!startsWith(json, pos, USER_ID)) {
+            return null;
+        }
+        pos += USER_ID.length;
+        int end = numberEnd(json, pos, length - 1);
+        if (end < 0 || json[end] != ',') {
+            return null;
+        }
+        long userId = parseLong(json, pos, end);
+        pos = end + 1;
+        if (!startsWith(json, pos, EXPIRE)) {
+            return null;
+        }
+        pos += EXPIRE.length;
+        end = numberEnd(json, pos, length - 1);
+        if (end < 0) {
+            return null;
+        }
+        long expire = parseLong(json, pos, end);
+        if (end == length - 1) {
+            return new Claims(true, userId, expire, null);
+        }
+        if (!startsWith(json, end, TYP)) {
+            return null;
+        }
+        pos = end + TYP.length;
+        for (JwtTokenType type : TOKEN_TYPES) {
+            byte[] value = TYP_VALUES[type.ordinal()];
+            if (pos + value.length == length - 1 && Arrays.equals(json, pos, length - 1, value, 0, value.length)) {
+                return new Claims(true, userId, expire, type);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 十进制整数（可带负号、不溢出 long）的结束位置，不合法返回 -1
+     */
+    private static int numberEnd(byte[] json, int from, int limit) {
+        int pos = from;
+        if (pos < limit && json[pos] == '-') {
+            pos++;
+        }
+        int digitsStart = pos;
+        while (pos < limit && json[pos] >= '0' && json[pos] <= '9') {
+            pos++;
+        }
+        int digits = pos - digitsStart;
+        if (digits == 0 || digits > MAX_DIGITS.length || (digits > 1 && json[digitsStart] == '0')) {
+            return -1;
+        }
+        if (digits == MAX_DIGITS.length && Arrays.compare(json, digitsStart, pos, MAX_DIGITS, 0, digits) > 0) {
+            return -1;
+        }
+        return pos;
+    }
+
+    private static long parseLong(byte[] json, int from, int to) {
+        boolean negative = json[from] == '-';
+        long value = 0;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            value = value * 10 + (json[i] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private static int writeLong(byte[] out, int pos, long value) {
+        if (value == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("claim value out of range");
+        }
+        if (value < 0) {
+            out[pos++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    private static int encodeBase64(byte[] src, int length, byte[] out, int pos) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            out[pos++] = ENCODE[bits >>> 18];
+            out[pos++] = ENCODE[(bits >>> 12) & 0x3f];
+            out[pos++] = ENCODE[(bits >>> 6) & 0x3f];
+            out[pos++] = ENCODE[bits & 0x3f];
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (src[i] & 0xff) << 16;
+            out[pos++] = ENCODE[bits >>> 18];
+            out[pos++] = ENCODE[(bits >>> 12) & 0x3f];
+        } else if (remaining == 2) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+            out[pos++] = ENCODE[bits >>> 18];
+            out[pos++] = ENCODE[(bits >>> 12) & 0x3f];
+            out[pos++] = ENCODE[(bits >>> 6) & 0x3f];
+        }
+        return pos;
+    }
+
+    /**
+     * 解码 base64url（无填充）到 out，返回字节数；非法字符、末尾多余位非零（非规范编码）或超出 out 容量返回 -1
+     */
+    private static int decodeBase64(byte[] src, int from, int to, byte[] out) {
+        if ((to - from) % 4 == 1 || base64Decoded(to - from) > out.length) {
+            return -1;
+        }
+        int pos = 0;
+        int bits = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int v = DECODE[src[i]];
+            if (v < 0) {
+                return -1;
+            }
+            bits = bits << 6 | v;
+            if (++count == 4) {
+                out[pos++] = (byte) (bits >>> 16);
+                out[pos++] = (byte) (bits >>> 8);
+                out[pos++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 2) {
+            if ((bits & 0xf) != 0) {
+                return -1;
+            }
+            out[pos++] = (byte) (bits >>> 4);
+        } else if (count == 3) {
+            if ((bits & 0x3) != 0) {
+                return -1;
+            }
+            out[pos++] = (byte) (bits >>> 10);
+            out[pos++] = (byte) (bits >>> 2);
+        }
+        return pos;
+    }
+
+    private static int decodeBase64(String src, int from, int to, byte[] out) {
+        if ((to - from) % 4 == 1 || base64Decoded(to - from) > out.length) {
+            return -1;
+        }
+        int pos = 0;
+        int bits = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            char c = src.charAt(i);
+            int v = c < 0x80 ? DECODE[c] : -1;
+            if (v < 0) {
+                return -1;
+            }
+            bits = bits << 6 | v;
+            if (++count == 4) {
+                out[pos++] = (byte) (bits >>> 16);
+                out[pos++] = (byte) (bits >>> 8);
+                out[pos++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 2) {
+            if ((bits & 0xf) != 0) {
+                return -1;
+            }
+            out[pos++] = (byte) (bits >>> 4);
+        } else if (count == 3) {
+            if ((bits & 0x3) != 0) {
+                return -1;
+            }
+            out[pos++] = (byte) (bits >>> 10);
+            out[pos++] = (byte) (bits >>> 2);
+        }
+        return pos;
+    }
+
+    private static int base64Length(int bytes) {
+        return (bytes * 4 + 2) / 3;
+    }
+
+    private static int base64Decoded(int chars) {
+        return chars * 3 / 4;
+    }
+
+    private static boolean startsWith(byte[] src, int pos, byte[] prefix) {
+        return pos + prefix.length <= src.length && Arrays.equals(src, pos, pos + prefix.length, prefix, 0, prefix.length);
+    }
+
+    private static int put(byte[] out, int pos, byte[] src) {
+        System.arraycopy(src, 0, out, pos, src.length);
+        return pos + src.length;
+    }
+
+    private static Mac cloneMac(Mac template, SecretKeySpec keySpec) {
+        try {
+            return (Mac) template.clone();
+        } catch (CloneNotSupportedException e) {
+            // 不支持克隆的 Provider：重新初始化密钥
+            return newMac(keySpec);
+        }
+    }
+
+    private static Mac newMac(SecretKeySpec keySpec) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(keySpec);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static void doFinal(Mac mac, byte[] digest) {
+        try {
+            mac.doFinal(digest, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
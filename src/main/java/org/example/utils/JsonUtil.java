@@ -3,6 +3,7 @@ package org.example.utils;
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONObject;
 import com.alibaba.fastjson2.TypeReference;
+import org.example.sensitive.serializer.SensitiveWriterModule;
 
 import java.util.List;
 import java.util.Map;
@@ -13,6 +14,11 @@ import java.util.Map;
  * JSON 工具类（封装 FastJSON2，统一序列化规则）
  */
 public class JsonUtil {
+    static {
+        // @Sensitive 字段在序列化时脱敏
+        JSON.register(SensitiveWriterModule.INSTANCE);
+    }
+
     /**
      * JSON字符串转对象
      */
@@ -0,0 +1,144 @@
+package org.example.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+
+/**
+ * @author nanak
+ *
+ * JWT 签名密钥环
+ * 时间按轮换周期切分为 epoch，每个 epoch 的签名密钥由主密钥派生（HMAC-SHA256(主密钥, 周期 + epoch)），
+ * 各节点不需要协调就能得到相同的密钥；token 头部的 kid 即 epoch
+ * 新 token 用当前 epoch 的密钥签发；验签时按 kid 取密钥，保留覆盖 token 最长有效期的历史 epoch 和下一个 epoch（容忍节点间时钟偏差）
+ * 密钥按 epoch 取模放在定长数组中，查找是一次数组下标访问，验签开销与保留的密钥数量无关；
+ * 轮换时只为新 epoch 派生一个密钥并替换整个快照，已有 epoch 的编解码器（及其线程内 Mac）原样复用
+ * 需要保留的 epoch 数超过 {@value #MAX_RETAINED_EPOCHS}（周期相对 token 有效期过短）时拒绝创建，不截断保留范围
+ */
+public final class JwtKeyRing {
+
+    private static final String DERIVE_ALGORITHM = "HmacSHA256";
+
+    /**
+     * 最多保留的历史 epoch 数
+     */
+    public static final int MAX_RETAINED_EPOCHS = 1 << 16;
+
+    /**
+     * 不可变快照：slots[epoch & mask]
+     */
+    private record Snapshot(long epoch, long nextRotation, CompactJwtCodec[] slots, int mask) {
+    }
+
+    private final byte[] masterSecret;
+    private final long intervalMillis;
+    private final int retainedEpochs;
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param masterSecret   主密钥
+     * @param interval       轮换周期
+     * @param maxTokenLifetime token 最长有效期，决定保留多少个历史 epoch
+     * @throws IllegalArgumentException 主密钥为空、周期不为正，或需要保留的 epoch 超过 {@value #MAX_RETAINED_EPOCHS} 个
+     */
+    public JwtKeyRing(byte[] masterSecret, Duration interval, Duration maxTokenLifetime) {
+        this(masterSecret, interval, maxTokenLifetime, System.currentTimeMillis());
+    }
+
+    JwtKeyRing(byte[] masterSecret, Duration interval, Duration maxTokenLifetime, long now) {
+        if (masterSecret.length == 0 || interval.toMillis() <= 0 || maxTokenLifetime.isNegative()) {
+            throw new IllegalArgumentException("masterSecret and interval must not be empty");
+        }
+        long intervalMillis = interval.toMillis();
+        // 签发于某个 epoch 末尾的 token 最晚在 lifetime 之后失效，向上取整后再多保留一个
+        long retained = (maxTokenLifetime.toMillis() + intervalMillis - 1) / intervalMillis + 1;
+        if (retained > MAX_RETAINED_EPOCHS) {
+            throw new IllegalArgumentException("rotation interval " + interval + " is too short for token lifetime "
+                    + maxTokenLifetime + ": " + retained + " epochs would have to be retained, at most " + MAX_RETAINED_EPOCHS);
+        }
+        this.masterSecret = masterSecret.clone();
+        this.intervalMillis = intervalMillis;
+        this.retainedEpochs = (int) retained;
+        this.snapshot = build(now / intervalMillis, null);
+    }
+
+    /**
+     * 当前签名用的编解码器
+     */
+    public CompactJwtCodec signer(long now) {
+        Snapshot current = snapshot;
+        if (now >= current.nextRotation()) {
+            // 后台轮换未及时执行时的兜底
+            current = rotate(now);
+        }
+        return current.slots()[(int) (current.epoch() & current.mask())];
+    }
+
+    /**
+     * 按 kid 取验签用的编解码器，kid 不在保留范围内返回 null
+     */
+    public CompactJwtCodec verifier(long kid) {
+        Snapshot current = snapshot;
+        if (kid < 0 || kid > current.epoch() + 1 || kid < current.epoch() - retainedEpochs) {
+            return null;
+        }
+        CompactJwtCodec codec = current.slots()[(int) (kid & current.mask())];
+        return codec != null && codec.kid() == kid ? codec : null;
+    }
+
+    /**
+     * 推进到 now 所在的 epoch（后台线程定期调用），未跨 epoch 时不做任何事
+     */
+    public void advance(long now) {
+        if (now >= snapshot.nextRotation()) {
+            rotate(now);
+        }
+    }
+
+    public long currentKid() {
+        return snapshot.epoch();
+    }
+
+    public long intervalMillis() {
+        return intervalMillis;
+    }
+
+    private synchronized Snapshot rotate(long now) {
+        Snapshot current = snapshot;
+        long epoch = now / intervalMillis;
+        if (epoch > current.epoch()) {
+            current = build(epoch, current);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * 构建 [epoch - retained, epoch + 1] 的快照，复用旧快照中仍在范围内的编解码器
+     */
+    private Snapshot build(long epoch, Snapshot previous) {
+        int size = Integer.highestOneBit(retainedEpochs + 1) << 1;
+        int mask = size - 1;
+        CompactJwtCodec[] slots = new CompactJwtCodec[size];
+        for (long e = Math.max(0, epoch - retainedEpochs); e <= epoch + 1; e++) {
+            CompactJwtCodec existing = previous == null ? null : previous.slots()[(int) (e & previous.mask())];
+            slots[(int) (e & mask)] = existing != null && existing.kid() == e ? existing : new CompactJwtCodec(derive(e), e);
+        }
+        return new Snapshot(epoch, (epoch + 1) * intervalMillis, slots, mask);
+    }
+
+    /**
+     * 派生 epoch 的签名密钥；周期参与派生，修改周期后旧 kid 不会被误用新密钥验签
+     */
+    private byte[] derive(long epoch) {
+        try {
+            Mac mac = Mac.getInstance(DERIVE_ALGORITHM);
+            mac.init(new SecretKeySpec(masterSecret, DERIVE_ALGORITHM));
+            return mac.doFinal(("jwt-key:" + intervalMillis + ":" + epoch).getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.utils;
+
+/**
+ * @author nanak
+ *
+ * token 类型，写入载荷的 typ 字段：访问令牌只用于请求认证，刷新令牌只用于换取新的访问令牌
+ */
+public enum JwtTokenType {
+    /**
+     * 访问令牌
+     */
+    ACCESS("access"),
+    /**
+     * 刷新令牌
+     */
+    REFRESH("refresh");
+
+    private final String claim;
+
+    JwtTokenType(String claim) {
+        this.claim = claim;
+    }
+
+    /**
+     * 载荷中 typ 字段的值
+     */
+    public String claim() {
+        return claim;
+    }
+
+    /**
+     * 按 typ 字段的值取类型，没有或不认识时返回 null
+     */
+    public static JwtTokenType fromClaim(Object value) {
+        for (JwtTokenType type : values()) {
+            if (type.claim.equals(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
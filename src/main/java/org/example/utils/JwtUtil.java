@@ -3,23 +3,38 @@ package org.example.utils;
 import cn.hutool.jwt.JWT;
 import cn.hutool.jwt.JWTException;
 import cn.hutool.jwt.JWTUtil;
-import cn.hutool.jwt.JWTValidator;
 import cn.hutool.jwt.signers.JWTSigner;
 import cn.hutool.jwt.signers.JWTSignerUtil;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
  * @author nanak
  * <p>
  * JWT 工具类（封装 Hutool）
+ * 验签通过的 token 按签名段缓存，同一个 token 在本节点只做一次 HMAC 验签，缓存不会超过 token 的 expire
+ * 签名密钥由 {@link JwtKeyRing} 按周期轮换，token 头部带 kid；轮换前签发的不带 kid 的 token 用主密钥验签，直到自然过期
+ * 更换主密钥时把旧主密钥配置为 previousSecrets，旧主密钥签发的 token 在过期前仍可验签，新 token 只用当前主密钥签发
+ * 已吊销的 token（{@link #revoke(String)}）在验签前由 {@link TokenRevocationList} 拦下
+ * 载荷 typ 区分访问令牌与刷新令牌（{@link JwtTokenType}）：刷新令牌不能用于请求认证，访问令牌不能用于刷新；
+ * 不带 typ 的 token（引入 typ 前签发）在接受旧 token 时按访问令牌处理，关闭后两者都不接受
  */
 @Slf4j
 public class JwtUtil {
-    // 密钥
-    private final String key = "Xe1k1Gd6Fv1fVFtxeM0V3zVFKJquVqsxwXWlO3EJGHCy0UJzJjkwjBPo1JADH1LV";
+    // 默认主密钥（可通过 jwt.secret 覆盖）
+    private static final String DEFAULT_SECRET = "Xe1k1Gd6Fv1fVFtxeM0V3zVFKJquVqsxwXWlO3EJGHCy0UJzJjkwjBPo1JADH1LV";
+
+    /**
+     * 默认密钥轮换周期
+     */
+    private static final Duration DEFAULT_ROTATION_INTERVAL = Duration.ofDays(1);
+
     /**
      * 访问 Token 过期时间（单位：秒，2 小时）
      */
@@ -30,46 +45,263 @@ public class JwtUtil {
      */
     private final long refreshTokenExpire = 604800;
 
+    /**
+     * 已验签 Token 缓存上限
+     */
+    private static final int VERIFIED_CACHE_SIZE = 10_000;
+
+    /**
+     * 已验签 Token 最长缓存时间（毫秒，10 分钟）
+     */
+    private static final long VERIFIED_CACHE_TTL = 10 * 60 * 1000L;
+
+    /**
+     * 一个主密钥派生的全部密钥
+     *
+     * @param ring         轮换密钥环，签发与带 kid 的 token 验签
+     * @param legacy       主密钥、不带 kid 的快速编解码
+     * @param legacySigner 主密钥的通用解析签名器（内部持有的 Mac 不是线程安全的，按线程复用）
+     */
+    private record MasterKey(JwtKeyRing ring, CompactJwtCodec legacy, ThreadLocal<JWTSigner> legacySigner) {
+
+        static MasterKey of(String secret, Duration rotationInterval, Duration maxTokenLifetime) {
+            byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+            return new MasterKey(new JwtKeyRing(keyBytes, rotationInterval, maxTokenLifetime), new CompactJwtCodec(keyBytes),
+                    ThreadLocal.withInitial(() -> JWTSignerUtil.hs256(keyBytes)));
+        }
+    }
+
+    /**
+     * 密钥配置（整体替换）
+     *
+     * @param masters      主密钥，第一个为当前主密钥（签发与验签），其余为更换前的主密钥（只用于验签）
+     * @param acceptLegacy 是否接受不带 kid 的 token，并把不带 typ 的 token 当作访问令牌
+     */
+    private record Keys(List<MasterKey> masters, boolean acceptLegacy) {
+
+        static Keys of(String secret, List<String> previousSecrets, Duration rotationInterval, Duration maxTokenLifetime,
+                       boolean acceptLegacy) {
+            List<MasterKey> masters = new ArrayList<>(previousSecrets.size() + 1);
+            masters.add(MasterKey.of(secret, rotationInterval, maxTokenLifetime));
+            for (String previous : previousSecrets) {
+                if (previous != null && !previous.isEmpty() && !previous.equals(secret)) {
+                    masters.add(MasterKey.of(previous, rotationInterval, maxTokenLifetime));
+                }
+            }
+            return new Keys(List.copyOf(masters), acceptLegacy);
+        }
+
+        MasterKey current() {
+            return masters.get(0);
+        }
+    }
+
+    private volatile Keys keys;
+
+    /**
+     * 吊销列表，默认只在内存中（由配置替换为带本地日志的实现）
+     */
+    private volatile TokenRevocationList revocations = new TokenRevocationList(null, 10_000);
+
+    private final VerifiedTokenCache<VerifiedToken> verifiedCache =
+            new VerifiedTokenCache<>(VERIFIED_CACHE_SIZE, VERIFIED_CACHE_TTL);
+
+    public JwtUtil() {
+        this.keys = Keys.of(DEFAULT_SECRET, List.of(), DEFAULT_ROTATION_INTERVAL, maxTokenLifetime(), true);
+    }
+
+    /**
+     * 替换主密钥与轮换周期（启动时由配置调用），同时清空已验签缓存
+     *
+     * @param secret             主密钥，为空时使用默认密钥
+     * @param rotationInterval   轮换周期
+     * @param acceptLegacyTokens 是否接受不带 kid 的 token（轮换启用前签发），并把不带 typ 的 token 当作访问令牌
+     */
+    public void configure(String secret, Duration rotationInterval, boolean acceptLegacyTokens) {
+        configure(secret, List.of(), rotationInterval, acceptLegacyTokens);
+    }
+
+    /**
+     * 替换主密钥与轮换周期（启动时由配置调用），同时清空已验签缓存
+     *
+     * @param secret             主密钥，为空时使用默认密钥
+     * @param previousSecrets    更换前的主密钥，只用于验签，更换主密钥后已签发的 token 在过期前仍然有效
+     * @param rotationInterval   轮换周期
+     * @param acceptLegacyTokens 是否接受不带 kid 的 token（轮换启用前签发），并把不带 typ 的 token 当作访问令牌
+     * @throws IllegalArgumentException 轮换周期相对 token 有效期过短（见 {@link JwtKeyRing#MAX_RETAINED_EPOCHS}）
+     */
+    public void configure(String secret, List<String> previousSecrets, Duration rotationInterval, boolean acceptLegacyTokens) {
+        this.keys = Keys.of(secret == null || secret.isEmpty() ? DEFAULT_SECRET : secret,
+                previousSecrets == null ? List.of() : previousSecrets, rotationInterval, maxTokenLifetime(), acceptLegacyTokens);
+        verifiedCache.clear();
+    }
+
+    /**
+     * 替换吊销列表（启动时由配置调用），返回被替换的列表
+     */
+    public TokenRevocationList useRevocationList(TokenRevocationList revocationList) {
+        TokenRevocationList previous = this.revocations;
+        this.revocations = revocationList;
+        return previous;
+    }
+
+    public TokenRevocationList revocationList() {
+        return revocations;
+    }
+
+    /**
+     * 吊销 token（登出、改密等），在 token 过期前一直有效；签名无效的 token 本来就无法通过验证，忽略
+     *
+     * @return 是否记录了吊销
+     */
+    public boolean revoke(String token) {
+        VerifiedToken verified = verify(token);
+        if (!verified.signatureValid()) {
+            return false;
+        }
+        revocations.revoke(token, verified.expire());
+        return true;
+    }
+
+    /**
+     * 推进密钥环到当前时间（后台线程定期调用）
+     */
+    public void rotateKeys(long now) {
+        for (MasterKey master : keys.masters()) {
+            master.ring().advance(now);
+        }
+    }
+
+    /**
+     * 当前签名密钥的 kid
+     */
+    public long currentKid() {
+        return keys.current().ring().currentKid();
+    }
+
+    /**
+     * 验签结果
+     *
+     * @param payload 载荷（只读，验签失败时为空）
+     * @param expire  过期时间（毫秒时间戳），没有 expire 载荷时为 Long.MAX_VALUE
+     * @param type    token 类型：载荷中的 typ；没有 typ 时接受旧 token 则为访问令牌，否则为 null
+     */
+    public record VerifiedToken(boolean signatureValid, Map<String, Object> payload, long expire, JwtTokenType type) {
+
+        static final VerifiedToken INVALID = new VerifiedToken(false, Collections.emptyMap(), 0L, null);
+
+        /**
+         * 签名正确且未过期
+         */
+        public boolean valid() {
+            return signatureValid && System.currentTimeMillis() < expire;
+        }
+
+        public Long userId() {
+            Object userId = payload.get("userId");
+            return userId == null ? null : Long.parseLong(userId.toString());
+        }
+    }
+
     /**
      * 生成访问Token
      */
     public String generateAccessToken(Long userId) {
-        return JWT.create()
-                .setPayload("userId", userId)
-                .setPayload("expire", System.currentTimeMillis() + accessTokenExpire * 1000)
-                .setKey(key.getBytes())
-                .sign();
+        return generate(userId, System.currentTimeMillis() + accessTokenExpire * 1000, JwtTokenType.ACCESS);
     }
 
     /**
      * 生成刷新Token(仅包含基础信息，无敏感数据)
      */
     public String generateRefreshToken(Long userId) {
-        return JWT.create()
-                .setPayload("userId", userId)
-                .setPayload("expire", System.currentTimeMillis() + refreshTokenExpire * 1000)
-                .setKey(key.getBytes())
-                .sign();
+        return generate(userId, System.currentTimeMillis() + refreshTokenExpire * 1000, JwtTokenType.REFRESH);
     }
 
     /**
-     * 验证Token
+     * 解析并验签（一次解析同时得到有效性与载荷），验签通过的结果会被缓存
+     * 带 kid 的 token 按 kid 从密钥环取密钥（kid 不在保留范围内直接判定无效）；
+     * 本工具签发的固定载荷 token 走 {@link CompactJwtCodec}，其他形状回退到 Hutool 通用解析；
+     * 当前主密钥验签失败时再用更换前的主密钥验签（未配置时没有额外开销）
+     * 空值、格式错误、签名错误均返回 {@link VerifiedToken#INVALID}，不抛异常
      */
-    public boolean validateToken(String token) {
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isBlank() || revocations.isRevoked(token)) {
+            return VerifiedToken.INVALID;
+        }
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedCache.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
+        Keys current = keys;
+        long kid = CompactJwtCodec.kid(token);
+        if (kid < 0 && !current.acceptLegacy()) {
+            return VerifiedToken.INVALID;
+        }
+        // 先用当前主密钥验签，失败时依次尝试更换前的主密钥
+        for (MasterKey master : current.masters()) {
+            VerifiedToken verified = verify(token, kid, master, current.acceptLegacy());
+            if (verified != null) {
+                verifiedCache.put(token, verified, verified.expire(), now);
+                return verified;
+            }
+        }
+        return VerifiedToken.INVALID;
+    }
+
+    /**
+     * 用一个主密钥派生的密钥验签，签名正确返回结果，否则返回 null
+     *
+     * @param acceptLegacy 不带 typ 的 token 是否按访问令牌处理
+     */
+    private static VerifiedToken verify(String token, long kid, MasterKey master, boolean acceptLegacy) {
+        CompactJwtCodec codec = kid >= 0 ? master.ring().verifier(kid) : master.legacy();
+        if (codec == null) {
+            return null;
+        }
+        CompactJwtCodec.Claims claims = codec.decode(token);
+        if (claims != null) {
+            if (!claims.signatureValid()) {
+                return null;
+            }
+            Map<String, Object> payload = claims.type() == null
+                    ? Map.of("userId", claims.userId(), "expire", claims.expire())
+                    : Map.of("userId", claims.userId(), "expire", claims.expire(), "typ", claims.type().claim());
+            return new VerifiedToken(true, payload, claims.expire(), typeOf(claims.type(), acceptLegacy));
+        }
+        if (kid >= 0) {
+            return null;
+        }
+        JWT jwt;
         try {
-            if (token == null || token.trim().isEmpty()) {
-                return false;
+            jwt = JWTUtil.parseToken(token);
+            if (!jwt.verify(master.legacySigner().get())) {
+                return null;
             }
-            // 验证签名 + 过期时间
-            return JWT.of(token).setKey(key.getBytes()).validate(0);
         } catch (Exception e) {
-            log.error("validateToken error: ", e);
-            return false;
+            log.warn("verify token error: {}", e.getMessage());
+            return null;
         }
+        Map<String, Object> payload = Collections.unmodifiableMap(jwt.getPayloads());
+        return new VerifiedToken(true, payload, expireOf(payload), typeOf(JwtTokenType.fromClaim(payload.get("typ")), acceptLegacy));
+    }
+
+    /**
+     * 引入 typ 前签发的 token 没有 typ，接受旧 token 时按访问令牌处理，否则既不能认证也不能刷新
+     */
+    private static JwtTokenType typeOf(JwtTokenType claimed, boolean acceptLegacy) {
+        return claimed == null && acceptLegacy ? JwtTokenType.ACCESS : claimed;
     }
 
     /**
-     * 解析Token
+     * 验证Token（签名 + expire）
+     */
+    public boolean validateToken(String token) {
+        return verify(token).valid();
+    }
+
+    /**
+     * 解析Token（仅校验签名，载荷只读）
      */
     public Map<String, Object> parseToken(String token) {
         // 1. 空值校验
@@ -77,32 +309,61 @@ public class JwtUtil {
             throw new IllegalArgumentException("token must not be empty or null");
         }
 
-        // 2. 解析 Token 为 JWT 对象
-        JWT jwt = JWTUtil.parseToken(token);
-
-        // 3. 验证签名（确保 Token 未被篡改）
-        JWTSigner signer = JWTSignerUtil.hs256(key.getBytes());
-        if (!jwt.verify(signer)) {
+        // 2. 解析并验证签名（确保 Token 未被篡改）
+        VerifiedToken verified = verify(token);
+        if (!verified.signatureValid()) {
             throw new JWTException("token signature verification failed");
         }
 
-        // 5. 提取所有载荷（包含自定义字段 + iss/iat/exp 等标准字段）
-        return jwt.getPayloads();
+        // 3. 提取所有载荷（包含自定义字段 + iss/iat/exp 等标准字段）
+        return verified.payload();
     }
 
     /**
-     * 刷新访问Token
+     * 刷新访问Token（只接受刷新令牌）
      */
     public String refreshToken(String refreshToken) {
-        log.info("refreshToken: {} {}", refreshToken, validateToken(refreshToken));
-        // 先验证refreshToken是否有效
-
-        if (!validateToken(refreshToken)) {
+        // 只验签一次，有效性与 userId 来自同一次解析
+        VerifiedToken verified = verify(refreshToken);
+        if (!verified.valid()) {
             throw new JWTException("refreshToken signature verification failed");
         }
-        Long userId = Long.parseLong(parseToken(refreshToken).get("userId").toString());
+        if (verified.type() != JwtTokenType.REFRESH) {
+            throw new JWTException("token is not a refresh token");
+        }
+        return generateAccessToken(verified.userId());
+    }
 
-        return generateAccessToken(userId);
+    /**
+     * 清空已验签缓存（密钥变更等场景）
+     */
+    public void clearVerifiedCache() {
+        verifiedCache.clear();
+    }
 
+    private String generate(Long userId, long expire, JwtTokenType type) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId must not be null");
+        }
+        return keys.current().ring().signer(System.currentTimeMillis()).encode(userId, expire, type);
+    }
+
+    private Duration maxTokenLifetime() {
+        return Duration.ofSeconds(Math.max(accessTokenExpire, refreshTokenExpire));
+    }
+
+    private static long expireOf(Map<String, Object> payload) {
+        Object expire = payload.get("expire");
+        if (expire instanceof Number number) {
+            return number.longValue();
+        }
+        if (expire != null) {
+            try {
+                return Long.parseLong(expire.toString());
+            } catch (NumberFormatException e) {
+                return 0L;
+            }
+        }
+        return Long.MAX_VALUE;
     }
 }
@@ -0,0 +1,197 @@
+package org.example.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * @author nanak
+ *
+ * 批量脱敏的输出缓冲区
+ * 所有值的字符连续存放在一个 char[] 中，另记每个值的结束偏移；null 值单独标记
+ * {@link #clear()} 只重置计数、保留已分配的数组，同一个实例可在多批数据间反复使用，稳定后不再分配
+ * 非线程安全
+ */
+public final class MaskedColumn {
+
+    private char[] chars;
+    private int[] ends;
+    private boolean[] nulls;
+    private int size;
+    private int length;
+
+    /**
+     * 并行脱敏时每个分块的输出缓冲区，随本实例复用
+     */
+    private MaskedColumn[] parts;
+
+    public MaskedColumn() {
+        this(64, 1024);
+    }
+
+    /**
+     * @param expectedValues 预计的值数量
+     * @param expectedChars  预计的字符总数
+     */
+    public MaskedColumn(int expectedValues, int expectedChars) {
+        this.chars = new char[Math.max(expectedChars, 16)];
+        this.ends = new int[Math.max(expectedValues, 4)];
+        this.nulls = new boolean[ends.length];
+    }
+
+    /**
+     * 值的数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 所有值的字符总数
+     */
+    public int length() {
+        return length;
+    }
+
+    public boolean isNull(int index) {
+        checkIndex(index);
+        return nulls[index];
+    }
+
+    /**
+     * 第 index 个值，null 值返回 null；每次调用都新建字符串，导出时优先用 {@link #writeTo(int, Writer)}
+     */
+    public String get(int index) {
+        checkIndex(index);
+        if (nulls[index]) {
+            return null;
+        }
+        int start = start(index);
+        return new String(chars, start, ends[index] - start);
+    }
+
+    /**
+     * 第 index 个值的只读视图（共享底层数组，clear 或继续写入后失效），null 值返回 null
+     */
+    public CharSequence view(int index) {
+        checkIndex(index);
+        if (nulls[index]) {
+            return null;
+        }
+        int start = start(index);
+        return CharBuffer.wrap(chars, start, ends[index] - start).asReadOnlyBuffer();
+    }
+
+    /**
+     * 把第 index 个值直接写入 writer，null 值不写
+     */
+    public void writeTo(int index, Writer writer) throws IOException {
+        checkIndex(index);
+        int start = start(index);
+        writer.write(chars, start, ends[index] - start);
+    }
+
+    /**
+     * 把第 index 个值追加到 sb，null 值不追加
+     */
+    public void appendTo(int index, StringBuilder sb) {
+        checkIndex(index);
+        sb.append(chars, start(index), ends[index] - start(index));
+    }
+
+    /**
+     * 清空内容，保留已分配的数组
+     */
+    public void clear() {
+        size = 0;
+        length = 0;
+    }
+
+    void appendNull() {
+        ensureValues();
+        nulls[size] = true;
+        ends[size++] = length;
+    }
+
+    /**
+     * 保证还能写入 count 个字符，返回底层数组；写完后调用 {@link #commit(int)}
+     */
+    char[] reserve(int count) {
+        if (length + count > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length << 1, length + count));
+        }
+        return chars;
+    }
+
+    /**
+     * 以 [length(), newLength) 作为一个新值
+     */
+    void commit(int newLength) {
+        ensureValues();
+        nulls[size] = false;
+        ends[size++] = newLength;
+        length = newLength;
+    }
+
+    void append(CharSequence value, int from, int to) {
+        char[] dest = reserve(to - from);
+        int pos = length;
+        if (value instanceof String str) {
+            str.getChars(from, to, dest, pos);
+            pos += to - from;
+        } else {
+            for (int i = from; i < to; i++) {
+                dest[pos++] = value.charAt(i);
+            }
+        }
+        commit(pos);
+    }
+
+    void appendAll(MaskedColumn other) {
+        System.arraycopy(other.chars, 0, reserve(other.length), length, other.length);
+        while (size + other.size > ends.length) {
+            growValues();
+        }
+        for (int i = 0; i < other.size; i++) {
+            ends[size + i] = other.ends[i] + length;
+        }
+        System.arraycopy(other.nulls, 0, nulls, size, other.size);
+        size += other.size;
+        length += other.length;
+    }
+
+    /**
+     * 第 index 个分块的缓冲区，按需创建并复用
+     */
+    MaskedColumn part(int index) {
+        if (parts == null || parts.length <= index) {
+            parts = Arrays.copyOf(parts == null ? new MaskedColumn[0] : parts, index + 1);
+        }
+        if (parts[index] == null) {
+            parts[index] = new MaskedColumn();
+        }
+        return parts[index];
+    }
+
+    private int start(int index) {
+        return index == 0 ? 0 : ends[index - 1];
+    }
+
+    private void ensureValues() {
+        if (size == ends.length) {
+            growValues();
+        }
+    }
+
+    private void growValues() {
+        ends = Arrays.copyOf(ends, ends.length << 1);
+        nulls = Arrays.copyOf(nulls, ends.length);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+    }
+}
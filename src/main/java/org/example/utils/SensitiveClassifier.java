@@ -0,0 +1,301 @@
+package org.example.utils;
+
+/**
+ * @author nanak
+ *
+ * 脱敏类型识别
+ * 一次遍历统计各类字符的数量及 '@'、'-' 的位置，再按 {@link SensitiveType} 的优先级依次做结构判断，
+ * 只有长度和字符构成都对得上的类型才逐位检查（身份证的日期、车牌的各位），不使用正则
+ * 识别结果与以下规则（按顺序取第一个匹配）一致：
+ * <pre>
+ * 手机号   ^1[3-9]\d{9}$
+ * 身份证号 ^[1-9]\d{5}(18|19|20)\d{2}((0[1-9])|(1[0-2]))(([0-2][1-9])|10|20|30|31)\d{3}[0-9Xx]$
+ * 电子邮件 ^[a-zA-Z0-9_-]+@[a-zA-Z0-9_-]+(\.[a-zA-Z0-9_-]+)+$
+ * 座机号   ^0\d{2,3}-\d{7,8}$
+ * 银行卡号 ^\d{16,19}$
+ * 车牌     ^[京津沪渝冀豫云辽黑湘皖鲁新苏浙赣鄂桂甘晋蒙陕吉闽贵粤青藏川宁琼使领A-Z][A-Z][A-Z0-9]{4,5}[A-Z0-9挂学警港澳]$
+ * 中文姓名 ^[\u4e00-\u9fa5]{2,4}$
+ * 用户ID   ^\d+$
+ * 地址     长度 &gt; 5 且 .*[\u4e00-\u9fa5]+.*（'.' 不匹配行终止符）
+ * </pre>
+ * 手机号、身份证号的判断同时供 {@code @Mobile}、{@code @IdCard} 校验器使用；校验身份证号时另加日期与校验码检查（{@link #isValidIdCard}）
+ */
+public final class SensitiveClassifier {
+
+    private static final String PLATE_PROVINCES = "京津沪渝冀豫云辽黑湘皖鲁新苏浙赣鄂桂甘晋蒙陕吉闽贵粤青藏川宁琼使领";
+    private static final String PLATE_SUFFIXES = "挂学警港澳";
+
+    /**
+     * GB 11643-1999 前 17 位的加权因子（2^(17-i) mod 11）及余数对应的校验码
+     */
+    private static final int[] ID_CARD_WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    private static final String ID_CARD_CHECK_CODES = "10X98765432";
+
+    private SensitiveClassifier() {
+    }
+
+    /**
+     * 识别脱敏类型
+     *
+     * @param str 已去除首尾空白的非空串
+     */
+    public static SensitiveType classify(String str) {
+        return classify(str, 0, str.length());
+    }
+
+    /**
+     * 识别 str[from, to) 的脱敏类型，不复制字符
+     *
+     * @param str  字符序列，[from, to) 为已去除首尾空白的非空区间
+     * @param from 起始下标（含）
+     * @param to   结束下标（不含）
+     */
+    public static SensitiveType classify(CharSequence str, int from, int to) {
+        int len = to - from;
+        int digits = 0;
+        // [a-zA-Z0-9_-]
+        int words = 0;
+        int cjk = 0;
+        int ats = 0;
+        int atIndex = -1;
+        int dashes = 0;
+        int dashIndex = -1;
+        int dots = 0;
+        // 每个 '.' 都在 '@' 之后且前面不是 '@' 或 '.'（域名各段非空）
+        boolean dotsInDomain = true;
+        boolean lineTerminator = false;
+        char prev = 0;
+        for (int i = 0; i < len; i++) {
+            char c = str.charAt(from + i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                words++;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_') {
+                words++;
+            } else if (c == '-') {
+                words++;
+                dashes++;
+                dashIndex = i;
+            } else if (c == '@') {
+                ats++;
+                atIndex = i;
+            } else if (c == '.') {
+                dots++;
+                if (ats == 0 || prev == '@' || prev == '.') {
+                    dotsInDomain = false;
+                }
+            } else if (isChinese(c)) {
+                cjk++;
+            } else if (isLineTerminator(c)) {
+                lineTerminator = true;
+            }
+            prev = c;
+        }
+
+        if (digits == len) {
+            if (len == 11 && isMobilePhone(str, from, to)) {
+                return SensitiveType.MOBILE_PHONE;
+            }
+            if (len == 18 && isIdCard(str, from)) {
+                return SensitiveType.ID_CARD;
+            }
+            if (len >= 16 && len <= 19) {
+                return SensitiveType.BANK_CARD;
+            }
+            return SensitiveType.USER_ID;
+        }
+        if (len == 18 && digits == 17 && (prev == 'X' || prev == 'x') && isIdCard(str, from)) {
+            return SensitiveType.ID_CARD;
+        }
+        if (ats == 1 && dots > 0 && words + ats + dots == len && dotsInDomain && atIndex > 0 && prev != '.') {
+            return SensitiveType.EMAIL;
+        }
+        if (dashes == 1 && digits == len - 1 && str.charAt(from) == '0'
+                && (dashIndex == 3 || dashIndex == 4) && len - dashIndex - 1 >= 7 && len - dashIndex - 1 <= 8) {
+            return SensitiveType.FIXED_PHONE;
+        }
+        if ((len == 7 || len == 8) && isCarLicense(str, from, to)) {
+            return SensitiveType.CAR_LICENSE;
+        }
+        if (cjk == len && len >= 2 && len <= 4) {
+            return SensitiveType.CHINESE_NAME;
+        }
+        if (len > 5 && cjk > 0 && !lineTerminator) {
+            return SensitiveType.ADDRESS;
+        }
+        return SensitiveType.DEFAULT;
+    }
+
+    /**
+     * str[from, to) 是否会被识别为 type，结果与 {@code classify(str, from, to) == type} 相同
+     * 手机号、身份证号、银行卡号、中文姓名只做该类型的逐位检查，其余类型做完整识别
+     *
+     * @param str  字符序列，[from, to) 为已去除首尾空白的非空区间
+     * @param from 起始下标（含）
+     * @param to   结束下标（不含）
+     */
+    public static boolean matches(SensitiveType type, CharSequence str, int from, int to) {
+        int len = to - from;
+        return switch (type) {
+            case MOBILE_PHONE -> isMobilePhone(str, from, to);
+            case ID_CARD -> isIdCardFormat(str, from, to);
+            case BANK_CARD -> len >= 16 && len <= 19 && allDigits(str, from, to) && !(len == 18 && isIdCard(str, from));
+            case CHINESE_NAME -> len >= 2 && len <= 4 && allChinese(str, from, to);
+            default -> classify(str, from, to) == type;
+        };
+    }
+
+    /**
+     * 是否为手机号：^1[3-9]\d{9}$
+     */
+    public static boolean isMobilePhone(CharSequence str) {
+        return str != null && isMobilePhone(str, 0, str.length());
+    }
+
+    /**
+     * 是否符合身份证号格式（与脱敏识别相同，不校验日期是否存在和校验码）
+     */
+    public static boolean isIdCardFormat(CharSequence str) {
+        return str != null && isIdCardFormat(str, 0, str.length());
+    }
+
+    /**
+     * 是否为有效的 18 位身份证号：格式正确、出生日期真实存在（含闰年）、校验码符合 GB 11643-1999（X 不区分大小写）
+     */
+    public static boolean isValidIdCard(CharSequence str) {
+        if (!isIdCardFormat(str)) {
+            return false;
+        }
+        int year = twoDigits(str, 6) * 100 + twoDigits(str, 8);
+        int month = twoDigits(str, 10);
+        int day = twoDigits(str, 12);
+        if (day > daysInMonth(year, month)) {
+            return false;
+        }
+        int sum = 0;
+        for (int i = 0; i < 17; i++) {
+            sum += (str.charAt(i) - '0') * ID_CARD_WEIGHTS[i];
+        }
+        char check = ID_CARD_CHECK_CODES.charAt(sum % 11);
+        char last = str.charAt(17);
+        return last == check || (check == 'X' && last == 'x');
+    }
+
+    private static boolean isMobilePhone(CharSequence str, int from, int to) {
+        if (to - from != 11 || str.charAt(from) != '1') {
+            return false;
+        }
+        char second = str.charAt(from + 1);
+        if (second < '3' || second > '9') {
+            return false;
+        }
+        for (int i = from + 2; i < to; i++) {
+            if (!isDigit(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIdCardFormat(CharSequence str, int from, int to) {
+        if (to - from != 18 || !allDigits(str, from, from + 17)) {
+            return false;
+        }
+        char last = str.charAt(from + 17);
+        return (isDigit(last) || last == 'X' || last == 'x') && isIdCard(str, from);
+    }
+
+    private static boolean allDigits(CharSequence str, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isDigit(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean allChinese(CharSequence str, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!isChinese(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * 18 位身份证号的逐位结构检查：首位非 0、年份 18xx-20xx、月份 01-12、日 01-31（不校验日期是否存在）；
+     * 调用方已确认前 17 位为数字、末位为数字或 X/x
+     */
+    private static boolean isIdCard(CharSequence str, int from) {
+        if (str.charAt(from) == '0') {
+            return false;
+        }
+        int century = twoDigits(str, from + 6);
+        if (century < 18 || century > 20) {
+            return false;
+        }
+        int month = twoDigits(str, from + 10);
+        if (month < 1 || month > 12) {
+            return false;
+        }
+        int day = twoDigits(str, from + 12);
+        return day >= 1 && day <= 31;
+    }
+
+    /**
+     * 7 或 8 位车牌的逐位检查
+     */
+    private static boolean isCarLicense(CharSequence str, int from, int to) {
+        int last = to - 1;
+        char first = str.charAt(from);
+        if (!isUpper(first) && PLATE_PROVINCES.indexOf(first) < 0) {
+            return false;
+        }
+        if (!isUpper(str.charAt(from + 1))) {
+            return false;
+        }
+        for (int i = from + 2; i < last; i++) {
+            if (!isUpperOrDigit(str.charAt(i))) {
+                return false;
+            }
+        }
+        char end = str.charAt(last);
+        return isUpperOrDigit(end) || PLATE_SUFFIXES.indexOf(end) >= 0;
+    }
+
+    private static int twoDigits(CharSequence str, int index) {
+        return (str.charAt(index) - '0') * 10 + (str.charAt(index + 1) - '0');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isUpperOrDigit(char c) {
+        return isUpper(c) || isDigit(c);
+    }
+
+    private static boolean isChinese(char c) {
+        return c >= '\u4e00' && c <= '\u9fa5';
+    }
+
+    /**
+     * 正则 '.' 不匹配的行终止符
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
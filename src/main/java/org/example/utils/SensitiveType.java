@@ -0,0 +1,70 @@
+package org.example.utils;
+
+import cn.hutool.core.util.DesensitizedUtil;
+import cn.hutool.core.util.StrUtil;
+
+/**
+ * @author nanak
+ *
+ * 脱敏类型，声明顺序即 {@link SensitiveClassifier} 的识别优先级
+ */
+public enum SensitiveType {
+    /**
+     * 手机号
+     */
+    MOBILE_PHONE,
+    /**
+     * 身份证号，保留前6后2
+     */
+    ID_CARD,
+    /**
+     * 电子邮件
+     */
+    EMAIL,
+    /**
+     * 座机号
+     */
+    FIXED_PHONE,
+    /**
+     * 银行卡号
+     */
+    BANK_CARD,
+    /**
+     * 中国大陆车牌，包含普通车辆、新能源车辆
+     */
+    CAR_LICENSE,
+    /**
+     * 中文姓名
+     */
+    CHINESE_NAME,
+    /**
+     * 纯数字（用户ID），保留后4位
+     */
+    USER_ID,
+    /**
+     * 地址，保留前8位
+     */
+    ADDRESS,
+    /**
+     * 非上述类型，保留前1后1
+     */
+    DEFAULT;
+
+    /**
+     * 按本类型脱敏（入参为已去除首尾空白的非空串）
+     */
+    public String mask(String str) {
+        return switch (this) {
+            case MOBILE_PHONE -> DesensitizedUtil.mobilePhone(str);
+            case ID_CARD -> DesensitizedUtil.idCardNum(str, 6, 2);
+            case EMAIL -> DesensitizedUtil.email(str);
+            case FIXED_PHONE -> DesensitizedUtil.fixedPhone(str);
+            case BANK_CARD -> DesensitizedUtil.bankCard(str);
+            case CAR_LICENSE -> DesensitizedUtil.carLicense(str);
+            case CHINESE_NAME -> DesensitizedUtil.chineseName(str);
+            case USER_ID -> DesensitizedUtil.idCardNum(str, 0, 4);
+            case ADDRESS -> DesensitizedUtil.address(str, 8);
+            case DEFAULT -> StrUtil.hide(str, 1, str.length() - 1);
+        };
+    }
+}
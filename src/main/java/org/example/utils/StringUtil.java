@@ -1,9 +1,8 @@
 package org.example.utils;
 
-import cn.hutool.core.util.DesensitizedUtil;
 import cn.hutool.core.util.StrUtil;
 
-import java.util.regex.Pattern;
+import java.util.List;
 
 /**
  * @author nanak
@@ -11,16 +10,6 @@ import java.util.regex.Pattern;
  * 字符串工具类
  */
 public class StringUtil {
-    // 正则匹配规则（核心：用于识别字符串类型）
-    private static final Pattern PATTERN_PHONE = Pattern.compile("^1[3-9]\\d{9}$");
-    private static final Pattern PATTERN_ID_CARD = Pattern.compile("^[1-9]\\d{5}(18|19|20)\\d{2}((0[1-9])|(1[0-2]))(([0-2][1-9])|10|20|30|31)\\d{3}[0-9Xx]$");
-    private static final Pattern PATTERN_EMAIL = Pattern.compile("^[a-zA-Z0-9_-]+@[a-zA-Z0-9_-]+(\\.[a-zA-Z0-9_-]+)+$");
-    private static final Pattern PATTERN_LANDLINE = Pattern.compile("^0\\d{2,3}-\\d{7,8}$");
-    private static final Pattern PATTERN_BANK_CARD = Pattern.compile("^\\d{16,19}$");
-    private static final Pattern PATTERN_PLATE_NUMBER = Pattern.compile("^[京津沪渝冀豫云辽黑湘皖鲁新苏浙赣鄂桂甘晋蒙陕吉闽贵粤青藏川宁琼使领A-Z]{1}[A-Z]{1}[A-Z0-9]{4,5}[A-Z0-9挂学警港澳]{1}$");
-    // 2-4个中文字符（姓名）
-    private static final Pattern PATTERN_CHINESE_NAME = Pattern.compile("^[\\u4e00-\\u9fa5]{2,4}$");
-
     /**
      * 判断字符串是否为空（空串/空白符/null）
      */
@@ -35,6 +24,20 @@ public class StringUtil {
         return StrUtil.isNotEmpty(str);
     }
 
+    /**
+     * 是否为手机号（11位中国号码）
+     */
+    public static boolean isMobile(String str) {
+        return SensitiveClassifier.isMobilePhone(str);
+    }
+
+    /**
+     * 是否为有效的18位身份证号（含出生日期及校验码检查）
+     */
+    public static boolean isIdCard(String str) {
+        return SensitiveClassifier.isValidIdCard(str);
+    }
+
     /**
      * 字符串脱敏(用户id
      * 中文姓名
@@ -49,53 +52,34 @@ public class StringUtil {
      */
     public static String sensitive(String str) {
         // 空值处理：避免空指针
-        if (str == null || str.trim().isEmpty()) {
-            return str;
+        if (str == null) {
+            return null;
         }
         String trimStr = str.trim();
-
-        // 1. 匹配手机号（优先级高于座机/数字ID）
-        if (PATTERN_PHONE.matcher(trimStr).matches()) {
-            return DesensitizedUtil.mobilePhone(trimStr);
-        }
-        // 2. 匹配身份证号
-        else if (PATTERN_ID_CARD.matcher(trimStr).matches()) {
-            // 保留前6后2
-            return DesensitizedUtil.idCardNum(trimStr, 6, 2);
-        }
-        // 3. 匹配邮箱
-        else if (PATTERN_EMAIL.matcher(trimStr).matches()) {
-            return DesensitizedUtil.email(trimStr);
-        }
-        // 4. 匹配座机号
-        else if (PATTERN_LANDLINE.matcher(trimStr).matches()) {
-            return DesensitizedUtil.fixedPhone(trimStr);
-        }
-        // 5. 匹配银行卡号
-        else if (PATTERN_BANK_CARD.matcher(trimStr).matches()) {
-            return DesensitizedUtil.bankCard(trimStr);
-        }
-        // 6. 匹配车牌（含新能源）
-        else if (PATTERN_PLATE_NUMBER.matcher(trimStr).matches()) {
-            return DesensitizedUtil.carLicense(trimStr);
-        }
-        // 7. 匹配中文姓名
-        else if (PATTERN_CHINESE_NAME.matcher(trimStr).matches()) {
-            return DesensitizedUtil.chineseName(trimStr);
-        }
-        // 8. 匹配纯数字（用户ID）：假设ID为纯数字，保留后4位
-        else if (trimStr.matches("^\\d+$")) {
-            return DesensitizedUtil.idCardNum(trimStr, 0, 4);
-        }
-        // 9. 匹配地址（包含中文+数字/字符，长度>5）
-        // 保留前8位
-        else if (trimStr.length() > 5 && trimStr.matches(".*[\\u4e00-\\u9fa5]+.*")) {
-            return DesensitizedUtil.address(trimStr, 8);
+        if (trimStr.isEmpty()) {
+            return str;
         }
-        // 11. 默认脱敏：非上述类型，保留前1后1，中间用*填充
-        else {
-            return StrUtil.hide(trimStr, 1, trimStr.length() - 1);
+        // 一次遍历识别类型（手机号 > 身份证号 > 邮箱 > 座机号 > 银行卡号 > 车牌 > 中文姓名 > 纯数字ID > 地址 > 默认）
+        return SensitiveClassifier.classify(trimStr).mask(trimStr);
+    }
+
+    /**
+     * 按指定类型脱敏：值符合该类型的形状时不再完整识别类型，不符合或 type 为 null 时同 {@link #sensitive(String)}；
+     * 空值处理同 {@link #sensitive(String)}
+     */
+    public static String sensitive(String str, SensitiveType type) {
+        if (str == null || type == null) {
+            return sensitive(str);
         }
+        return BulkDesensitizer.mask(str, type);
+    }
+
+    /**
+     * 批量脱敏（导出、大结果集）：按列识别类型，结果写入可复用的 out（先清空），数据量大时分块并行
+     * 规则见 {@link BulkDesensitizer}
+     */
+    public static MaskedColumn sensitive(List<? extends CharSequence> column, MaskedColumn out) {
+        return BulkDesensitizer.maskColumn(column, out);
     }
 
     /**
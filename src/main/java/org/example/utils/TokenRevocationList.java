@@ -0,0 +1,213 @@
+package org.example.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author nanak
+ *
+ * Token 吊销列表
+ * 以 token 的签名段标识 token：布隆过滤器作为快速否定路径（绝大多数未吊销的 token 只做一次签名段哈希和 k 次位读取），
+ * 命中过滤器时再查精确集合确认，精确集合记录每个 token 的 expire
+ * 吊销记录追加写入本地日志（每行 "expire 签名段"），重启时回放未过期的记录；
+ * {@link #compact(long)} 移除已过期的记录，重建过滤器并重写日志
+ * 日志路径为 null 时只保存在内存中
+ */
+@Slf4j
+public final class TokenRevocationList implements Closeable {
+
+    private static final double FPP = 0.001;
+
+    private final Path logFile;
+    private final int expectedEntries;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    /**
+     * 日志写入器，首次吊销时打开；与过滤器重建、日志重写共用 this 锁
+     */
+    private BufferedWriter writer;
+
+    /**
+     * 日志文件中的行数（含已过期的），多于有效记录数时压缩会重写日志
+     */
+    private int logLines;
+
+    /**
+     * @param logFile         吊销日志路径，null 表示不持久化
+     * @param expectedEntries 预计同时有效的吊销数量（决定过滤器大小，超出后误判率上升，压缩时按实际数量扩容）
+     */
+    public TokenRevocationList(Path logFile, int expectedEntries) {
+        this.logFile = logFile;
+        this.expectedEntries = expectedEntries;
+        this.filter = new BloomFilter(expectedEntries, FPP);
+        if (logFile != null && Files.exists(logFile)) {
+            replay(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 吊销 token
+     *
+     * @param expire token 过期时间（毫秒时间戳），过期后记录在压缩时删除
+     */
+    public void revoke(String token, long expire) {
+        String signature = signatureOf(token);
+        synchronized (this) {
+            revoked.merge(signature, expire, Math::max);
+            filter.put(VerifiedTokenCache.hash(token));
+            append(signature, expire);
+        }
+    }
+
+    /**
+     * 是否已吊销
+     */
+    public boolean isRevoked(String token) {
+        if (!filter.mightContain(VerifiedTokenCache.hash(token))) {
+            return false;
+        }
+        return revoked.containsKey(signatureOf(token));
+    }
+
+    /**
+     * 移除已过期的记录并重建过滤器；日志中有多余的行时重写日志（先写临时文件再原子替换）
+     *
+     * @return 移除的记录数
+     */
+    public synchronized int compact(long now) {
+        int before = revoked.size();
+        revoked.values().removeIf(expire -> expire <= now);
+        int removed = before - revoked.size();
+        if (removed > 0) {
+            rebuildFilter();
+            log.info("Token revocation list compacted, removed: {}, remaining: {}", removed, revoked.size());
+        }
+        if (logFile != null && logLines > revoked.size()) {
+            rewriteLog();
+        }
+        return removed;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Failed to close revocation log {}", logFile, e);
+            }
+            writer = null;
+        }
+    }
+
+    private void replay(long now) {
+        int loaded = 0;
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                logLines++;
+                int space = line.indexOf(' ');
+                if (space <= 0 || space == line.length() - 1) {
+                    // 写入中断的半行
+                    skipped++;
+                    continue;
+                }
+                long expire;
+                try {
+                    expire = Long.parseLong(line, 0, space, 10);
+                } catch (NumberFormatException e) {
+                    skipped++;
+                    continue;
+                }
+                if (expire <= now) {
+                    continue;
+                }
+                String signature = line.substring(space + 1);
+                revoked.merge(signature, expire, Math::max);
+                loaded++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read revocation log " + logFile, e);
+        }
+        rebuildFilter();
+        log.info("Token revocation log replayed: {}, active: {}, skipped lines: {}", logFile, loaded, skipped);
+    }
+
+    private void append(String signature, long expire) {
+        if (logFile == null) {
+            return;
+        }
+        try {
+            if (writer == null) {
+                Path parent = logFile.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                writer = Files.newBufferedWriter(logFile, StandardCharsets.US_ASCII,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(Long.toString(expire));
+            writer.write(' ');
+            writer.write(signature);
+            writer.write('\n');
+            writer.flush();
+            logLines++;
+        } catch (IOException e) {
+            // 内存中的吊销仍然生效，只是重启后丢失
+            log.error("Failed to append revocation log {}", logFile, e);
+        }
+    }
+
+    private void rewriteLog() {
+        Path temp = logFile.resolveSibling(logFile.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.US_ASCII)) {
+                for (Map.Entry<String, Long> entry : revoked.entrySet()) {
+                    out.write(Long.toString(entry.getValue()));
+                    out.write(' ');
+                    out.write(entry.getKey());
+                    out.write('\n');
+                }
+            }
+            close();
+            Files.move(temp, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logLines = revoked.size();
+        } catch (IOException e) {
+            log.error("Failed to rewrite revocation log {}", logFile, e);
+        }
+    }
+
+    /**
+     * 按当前记录数重建过滤器（只增不删的过滤器无法移除过期记录）
+     */
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2), FPP);
+        revoked.keySet().forEach(signature -> rebuilt.put(VerifiedTokenCache.hash(signature)));
+        filter = rebuilt;
+    }
+
+    /**
+     * 签名段（最后一个 '.' 之后）
+     */
+    private static String signatureOf(String token) {
+        return token.substring(token.lastIndexOf('.') + 1);
+    }
+}
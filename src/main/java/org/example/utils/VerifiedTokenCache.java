@@ -0,0 +1,112 @@
+package org.example.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author nanak
+ *
+ * 已验签 Token 缓存
+ * 以签名段的 64 位哈希为 key，命中后再比较完整 token，哈希碰撞不会串号；
+ * 每个条目的过期时间取 min(写入时间 + 最大缓存时长, token 的 expire)，不会比 token 活得更久
+ * 条数有上限，写满时先清理过期条目，仍然写满则不再缓存（退回每次验签）
+ * 也用作无效 token 的负缓存（expire 传 Long.MAX_VALUE，只受最大缓存时长约束）
+ */
+public final class VerifiedTokenCache<V> {
+
+    /**
+     * 写满后两次清理之间的最小间隔（毫秒），避免每次写入都全表扫描
+     */
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private static final class Entry<V> {
+        final String token;
+        final V value;
+        final long deadline;
+
+        Entry(String token, V value, long deadline) {
+            this.token = token;
+            this.value = value;
+            this.deadline = deadline;
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long maxTtlMillis;
+    private volatile long lastSweep;
+
+    /**
+     * @param maxSize      最多缓存的 token 数量
+     * @param maxTtlMillis 单个条目最长缓存时间（毫秒）
+     */
+    public VerifiedTokenCache(int maxSize, long maxTtlMillis) {
+        if (maxSize <= 0 || maxTtlMillis <= 0) {
+            throw new IllegalArgumentException("maxSize and maxTtlMillis must be positive");
+        }
+        this.maxSize = maxSize;
+        this.maxTtlMillis = maxTtlMillis;
+    }
+
+    /**
+     * 查找已验签的结果，未命中或已过期返回 null
+     */
+    public V get(String token, long now) {
+        Long key = hash(token);
+        Entry<V> entry = entries.get(key);
+        if (entry == null || !entry.token.equals(token)) {
+            return null;
+        }
+        if (now >= entry.deadline) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * 缓存验签结果
+     *
+     * @param expire token 的过期时间（毫秒时间戳），已过期的不缓存
+     */
+    public void put(String token, V value, long expire, long now) {
+        long deadline = Math.min(now + maxTtlMillis, expire);
+        if (deadline <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize && !sweep(now)) {
+            return;
+        }
+        entries.put(hash(token), new Entry<>(token, value, deadline));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 清理过期条目，返回清理后是否有空位
+     */
+    private boolean sweep(long now) {
+        if (now - lastSweep >= SWEEP_INTERVAL_MILLIS) {
+            lastSweep = now;
+            entries.values().removeIf(entry -> now >= entry.deadline);
+        }
+        return entries.size() < maxSize;
+    }
+
+    /**
+     * 签名段（最后一个 '.' 之后）的 FNV-1a 64 位哈希；签名本身是 HMAC 输出，分布足够均匀
+     */
+    static long hash(String token) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = token.lastIndexOf('.') + 1; i < token.length(); i++) {
+            h ^= token.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+}
@@ -2,7 +2,7 @@ package org.example.validator.annotation;
 
 import jakarta.validation.Constraint;
 import jakarta.validation.Payload;
-import org.example.validator.constraint.MobileValidator;
+import org.example.validator.constraint.IdCardValidator;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -15,7 +15,7 @@ import java.lang.annotation.Target;
  * 身份证号校验注解
  */
 // 指定校验器
-@Constraint(validatedBy = MobileValidator.class)
+@Constraint(validatedBy = IdCardValidator.class)
 // 注解目标：字段、方法参数
 @Target({ElementType.FIELD, ElementType.PARAMETER})
 @Retention(RetentionPolicy.RUNTIME)
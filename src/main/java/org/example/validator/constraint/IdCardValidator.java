@@ -1,20 +1,19 @@
 package org.example.validator.constraint;
 
-import io.micrometer.common.util.StringUtils;
+import cn.hutool.core.util.StrUtil;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import org.example.validator.annotation.Mobile;
+import org.example.utils.SensitiveClassifier;
+import org.example.validator.annotation.IdCard;
 
 /**
  * @author nanak
  *
- * 手机号校验器
+ * 身份证号校验器（18位）
+ * 格式规则与脱敏识别共用 {@link SensitiveClassifier#isValidIdCard}，另校验出生日期真实存在及 GB 11643-1999 校验码，
+ * 逐字符判断，不使用正则
  */
-public class IdCardValidator implements ConstraintValidator<Mobile, String> {
-    /**
-     * 手机号正则表达式（11位中国号码）
-     */
-    private static final String PATTERN = "^[1-9]\\d{5}(18|19|20)\\d{2}((0[1-9])|(1[0-2]))(([0-2][1-9])|10|20|30|31)\\d{3}[0-9Xx]$";
+public class IdCardValidator implements ConstraintValidator<IdCard, String> {
 
     /**
      * 是否必填（从注解获取参数）
@@ -23,19 +22,14 @@ public class IdCardValidator implements ConstraintValidator<Mobile, String> {
 
     @Override
     public boolean isValid(String s, ConstraintValidatorContext constraintValidatorContext) {
-        if (!required && StringUtils.isBlank(s)) {
-            return true;
+        if (StrUtil.isBlank(s)) {
+            return !required;
         }
-
-        if (StringUtils.isBlank(s)) {
-            return false;
-        }
-
-        return s.matches(PATTERN);
+        return SensitiveClassifier.isValidIdCard(s);
     }
 
     @Override
-    public void initialize(Mobile constraintAnnotation) {
+    public void initialize(IdCard constraintAnnotation) {
         this.required = constraintAnnotation.required();
     }
 }
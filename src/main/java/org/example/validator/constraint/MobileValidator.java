@@ -1,20 +1,18 @@
 package org.example.validator.constraint;
 
-import io.micrometer.common.util.StringUtils;
+import cn.hutool.core.util.StrUtil;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
+import org.example.utils.SensitiveClassifier;
 import org.example.validator.annotation.Mobile;
 
 /**
  * @author nanak
  *
  * 手机号校验器
+ * 规则与脱敏识别共用 {@link SensitiveClassifier#isMobilePhone}（11位中国号码，^1[3-9]\d{9}$），逐字符判断，不使用正则
  */
 public class MobileValidator implements ConstraintValidator<Mobile, String> {
-    /**
-     * 手机号正则表达式（11位中国号码）
-     */
-    private static final String PATTERN = "^1[3-9]\\d{9}$";
 
     /**
      * 是否必填（从注解获取参数）
@@ -23,15 +21,10 @@ public class MobileValidator implements ConstraintValidator<Mobile, String> {
 
     @Override
     public boolean isValid(String s, ConstraintValidatorContext constraintValidatorContext) {
-        if (!required && StringUtils.isBlank(s)) {
-            return true;
+        if (StrUtil.isBlank(s)) {
+            return !required;
         }
-
-        if (StringUtils.isBlank(s)) {
-            return false;
-        }
-
-        return s.matches(PATTERN);
+        return SensitiveClassifier.isMobilePhone(s);
     }
 
     @Override
@@ -45,6 +45,18 @@ class AopIntegrationTest {
         });
     }
 
+    @Test
+    void testIdempotentReplayReturnsFirstResult() {
+        String orderNo = "order" + System.currentTimeMillis();
+
+        // 第一次调用正常执行
+        String result1 = testService.replayMethod(orderNo);
+
+        // 重复调用直接回放首次结果，不抛出异常
+        String result2 = assertDoesNotThrow(() -> testService.replayMethod(orderNo));
+        assertSame(result1, result2);
+    }
+
     @Test
     void testTimeConsumingNormalExecution() {
         // 正常执行时间，不应该抛出异常
@@ -100,6 +112,12 @@ class AopIntegrationTest {
             return "success";
         }
         
+        @Idempotent(value = "orderNo", replay = true)
+        public String replayMethod(String orderNo) {
+            log.info("Executing replay method for order: {}", orderNo);
+            return "paid " + orderNo + " at " + System.nanoTime();
+        }
+        
         @TimeConsuming(threshold = 500)
         public String timeConsumingMethod(int sleepTime) {
             log.info("Executing time consuming method with sleep: {}ms", sleepTime);
@@ -1,17 +1,26 @@
 package org.example.aop.aspect;
 
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.example.aop.annotation.Idempotent;
 import org.example.exception.BusinessException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.example.aop.store.OffHeapIdempotencyStore;
+import org.example.config.IdempotentProperties;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 /**
  * @author nanak
@@ -21,14 +30,17 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class IdempotentAspectTest {
 
-    @InjectMocks
     private IdempotentAspect idempotentAspect;
 
     @BeforeEach
     void setUp() {
-        // 清空缓存
-        ConcurrentHashMap<String, Long> requestCache = new ConcurrentHashMap<>();
-        ReflectionTestUtils.setField(idempotentAspect, "requestCache", requestCache);
+        // 每个用例使用独立的存储
+        idempotentAspect = new IdempotentAspect(new OffHeapIdempotencyStore(1024, 4), new IdempotentProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotentAspect.shutdown();
     }
 
     @Test
@@ -56,6 +68,150 @@ class IdempotentAspectTest {
         assertEquals("too many requests, please try again later", idempotent.message());
     }
 
+    @Test
+    void testConcurrentDuplicateRejectedWhileInFlight() throws Throwable {
+        Method method = TestService.class.getMethod("testMethod", String.class);
+        Idempotent idempotent = method.getAnnotation(Idempotent.class);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ProceedingJoinPoint slowCall = mockJoinPoint(method, "user1");
+        when(slowCall.proceed()).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "success";
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> first = executor.submit(() -> {
+                try {
+                    return idempotentAspect.around(slowCall, idempotent);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            // 第一个请求仍在执行中，相同 key 的请求应被拒绝
+            ProceedingJoinPoint duplicate = mockJoinPoint(method, "user1");
+            assertThrows(BusinessException.class, () -> idempotentAspect.around(duplicate, idempotent));
+            verify(duplicate, never()).proceed();
+
+            release.countDown();
+            assertEquals("success", first.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 执行完成后，窗口内仍视为重复
+        ProceedingJoinPoint afterCompleted = mockJoinPoint(method, "user1");
+        assertThrows(BusinessException.class, () -> idempotentAspect.around(afterCompleted, idempotent));
+    }
+
+    @Test
+    void testFailedRequestKeepsKeyByDefault() throws Throwable {
+        Method method = TestService.class.getMethod("testMethod", String.class);
+        Idempotent idempotent = method.getAnnotation(Idempotent.class);
+
+        ProceedingJoinPoint failing = mockJoinPoint(method, "user2");
+        when(failing.proceed()).thenThrow(new IllegalStateException("boom"));
+        assertThrows(IllegalStateException.class, () -> idempotentAspect.around(failing, idempotent));
+
+        // 默认失败不释放，重试仍被拒绝
+        ProceedingJoinPoint retry = mockJoinPoint(method, "user2");
+        assertThrows(BusinessException.class, () -> idempotentAspect.around(retry, idempotent));
+    }
+
+    @Test
+    void testFailedRequestReleasesKeyWhenConfigured() throws Throwable {
+        Method method = TestService.class.getMethod("releaseMethod", String.class);
+        Idempotent idempotent = method.getAnnotation(Idempotent.class);
+
+        ProceedingJoinPoint failing = mockJoinPoint(method, "user3");
+        when(failing.proceed()).thenThrow(new IllegalStateException("boom"));
+        assertThrows(IllegalStateException.class, () -> idempotentAspect.around(failing, idempotent));
+
+        // 失败后释放 key，重试可以正常执行
+        ProceedingJoinPoint retry = mockJoinPoint(method, "user3");
+        when(retry.proceed()).thenReturn("success");
+        assertEquals("success", idempotentAspect.around(retry, idempotent));
+    }
+
+    @Test
+    void testReplayReturnsFirstResultToConcurrentDuplicate() throws Throwable {
+        Method method = TestService.class.getMethod("replayMethod", String.class);
+        Idempotent idempotent = method.getAnnotation(Idempotent.class);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object firstResult = new Object();
+
+        ProceedingJoinPoint slowCall = mockJoinPoint(method, "order1");
+        when(slowCall.proceed()).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return firstResult;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> first = executor.submit(() -> {
+                try {
+                    return idempotentAspect.around(slowCall, idempotent);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            // 重复请求等待首个请求完成，不会再次执行业务方法
+            ProceedingJoinPoint duplicate = mockJoinPoint(method, "order1");
+            Future<Object> second = executor.submit(() -> {
+                try {
+                    return idempotentAspect.around(duplicate, idempotent);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            release.countDown();
+
+            assertSame(firstResult, first.get(5, TimeUnit.SECONDS));
+            assertSame(firstResult, second.get(5, TimeUnit.SECONDS));
+            verify(duplicate, never()).proceed();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 完成后窗口内的重复请求直接回放
+        ProceedingJoinPoint afterCompleted = mockJoinPoint(method, "order1");
+        assertSame(firstResult, idempotentAspect.around(afterCompleted, idempotent));
+        verify(afterCompleted, never()).proceed();
+    }
+
+    @Test
+    void testReplayDoesNotCacheFailure() throws Throwable {
+        Method method = TestService.class.getMethod("replayMethod", String.class);
+        Idempotent idempotent = method.getAnnotation(Idempotent.class);
+
+        ProceedingJoinPoint failing = mockJoinPoint(method, "order2");
+        when(failing.proceed()).thenThrow(new IllegalStateException("boom"));
+        assertThrows(IllegalStateException.class, () -> idempotentAspect.around(failing, idempotent));
+
+        // 异常不回放，失败后的重复请求按幂等规则拒绝
+        ProceedingJoinPoint retry = mockJoinPoint(method, "order2");
+        assertThrows(BusinessException.class, () -> idempotentAspect.around(retry, idempotent));
+    }
+
+    private ProceedingJoinPoint mockJoinPoint(Method method, Object... args) {
+        MethodSignature signature = mock(MethodSignature.class);
+        lenient().when(signature.getMethod()).thenReturn(method);
+        lenient().when(signature.getParameterNames()).thenReturn(new String[]{"userId"});
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        lenient().when(joinPoint.getSignature()).thenReturn(signature);
+        lenient().when(joinPoint.getArgs()).thenReturn(args);
+        return joinPoint;
+    }
+
     /**
      * 测试用的服务类
      */
@@ -70,5 +226,15 @@ class IdempotentAspectTest {
         public String defaultMethod() {
             return "success";
         }
+
+        @Idempotent(value = "userId", releaseOnFailure = true)
+        public String releaseMethod(String userId) {
+            return "success";
+        }
+
+        @Idempotent(value = "userId", replay = true)
+        public String replayMethod(String userId) {
+            return "success";
+        }
     }
 }
\ No newline at end of file
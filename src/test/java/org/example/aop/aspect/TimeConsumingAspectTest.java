@@ -1,12 +1,29 @@
 package org.example.aop.aspect;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.example.aop.annotation.TimeConsuming;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 /**
  * @author nanak
@@ -19,6 +36,11 @@ class TimeConsumingAspectTest {
     @InjectMocks
     private TimeConsumingAspect timeConsumingAspect;
 
+    @AfterEach
+    void tearDown() {
+        timeConsumingAspect.shutdown();
+    }
+
     @Test
     void testTimeConsumingAnnotation() throws NoSuchMethodException {
         // 测试注解的基本属性
@@ -39,6 +61,126 @@ class TimeConsumingAspectTest {
         assertEquals(500, timeConsuming.threshold());
     }
 
+    @Test
+    void testExecutionRecordedIntoMeters() throws Throwable {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        timeConsumingAspect.bindTo(registry);
+        Method method = TestService.class.getMethod("testMethod");
+        TimeConsuming timeConsuming = method.getAnnotation(TimeConsuming.class);
+
+        ProceedingJoinPoint joinPoint = mockJoinPoint(method);
+        when(joinPoint.proceed()).thenReturn("success");
+        for (int i = 0; i < 10; i++) {
+            assertEquals("success", timeConsumingAspect.around(joinPoint, timeConsuming));
+        }
+
+        FunctionTimer timer = registry.get("method.execution")
+                .tags("class", "TestService", "method", "testMethod").functionTimer();
+        assertEquals(10, timer.count());
+        TimeGauge p99 = registry.get("method.execution.percentile").tag("phi", "0.99").timeGauge();
+        assertTrue(p99.value(TimeUnit.NANOSECONDS) > 0);
+        assertTrue(p99.value(TimeUnit.NANOSECONDS) <= timer.totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    void testFailureCountedAndRethrown() throws Throwable {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Method method = TestService.class.getMethod("defaultMethod");
+        TimeConsuming timeConsuming = method.getAnnotation(TimeConsuming.class);
+
+        ProceedingJoinPoint joinPoint = mockJoinPoint(method);
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+        assertThrows(IllegalStateException.class, () -> timeConsumingAspect.around(joinPoint, timeConsuming));
+
+        // 绑定晚于首次调用时补注册
+        timeConsumingAspect.bindTo(registry);
+        FunctionCounter failures = registry.get("method.execution.failures")
+                .tags("method", "defaultMethod").functionCounter();
+        assertEquals(1, failures.count());
+        assertEquals(1, registry.get("method.execution").tags("method", "defaultMethod").functionTimer().count());
+    }
+
+    @Test
+    void testAdaptiveThresholdFollowsRecentP99() throws Throwable {
+        Method method = TestService.class.getMethod("adaptiveMethod");
+        TimeConsuming timeConsuming = method.getAnnotation(TimeConsuming.class);
+        ProceedingJoinPoint joinPoint = mockJoinPoint(method);
+        when(joinPoint.proceed()).thenReturn("success");
+
+        // 样本不足时使用固定阈值
+        timeConsumingAspect.around(joinPoint, timeConsuming);
+        timeConsumingAspect.recomputeThresholds();
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), timeConsumingAspect.currentThresholdNanos(method));
+
+        for (int i = 0; i < 200; i++) {
+            timeConsumingAspect.around(joinPoint, timeConsuming);
+        }
+        timeConsumingAspect.recomputeThresholds();
+        long threshold = timeConsumingAspect.currentThresholdNanos(method);
+        assertTrue(threshold > 0);
+        assertTrue(threshold < TimeUnit.MILLISECONDS.toNanos(1000), "threshold should follow the fast p99: " + threshold);
+    }
+
+    @Test
+    void testFixedThresholdIsNotAdapted() throws Throwable {
+        Method method = TestService.class.getMethod("testMethod");
+        TimeConsuming timeConsuming = method.getAnnotation(TimeConsuming.class);
+        ProceedingJoinPoint joinPoint = mockJoinPoint(method);
+        when(joinPoint.proceed()).thenReturn("success");
+
+        for (int i = 0; i < 200; i++) {
+            timeConsumingAspect.around(joinPoint, timeConsuming);
+        }
+        timeConsumingAspect.recomputeThresholds();
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), timeConsumingAspect.currentThresholdNanos(method));
+    }
+
+    @Test
+    void testSlowCallLoggedWithSampledStackAndRateLimited() throws Throwable {
+        Method method = TestService.class.getMethod("adaptiveMethod");
+        TimeConsuming timeConsuming = method.getAnnotation(TimeConsuming.class);
+        ProceedingJoinPoint fastCall = mockJoinPoint(method);
+        when(fastCall.proceed()).thenReturn("success");
+        for (int i = 0; i < 200; i++) {
+            timeConsumingAspect.around(fastCall, timeConsuming);
+        }
+        timeConsumingAspect.recomputeThresholds();
+
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        Logger logger = (Logger) LoggerFactory.getLogger(TimeConsumingAspect.class);
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            ProceedingJoinPoint slowCall = mockJoinPoint(method);
+            when(slowCall.proceed()).thenAnswer(invocation -> {
+                Thread.sleep(300);
+                return "slow";
+            });
+            assertEquals("slow", timeConsumingAspect.around(slowCall, timeConsuming));
+            // 1 秒内的第二次慢调用被限速
+            timeConsumingAspect.around(slowCall, timeConsuming);
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        List<ILoggingEvent> warnings = appender.list.stream()
+                .filter(event -> event.getLevel() == Level.WARN)
+                .toList();
+        assertEquals(1, warnings.size());
+        String message = warnings.get(0).getFormattedMessage();
+        assertTrue(message.startsWith("Slow call detected: TestService.adaptiveMethod"), message);
+        // 后台线程在执行期间采样到了调用栈
+        assertTrue(message.contains("Thread.sleep"), message);
+    }
+
+    private static ProceedingJoinPoint mockJoinPoint(Method method) {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getMethod()).thenReturn(method);
+        return joinPoint;
+    }
+
     /**
      * 测试用的服务类
      */
@@ -53,5 +195,10 @@ class TimeConsumingAspectTest {
         public String defaultMethod() {
             return "success";
         }
+
+        @TimeConsuming(threshold = 1000, adaptive = true)
+        public String adaptiveMethod() {
+            return "success";
+        }
     }
 }
\ No newline at end of file
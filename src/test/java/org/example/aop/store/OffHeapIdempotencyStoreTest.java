@@ -0,0 +1,219 @@
+package org.example.aop.store;
+
+import org.example.aop.support.IdempotentState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OffHeapIdempotencyStore / MappedFileIdempotencyStore 单元测试
+ */
+class OffHeapIdempotencyStoreTest {
+
+    /**
+     * 执行中占位的租期
+     */
+    private static final long LEASE = 60_000;
+
+    @Test
+    void testReserveStateMachine() {
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(64, 4);
+        long now = System.currentTimeMillis();
+
+        assertEquals(ReserveResult.RESERVED, store.tryReserve(0L, 42L, now, now + LEASE));
+        // 执行中在租期内不过期
+        assertEquals(ReserveResult.DUPLICATE, store.tryReserve(0L, 42L, now + LEASE - 1, now + 2 * LEASE));
+
+        store.finish(0L, 42L, IdempotentState.COMPLETED, now + 1000);
+        assertEquals(ReserveResult.DUPLICATE, store.tryReserve(0L, 42L, now + 500, now + 500 + LEASE));
+        // 窗口结束后可再次占位
+        assertEquals(ReserveResult.RESERVED, store.tryReserve(0L, 42L, now + 1000, now + 1000 + LEASE));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testExpiredLeaseCanBeTakenOver() {
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(64, 4);
+        long now = System.currentTimeMillis();
+
+        // 占位后未调用 finish/release（执行超时或进程崩溃），租约到期后可被接管
+        assertEquals(ReserveResult.RESERVED, store.tryReserve(0L, 43L, now, now + 1000));
+        assertEquals(ReserveResult.DUPLICATE, store.tryReserve(0L, 43L, now + 999, now + 999 + LEASE));
+        assertEquals(ReserveResult.RESERVED, store.tryReserve(0L, 43L, now + 1000, now + 1000 + LEASE));
+        // 接管者的租约生效
+        assertEquals(ReserveResult.DUPLICATE, store.tryReserve(0L, 43L, now + 2000, now + 2000 + LEASE));
+        assertEquals(1, store.size());
+
+        // 过期的执行中 key 可被淘汰
+        assertTrue(store.expire(0L, 43L, now + 1000 + LEASE));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testReleaseOnlyRemovesInFlightKey() {
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(64, 4);
+        long now = System.currentTimeMillis();
+
+        store.tryReserve(0L, 1L, now, now + LEASE);
+        store.release(0L, 1L);
+        assertEquals(0, store.size());
+        assertEquals(ReserveResult.RESERVED, store.tryReserve(0L, 1L, now, now + LEASE));
+
+        store.finish(0L, 1L, IdempotentState.COMPLETED, now + 1000);
+        store.release(0L, 1L);
+        assertEquals(ReserveResult.DUPLICATE, store.tryReserve(0L, 1L, now, now + LEASE));
+    }
+
+    @Test
+    void testExpireRemovesOnlyExpiredKey() {
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(64, 4);
+        long now = System.currentTimeMillis();
+
+        store.tryReserve(0L, 7L, now, now + LEASE);
+        assertFalse(store.expire(0L, 7L, now + 10_000));
+
+        store.finish(0L, 7L, IdempotentState.FAILED, now + 1000);
+        assertFalse(store.expire(0L, 7L, now + 999));
+        assertTrue(store.expire(0L, 7L, now + 1000));
+        assertEquals(0, store.size());
+        assertEquals(1, store.evictedCount());
+    }
+
+    @Test
+    void testOverflowReturnsFullAndReusesExpiredSlots() {
+        // 单段 8 个槽位
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(8, 1);
+        long now = System.currentTimeMillis();
+        for (long key = 1; key <= 8; key++) {
+            assertEquals(ReserveResult.RESERVED, store.tryReserve(0L, key, now, now + LEASE));
+            store.finish(0L, key, IdempotentState.COMPLETED, now + 1000);
+        }
+        assertEquals(8, store.size());
+        assertEquals(8, store.capacity());
+
+        // 已满且均未过期
+        assertEquals(ReserveResult.FULL, store.tryReserve(0L, 100L, now, now + LEASE));
+
+        // 过期槽位可被新 key 复用
+        assertEquals(ReserveResult.RESERVED, store.tryReserve(0L, 100L, now + 1000, now + 1000 + LEASE));
+        assertEquals(8, store.size());
+        assertEquals(1, store.evictedCount());
+    }
+
+    @Test
+    void testDeleteKeepsProbeChainIntact() {
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(16, 1);
+        long now = System.currentTimeMillis();
+        for (long key = 1; key <= 12; key++) {
+            store.tryReserve(0L, key, now, now + LEASE);
+            store.finish(0L, key, IdempotentState.COMPLETED, now + key);
+        }
+
+        // 删除一半后，其余 key 仍能被找到
+        for (long key = 1; key <= 12; key += 2) {
+            assertTrue(store.expire(0L, key, now + 12));
+        }
+        for (long key = 2; key <= 12; key += 2) {
+            assertEquals(ReserveResult.DUPLICATE, store.tryReserve(0L, key, now, now + LEASE));
+        }
+        assertEquals(6, store.size());
+    }
+
+    @Test
+    void testDeleteFromFullSegment() {
+        // 段被占满时没有空槽结束探测链，删除仍需终止且保持其余 key 可查
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(4, 1);
+            long now = System.currentTimeMillis();
+            for (long key = 1; key <= 4; key++) {
+                assertEquals(ReserveResult.RESERVED, store.tryReserve(0L, key, now, now + LEASE));
+            }
+            assertEquals(ReserveResult.FULL, store.tryReserve(0L, 100L, now, now + LEASE));
+
+            store.release(0L, 1L);
+            assertEquals(3, store.size());
+            for (long key = 2; key <= 4; key++) {
+                assertEquals(ReserveResult.DUPLICATE, store.tryReserve(0L, key, now, now + LEASE));
+            }
+
+            assertEquals(ReserveResult.RESERVED, store.tryReserve(0L, 1L, now, now + LEASE));
+            for (long key = 1; key <= 4; key++) {
+                store.finish(0L, key, IdempotentState.COMPLETED, now + key);
+            }
+            for (long key = 1; key <= 4; key++) {
+                assertTrue(store.expire(0L, key, now + 4));
+                for (long rest = key + 1; rest <= 4; rest++) {
+                    assertEquals(ReserveResult.DUPLICATE, store.tryReserve(0L, rest, now, now + LEASE));
+                }
+            }
+            assertEquals(0, store.size());
+        });
+    }
+
+    @Test
+    void testConcurrentReserveOnlyOneWins() throws Exception {
+        OffHeapIdempotencyStore store = new OffHeapIdempotencyStore(1024, 16);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger winners = new AtomicInteger();
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (store.tryReserve(0L, 99L, System.currentTimeMillis(), Long.MAX_VALUE) == ReserveResult.RESERVED) {
+                        winners.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, winners.get());
+    }
+
+    @Test
+    void testMappedFileStoreSharesStateAcrossInstances(@TempDir Path dir) {
+        Path file = dir.resolve("idempotent.store");
+        long now = System.currentTimeMillis();
+
+        try (MappedFileIdempotencyStore first = MappedFileIdempotencyStore.open(file, 64, 4);
+             MappedFileIdempotencyStore second = MappedFileIdempotencyStore.open(file, 64, 4)) {
+            assertEquals(ReserveResult.RESERVED, first.tryReserve(0L, 5L, now, now + LEASE));
+            // 另一个实例看到同一份状态
+            assertEquals(ReserveResult.DUPLICATE, second.tryReserve(0L, 5L, now, now + LEASE));
+
+            second.finish(0L, 5L, IdempotentState.COMPLETED, now + 1000);
+            assertEquals(ReserveResult.DUPLICATE, first.tryReserve(0L, 5L, now + 999, now + 999 + LEASE));
+            assertEquals(1, first.size());
+        }
+
+        // 实例崩溃前留下的执行中 key：重新打开后在租期内仍是重复请求，租约到期后可被接管
+        try (MappedFileIdempotencyStore crashed = MappedFileIdempotencyStore.open(file, 64, 4)) {
+            assertEquals(ReserveResult.RESERVED, crashed.tryReserve(0L, 6L, now, now + 1000));
+        }
+        try (MappedFileIdempotencyStore restarted = MappedFileIdempotencyStore.open(file, 64, 4)) {
+            assertEquals(ReserveResult.DUPLICATE, restarted.tryReserve(0L, 6L, now + 999, now + 999 + LEASE));
+            assertEquals(ReserveResult.RESERVED, restarted.tryReserve(0L, 6L, now + 1000, now + 1000 + LEASE));
+        }
+
+        // 配置不一致时拒绝打开
+        assertThrows(IllegalStateException.class, () -> MappedFileIdempotencyStore.open(file, 128, 4));
+    }
+}
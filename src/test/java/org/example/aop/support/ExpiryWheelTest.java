@@ -0,0 +1,106 @@
+package org.example.aop.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExpiryWheel 单元测试
+ */
+class ExpiryWheelTest {
+
+    private final ConcurrentHashMap<String, Long> cache = new ConcurrentHashMap<>();
+
+    private final ExpiryWheel<String> wheel = new ExpiryWheel<>(100, 8,
+            (key, now) -> cache.computeIfPresent(key, (k, expireTime) -> now >= expireTime ? null : expireTime) == null);
+
+    @Test
+    void testExpiredKeyIsEvicted() {
+        long now = System.currentTimeMillis();
+        cache.put("a", now + 200);
+        wheel.schedule("a", now + 200);
+
+        // 未到期不淘汰
+        wheel.advance(now + 100);
+        assertTrue(cache.containsKey("a"));
+
+        // 到期后淘汰
+        wheel.advance(now + 400);
+        assertFalse(cache.containsKey("a"));
+        assertEquals(1, wheel.evictedCount());
+    }
+
+    @Test
+    void testKeyBeyondOneRoundSurvivesUntilDeadline() {
+        long now = System.currentTimeMillis();
+        // 一圈 800ms，过期时间超过一圈
+        cache.put("b", now + 2000);
+        wheel.schedule("b", now + 2000);
+
+        for (long t = now; t < now + 1900; t += 100) {
+            wheel.advance(t);
+            assertTrue(cache.containsKey("b"));
+        }
+
+        wheel.advance(now + 2200);
+        assertFalse(cache.containsKey("b"));
+    }
+
+    @Test
+    void testRenewedKeyIsNotEvictedByStaleNode() {
+        long now = System.currentTimeMillis();
+        cache.put("c", now + 100);
+        wheel.schedule("c", now + 100);
+
+        // 续期：旧节点到期时不应移除
+        cache.put("c", now + 1000);
+        wheel.schedule("c", now + 1000);
+
+        wheel.advance(now + 300);
+        assertTrue(cache.containsKey("c"));
+        assertEquals(0, wheel.evictedCount());
+
+        wheel.advance(now + 1200);
+        assertFalse(cache.containsKey("c"));
+        assertEquals(1, wheel.evictedCount());
+    }
+
+    @Test
+    void testDeadlineInMiddleOfTickIsEvictedWhenTickEnds() {
+        // 对齐到 tick 起点，过期时间落在下一个 tick 的中间
+        long base = (System.currentTimeMillis() / 100 + 1) * 100;
+        cache.put("d", base + 150);
+        wheel.schedule("d", base + 150);
+
+        // tick 进行中且未到期
+        wheel.advance(base + 120);
+        assertTrue(cache.containsKey("d"));
+
+        // 该 tick 结束后的第一次推进即淘汰，不用等一整圈
+        wheel.advance(base + 200);
+        assertFalse(cache.containsKey("d"));
+        assertEquals(1, wheel.evictedCount());
+    }
+
+    @Test
+    void testCatchUpAfterLongPause() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++) {
+            cache.put("k" + i, now + i * 10L);
+            wheel.schedule("k" + i, now + i * 10L);
+        }
+
+        // 落后多圈后一次推进即可全部淘汰
+        wheel.advance(now + 10_000);
+        assertTrue(cache.isEmpty());
+        assertEquals(100, wheel.evictedCount());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpiryWheel<String>(0, 8, (k, n) -> true));
+        assertThrows(IllegalArgumentException.class, () -> new ExpiryWheel<String>(100, 0, (k, n) -> true));
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.aop.support;
+
+import org.aspectj.lang.reflect.MethodSignature;
+import org.example.aop.annotation.Idempotent;
+import org.example.aop.support.IdempotentKeyGenerator.KeyMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * IdempotentKeyGenerator 单元测试
+ */
+class IdempotentKeyGeneratorTest {
+
+    private final IdempotentKeyGenerator generator = new IdempotentKeyGenerator();
+
+    @Test
+    void testSameArgumentsProduceSameKey() throws NoSuchMethodException {
+        KeyMetadata metadata = metadata("allArgs", new String[]{"userId", "order"}, Long.class, Order.class);
+
+        IdempotentKey first = key(metadata, 1L, new Order("A001", 3, List.of("x", "y")));
+        IdempotentKey second = key(metadata, 1L, new Order("A001", 3, List.of("x", "y")));
+        assertEquals(first, second);
+
+        assertNotEquals(first, key(metadata, 2L, new Order("A001", 3, List.of("x", "y"))));
+        assertNotEquals(first, key(metadata, 1L, new Order("A001", 4, List.of("x", "y"))));
+        assertNotEquals(first, key(metadata, 1L, new Order("A001", 3, List.of("xy"))));
+    }
+
+    @Test
+    void testNamedParameterIgnoresOtherArguments() throws NoSuchMethodException {
+        KeyMetadata metadata = metadata("byUser", new String[]{"userId", "order"}, Long.class, Order.class);
+
+        IdempotentKey first = key(metadata, 1L, new Order("A001", 1, List.of()));
+        IdempotentKey second = key(metadata, 1L, new Order("B002", 2, List.of()));
+        assertEquals(first, second);
+        assertNotEquals(first, key(metadata, 2L, new Order("A001", 1, List.of())));
+    }
+
+    @Test
+    void testMethodNameIsPartOfKey() throws NoSuchMethodException {
+        KeyMetadata allArgs = metadata("allArgs", new String[]{"userId", "order"}, Long.class, Order.class);
+        KeyMetadata byUser = metadata("byUser", new String[]{"userId", "order"}, Long.class, Order.class);
+        assertEquals("Service.allArgs", allArgs.name());
+        assertNotEquals(key(allArgs, 1L, null), key(byUser, 1L, null));
+    }
+
+    @Test
+    void testValueTypesAreDistinguished() throws NoSuchMethodException {
+        KeyMetadata metadata = metadata("single", new String[]{"value"}, Object.class);
+        assertNotEquals(key(metadata, 1L), key(metadata, "1"));
+        assertNotEquals(key(metadata, 1L), key(metadata, 1.0d));
+        assertNotEquals(key(metadata, "ab"), key(metadata, (Object) new String[]{"a", "b"}));
+        assertEquals(key(metadata, 1L), key(metadata, 1));
+    }
+
+    @Test
+    void testMetadataIsResolvedOnce() throws NoSuchMethodException {
+        Method method = Service.class.getMethod("allArgs", Long.class, Order.class);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        when(signature.getParameterNames()).thenReturn(new String[]{"userId", "order"});
+        Idempotent idempotent = method.getAnnotation(Idempotent.class);
+
+        assertSame(generator.metadata(signature, idempotent), generator.metadata(signature, idempotent));
+        verify(signature, times(1)).getParameterNames();
+    }
+
+    @Test
+    void testKeyExpressionReadsNestedProperty() throws NoSuchMethodException {
+        KeyMetadata metadata = metadata("byOrderNo", new String[]{"userId", "order"}, Long.class, Order.class);
+
+        IdempotentKey first = key(metadata, 1L, new Order("A001", 1, List.of()));
+        assertEquals(first, key(metadata, 2L, new Order("A001", 9, List.of("x"))));
+        assertNotEquals(first, key(metadata, 1L, new Order("B002", 1, List.of())));
+        // 中间值为 null 不抛异常
+        assertEquals(key(metadata, 1L, null), key(metadata, 2L, null));
+    }
+
+    @Test
+    void testKeyExpressionFallsBackToSpel() throws NoSuchMethodException {
+        KeyMetadata metadata = metadata("bySpel", new String[]{"userId", "order"}, Long.class, Order.class);
+
+        IdempotentKey first = key(metadata, 1L, new Order("A001", 1, List.of()));
+        assertEquals(first, key(metadata, 1L, new Order("A001", 2, List.of())));
+        assertNotEquals(first, key(metadata, 2L, new Order("A001", 1, List.of())));
+    }
+
+    @Test
+    void testKeyExpressionWithUnknownParameterFailsFast() {
+        assertThrows(IllegalStateException.class,
+                () -> metadata("unknownParam", new String[]{"userId"}, Long.class));
+    }
+
+    @Test
+    void testWindowIsConvertedToMillis() throws NoSuchMethodException {
+        assertEquals(5000, metadata("allArgs", new String[]{"userId", "order"}, Long.class, Order.class).windowMillis());
+        assertEquals(120_000, metadata("byOrderNo", new String[]{"userId", "order"}, Long.class, Order.class).windowMillis());
+    }
+
+    private KeyMetadata metadata(String name, String[] paramNames, Class<?>... types) throws NoSuchMethodException {
+        Method method = Service.class.getMethod(name, types);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        when(signature.getParameterNames()).thenReturn(paramNames);
+        return generator.metadata(signature, method.getAnnotation(Idempotent.class));
+    }
+
+    private IdempotentKey key(KeyMetadata metadata, Object... args) {
+        KeyHasher hasher = generator.hash(metadata, args);
+        return new IdempotentKey(hasher.hi(), hasher.lo());
+    }
+
+    record Order(String orderNo, int amount, List<String> items) {
+    }
+
+    static class Service {
+        @Idempotent
+        public void allArgs(Long userId, Order order) {
+        }
+
+        @Idempotent("userId")
+        public void byUser(Long userId, Order order) {
+        }
+
+        @Idempotent("value")
+        public void single(Object value) {
+        }
+
+        @Idempotent(key = "#order.orderNo", window = 2, timeUnit = TimeUnit.MINUTES)
+        public void byOrderNo(Long userId, Order order) {
+        }
+
+        @Idempotent(key = "#userId + ':' + #order.orderNo")
+        public void bySpel(Long userId, Order order) {
+        }
+
+        @Idempotent(key = "#missing.orderNo")
+        public void unknownParam(Long userId) {
+        }
+    }
+}
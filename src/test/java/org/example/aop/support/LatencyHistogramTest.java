@@ -0,0 +1,68 @@
+package org.example.aop.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LatencyHistogram 单元测试
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketBoundsCoverValue() {
+        long[] values = {0, 1, 31, 32, 33, 63, 64, 1000, 123_456, 999_999_999L, 1L << 39};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index < LatencyHistogram.BUCKET_COUNT);
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            assertTrue(upper >= value, "upper bound of " + value);
+            // 相对误差不超过 1/32
+            assertTrue(upper - value <= Math.max(1, value / 32), "precision of " + value);
+        }
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.99));
+
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        assertEquals(1000, histogram.count());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), histogram.maxNanos());
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(500), histogram.percentile(0.5));
+        assertWithin(TimeUnit.MICROSECONDS.toNanos(990), histogram.percentile(0.99));
+        assertEquals(histogram.maxNanos(), histogram.percentile(1.0));
+    }
+
+    @Test
+    void testConcurrentRecordIsNotLost() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int t = 0; t < 4; t++) {
+                executor.execute(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        histogram.record(i);
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(40_000, histogram.count());
+        assertEquals(9_999, histogram.maxNanos());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 32, "expected ~" + expected + " but was " + actual);
+    }
+}
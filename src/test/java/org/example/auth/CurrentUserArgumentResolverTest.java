@@ -0,0 +1,67 @@
+package org.example.auth;
+
+import org.example.exception.UnauthorizedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CurrentUserArgumentResolver 单元测试
+ */
+class CurrentUserArgumentResolverTest {
+
+    private final CurrentUserArgumentResolver resolver = new CurrentUserArgumentResolver();
+
+    @Test
+    void testSupportsAnnotatedPrincipalAndUserId() throws NoSuchMethodException {
+        assertTrue(resolver.supportsParameter(parameter(0)));
+        assertTrue(resolver.supportsParameter(parameter(1)));
+        assertTrue(resolver.supportsParameter(parameter(2)));
+        assertTrue(resolver.supportsParameter(parameter(3)));
+        // 未标注或类型不支持
+        assertFalse(resolver.supportsParameter(parameter(4)));
+        assertFalse(resolver.supportsParameter(parameter(5)));
+    }
+
+    @Test
+    void testResolvesFromRequestAttribute() throws NoSuchMethodException {
+        AuthPrincipal principal = new AuthPrincipal(7L, 100L);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(AuthPrincipal.REQUEST_ATTRIBUTE, principal);
+        ServletWebRequest webRequest = new ServletWebRequest(request);
+
+        assertSame(principal, resolver.resolveArgument(parameter(0), null, webRequest, null));
+        assertEquals(7L, resolver.resolveArgument(parameter(1), null, webRequest, null));
+        assertEquals(7L, resolver.resolveArgument(parameter(2), null, webRequest, null));
+    }
+
+    @Test
+    void testMissingPrincipal() throws NoSuchMethodException {
+        ServletWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest());
+
+        assertThrows(UnauthorizedException.class, () -> resolver.resolveArgument(parameter(0), null, webRequest, null));
+        assertThrows(UnauthorizedException.class, () -> resolver.resolveArgument(parameter(2), null, webRequest, null));
+        assertNull(resolver.resolveArgument(parameter(3), null, webRequest, null));
+    }
+
+    private static MethodParameter parameter(int index) throws NoSuchMethodException {
+        Method method = Handler.class.getMethod("handle",
+                AuthPrincipal.class, Long.class, long.class, Long.class, Long.class, String.class);
+        return new MethodParameter(method, index);
+    }
+
+    static class Handler {
+        public void handle(@CurrentUser AuthPrincipal principal,
+                           @CurrentUser Long userId,
+                           @CurrentUser long primitiveUserId,
+                           @CurrentUser(required = false) Long optionalUserId,
+                           Long plain,
+                           @CurrentUser String unsupported) {
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.executor.MonitoredThreadPoolTaskExecutor;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * AsyncGlobalConfig 单元测试
+ */
+class AsyncGlobalConfigTest {
+
+    @Test
+    void testPlatformThreadPoolByDefault() throws Exception {
+        Executor executor = new AsyncGlobalConfig(new MockEnvironment(), new AsyncProperties()).getAsyncExecutor();
+        assertInstanceOf(ThreadPoolTaskExecutor.class, executor);
+        try {
+            assertEquals("trace-1", traceIdSeenBy(executor));
+        } finally {
+            ((ThreadPoolTaskExecutor) executor).shutdown();
+        }
+    }
+
+    @Test
+    void testPropertiesAndMetrics() throws Exception {
+        AsyncProperties properties = new AsyncProperties();
+        properties.setCorePoolSize(2);
+        properties.setMaxPoolSize(8);
+        AsyncGlobalConfig config = new AsyncGlobalConfig(new MockEnvironment(), properties);
+        MonitoredThreadPoolTaskExecutor executor = (MonitoredThreadPoolTaskExecutor) config.getAsyncExecutor();
+        assertSame(executor, config.getAsyncExecutor());
+        try {
+            assertEquals(2, executor.getCorePoolSize());
+            assertEquals(8, executor.getMaxPoolSize());
+
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            config.bindTo(registry);
+            traceIdSeenBy(executor);
+            assertEquals(1, registry.get("executor.queue.wait").tag("name", "async").functionTimer().count());
+            assertNotNull(registry.get("executor.queued").tag("name", "async").gauge());
+            assertEquals(0, registry.get("executor.caller.runs").functionCounter().count());
+        } finally {
+            config.shutdown();
+        }
+    }
+
+    @Test
+    void testVirtualThreadsFallBackBeforeJava21() {
+        assumeTrue(JavaVersion.getJavaVersion().isOlderThan(JavaVersion.TWENTY_ONE));
+        Executor executor = new AsyncGlobalConfig(virtualEnabled(), new AsyncProperties()).getAsyncExecutor();
+        assertInstanceOf(ThreadPoolTaskExecutor.class, executor);
+        ((ThreadPoolTaskExecutor) executor).shutdown();
+    }
+
+    @Test
+    void testVirtualThreadsOnJava21() throws Exception {
+        assumeTrue(JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE));
+        Executor executor = new AsyncGlobalConfig(virtualEnabled(), new AsyncProperties()).getAsyncExecutor();
+        assertInstanceOf(SimpleAsyncTaskExecutor.class, executor);
+        assertEquals("trace-1", traceIdSeenBy(executor));
+    }
+
+    private static MockEnvironment virtualEnabled() {
+        return new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+    }
+
+    /**
+     * 在请求线程设置 traceId 后提交任务，返回任务中看到的 traceId
+     */
+    private static String traceIdSeenBy(Executor executor) throws Exception {
+        MDC.put("traceId", "trace-1");
+        try {
+            CompletableFuture<String> seen = new CompletableFuture<>();
+            executor.execute(() -> seen.complete(MDC.get("traceId")));
+            return seen.get(5, TimeUnit.SECONDS);
+        } finally {
+            MDC.clear();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.executor.MonitoredThreadPoolTaskExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.task.TaskExecutorMetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BulkheadExecutorRegistrar 单元测试
+ */
+class BulkheadExecutorRegistrarTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(TestConfig.class)
+            .withPropertyValues(
+                    "async.core-pool-size=1",
+                    "async.executors.io.core-pool-size=2",
+                    "async.executors.io.max-pool-size=4",
+                    "async.executors.io.queue-capacity=1",
+                    "async.executors.io.rejection-policy=abort",
+                    "async.executors.cpu.core-pool-size=3",
+                    "async.executors.cpu.max-pool-size=3",
+                    "async.executors.cpu.queue-type=array",
+                    "async.executors.cpu.queue-capacity=10",
+                    "async.executors.cpu.thread-name-prefix=compute-");
+
+    @Test
+    void testNamedExecutorsAreRegisteredWithOwnSettings() {
+        runner.run(context -> {
+            MonitoredThreadPoolTaskExecutor io = context.getBean("io", MonitoredThreadPoolTaskExecutor.class);
+            assertEquals(2, io.getCorePoolSize());
+            assertEquals(4, io.getMaxPoolSize());
+            assertInstanceOf(LinkedBlockingQueue.class, io.getThreadPoolExecutor().getQueue());
+            // 4 个线程 + 1 个队列位置占满后拒绝
+            CompletableFuture<Void> release = new CompletableFuture<>();
+            try {
+                for (int i = 0; i < 5; i++) {
+                    io.execute(release::join);
+                }
+                assertThrows(TaskRejectedException.class, () -> io.execute(release::join));
+                assertEquals(1, io.getRejections());
+            } finally {
+                release.complete(null);
+            }
+
+            MonitoredThreadPoolTaskExecutor cpu = context.getBean("cpu", MonitoredThreadPoolTaskExecutor.class);
+            assertEquals(3, cpu.getCorePoolSize());
+            assertInstanceOf(ArrayBlockingQueue.class, cpu.getThreadPoolExecutor().getQueue());
+            assertEquals(10, cpu.getThreadPoolExecutor().getQueue().remainingCapacity());
+        });
+    }
+
+    @Test
+    void testAsyncQualifierSelectsExecutor() {
+        runner.run(context -> {
+            Worker worker = context.getBean(Worker.class);
+            assertTrue(worker.io().get(5, TimeUnit.SECONDS).startsWith("io-"));
+            assertTrue(worker.cpu().get(5, TimeUnit.SECONDS).startsWith("compute-"));
+            assertTrue(worker.shared().get(5, TimeUnit.SECONDS).startsWith("Async-Thread-"));
+        });
+    }
+
+    @Test
+    void testExecutorMetricsAreRegisteredOnce() {
+        runner.withConfiguration(AutoConfigurations.of(MetricsAutoConfiguration.class,
+                        SimpleMetricsExportAutoConfiguration.class, TaskExecutionAutoConfiguration.class,
+                        TaskExecutorMetricsAutoConfiguration.class))
+                .run(context -> {
+                    // 命名执行器在自动配置条件判断之后注册，Spring Boot 仍创建默认执行器并为全部 Executor Bean 注册线程池状态指标
+                    assertTrue(context.containsBean("applicationTaskExecutor"));
+                    MeterRegistry registry = context.getBean(MeterRegistry.class);
+                    // 自身只注册排队/执行时间等指标，线程池状态只有 Spring Boot 注册的一份
+                    assertEquals(1, registry.find("executor.completed").tag("name", "io").meters().size());
+                    assertNotNull(registry.find("executor.queue.wait").tag("name", "io").functionTimer());
+                    // 默认线程池不是 Bean，由 AsyncGlobalConfig 注册
+                    assertNotNull(registry.find("executor.completed").tag("name", "async").functionCounter());
+                    assertNotNull(registry.find("executor.queue.wait").tag("name", "async").functionTimer());
+                });
+    }
+
+    @Test
+    void testNoExecutorsConfigured() {
+        new ApplicationContextRunner().withUserConfiguration(TestConfig.class)
+                .run(context -> assertEquals(0, context.getBeansOfType(MonitoredThreadPoolTaskExecutor.class).size()));
+    }
+
+    @Configuration
+    @Import({AsyncGlobalConfig.class, Worker.class})
+    static class TestConfig {
+    }
+
+    @Component
+    static class Worker {
+        @Async("io")
+        public CompletableFuture<String> io() {
+            return CompletableFuture.completedFuture(Thread.currentThread().getName());
+        }
+
+        @Async("cpu")
+        public CompletableFuture<String> cpu() {
+            return CompletableFuture.completedFuture(Thread.currentThread().getName());
+        }
+
+        @Async
+        public CompletableFuture<String> shared() {
+            return CompletableFuture.completedFuture(Thread.currentThread().getName());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.controller;
+
+import org.example.utils.ToolKit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * UserController 单元测试（认证拦截器 + @CurrentUser 注入）
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testMeWithValidToken() throws Exception {
+        String token = ToolKit.JWT.generateAccessToken(10086L);
+        mockMvc.perform(get("/api/user/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(0))
+                .andExpect(jsonPath("$.data.userId").value(10086))
+                .andExpect(header().exists("traceId"));
+    }
+
+    @Test
+    void testMeWithoutToken() throws Exception {
+        mockMvc.perform(get("/api/user/me"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(40100))
+                .andExpect(jsonPath("$.message").value("missing token"));
+    }
+
+    @Test
+    void testMeWithInvalidToken() throws Exception {
+        mockMvc.perform(get("/api/user/me").header("Authorization", "Bearer not.a.token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(40100))
+                .andExpect(jsonPath("$.message").value("invalid token"));
+    }
+
+    @Test
+    void testExcludedPathNeedsNoToken() throws Exception {
+        mockMvc.perform(get("/api/hello"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(0));
+    }
+}
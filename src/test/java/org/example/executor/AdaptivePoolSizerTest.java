@@ -0,0 +1,63 @@
+package org.example.executor;
+
+import org.example.executor.AdaptivePoolSizer.Sample;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdaptivePoolSizer 单元测试
+ */
+class AdaptivePoolSizerTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testGrowsWhenQueueWaitExceedsTarget() {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(4, 20, TARGET, 2.0);
+        // 平均等待 100ms
+        assertEquals(5, sizer.next(new Sample(4, 4, 50, 10, 1000 * MS, 10, 100 * MS, 0)));
+        assertEquals(10, sizer.next(new Sample(8, 8, 50, 10, 1000 * MS, 10, 100 * MS, 0)));
+        // 不超过上限
+        assertEquals(20, sizer.next(new Sample(19, 19, 50, 10, 1000 * MS, 10, 100 * MS, 0)));
+    }
+
+    @Test
+    void testGrowsOnCallerRuns() {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(4, 20, TARGET, 2.0);
+        assertEquals(5, sizer.next(new Sample(4, 4, 0, 10, 0, 10, 10 * MS, 3)));
+    }
+
+    @Test
+    void testHoldsWhenTaskLatencyInflates() {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(4, 20, TARGET, 2.0);
+        // 建立执行时间基线 10ms
+        assertEquals(4, sizer.next(new Sample(4, 1, 0, 10, 0, 10, 100 * MS, 0)));
+        // 排队变长但执行时间涨到 5 倍：下游饱和，不扩容
+        assertEquals(4, sizer.next(new Sample(4, 4, 50, 10, 1000 * MS, 10, 500 * MS, 0)));
+    }
+
+    @Test
+    void testShrinksAfterSustainedIdle() {
+        AdaptivePoolSizer sizer = new AdaptivePoolSizer(4, 20, TARGET, 2.0);
+        Sample idle = new Sample(10, 1, 0, 10, 10 * MS, 10, 10 * MS, 0);
+        for (int i = 1; i < AdaptivePoolSizer.SHRINK_AFTER_IDLE_TICKS; i++) {
+            assertEquals(10, sizer.next(idle));
+        }
+        assertEquals(9, sizer.next(idle));
+        // 不低于下限
+        Sample atMin = new Sample(4, 0, 0, 0, 0, 0, 0, 0);
+        for (int i = 0; i < AdaptivePoolSizer.SHRINK_AFTER_IDLE_TICKS; i++) {
+            assertEquals(4, sizer.next(atMin));
+        }
+    }
+
+    @Test
+    void testInvalidRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePoolSizer(0, 4, TARGET, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePoolSizer(8, 4, TARGET, 2.0));
+    }
+}
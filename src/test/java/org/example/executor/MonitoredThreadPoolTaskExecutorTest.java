@@ -0,0 +1,158 @@
+package org.example.executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MonitoredThreadPoolTaskExecutor 单元测试
+ */
+class MonitoredThreadPoolTaskExecutorTest {
+
+    private MonitoredThreadPoolTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testRecordsWaitAndRunTimeThroughDecorator() throws InterruptedException {
+        executor = create(1, 1, 10);
+        CountDownLatch decorated = new CountDownLatch(3);
+        executor.setTaskDecorator(runnable -> () -> {
+            decorated.countDown();
+            runnable.run();
+        });
+        executor.initialize();
+
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> {
+                sleep(20);
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(decorated.await(1, TimeUnit.SECONDS));
+        // 等待最后一个任务记录执行时间
+        for (int i = 0; i < 100 && executor.getRunHistogram().count() < 3; i++) {
+            sleep(10);
+        }
+        assertEquals(3, executor.getWaitHistogram().count());
+        assertEquals(3, executor.getRunHistogram().count());
+        // 单线程串行执行，第三个任务至少排队 40ms
+        assertTrue(executor.getWaitHistogram().maxNanos() >= TimeUnit.MILLISECONDS.toNanos(35));
+        assertTrue(executor.getRunHistogram().maxNanos() >= TimeUnit.MILLISECONDS.toNanos(15));
+    }
+
+    @Test
+    void testCountsCallerRuns() throws InterruptedException {
+        executor = create(1, 1, 1);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        executor.execute(() -> await(release));
+        // 线程与队列都已占满，第三个任务在当前线程执行
+        Thread caller = Thread.currentThread();
+        Thread[] ranOn = new Thread[1];
+        executor.execute(() -> ranOn[0] = Thread.currentThread());
+        release.countDown();
+
+        assertSame(caller, ranOn[0]);
+        assertEquals(1, executor.getCallerRuns());
+        assertEquals(0, executor.getRejections());
+    }
+
+    @Test
+    void testTickGrowsCorePoolSizeWhenTasksQueue() throws InterruptedException {
+        executor = create(1, 4, 100);
+        executor.setAdaptivePoolSizer(new AdaptivePoolSizer(1, 4, TimeUnit.MILLISECONDS.toNanos(5), 2.0),
+                Duration.ofHours(1));
+        executor.initialize();
+
+        CountDownLatch done = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> {
+                sleep(30);
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.tick();
+        assertEquals(2, executor.getCorePoolSize());
+    }
+
+    @Test
+    void testPriorityQueueRunsHigherPriorityFirst() throws InterruptedException {
+        executor = create(1, 1, 10);
+        executor.setQueueType(QueueType.PRIORITY);
+        executor.initialize();
+
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(4);
+        for (int priority : new int[]{1, 5, 0, 5}) {
+            executor.execute(PrioritizedTask.of(priority, () -> {
+                order.add(priority);
+                done.countDown();
+            }));
+        }
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(5, 5, 1, 0), order);
+    }
+
+    @Test
+    void testBoundedPriorityQueueRejectsWhenFull() {
+        executor = create(1, 1, 2);
+        executor.setQueueType(QueueType.PRIORITY);
+        executor.setRejectedExecutionHandler(RejectionPolicy.DISCARD.handler());
+        executor.initialize();
+
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 5; i++) {
+            executor.execute(() -> await(release));
+        }
+        assertEquals(2, executor.getQueueSize());
+        assertEquals(2, executor.getRejections());
+        release.countDown();
+    }
+
+    private static MonitoredThreadPoolTaskExecutor create(int core, int max, int queue) {
+        MonitoredThreadPoolTaskExecutor executor = new MonitoredThreadPoolTaskExecutor("test");
+        executor.setCorePoolSize(core);
+        executor.setMaxPoolSize(max);
+        executor.setQueueCapacity(queue);
+        return executor;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.interceptor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.auth.AuthPrincipal;
+import org.example.config.AuthProperties;
+import org.example.exception.UnauthorizedException;
+import org.example.utils.JwtUtil;
+import org.example.utils.ToolKit;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AuthInterceptor 单元测试
+ */
+class AuthInterceptorTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void testValidTokenStoresPrincipal() throws Exception {
+        AuthInterceptor interceptor = new AuthInterceptor();
+        MockHttpServletRequest request = request("Bearer " + ToolKit.JWT.generateAccessToken(10086L));
+
+        assertTrue(interceptor.preHandle(request, response, handler()));
+        AuthPrincipal principal = (AuthPrincipal) request.getAttribute(AuthPrincipal.REQUEST_ATTRIBUTE);
+        assertNotNull(principal);
+        assertEquals(10086L, principal.userId());
+        assertTrue(principal.expire() > System.currentTimeMillis());
+    }
+
+    @Test
+    void testBearerPrefixIsCaseInsensitive() throws Exception {
+        AuthInterceptor interceptor = new AuthInterceptor();
+        MockHttpServletRequest request = request("bearer  " + ToolKit.JWT.generateAccessToken(1L));
+        assertTrue(interceptor.preHandle(request, response, handler()));
+    }
+
+    @Test
+    void testMissingOrMalformedHeaderIsRejected() {
+        AuthInterceptor interceptor = new AuthInterceptor();
+        assertThrows(UnauthorizedException.class, () -> interceptor.preHandle(request(null), response, handler()));
+        assertThrows(UnauthorizedException.class, () -> interceptor.preHandle(request("Bearer "), response, handler()));
+        assertThrows(UnauthorizedException.class,
+                () -> interceptor.preHandle(request(ToolKit.JWT.generateAccessToken(1L)), response, handler()));
+        assertThrows(UnauthorizedException.class,
+                () -> interceptor.preHandle(request("Basic dXNlcjpwYXNz"), response, handler()));
+    }
+
+    @Test
+    void testRefreshTokenIsRejected() {
+        AuthInterceptor interceptor = new AuthInterceptor();
+        String refreshToken = ToolKit.JWT.generateRefreshToken(10086L);
+        assertTrue(ToolKit.JWT.validateToken(refreshToken));
+        MockHttpServletRequest request = request("Bearer " + refreshToken);
+        assertThrows(UnauthorizedException.class, () -> interceptor.preHandle(request, response, handler()));
+        assertNull(request.getAttribute(AuthPrincipal.REQUEST_ATTRIBUTE));
+    }
+
+    @Test
+    void testUntypedLegacyTokenIsAcceptedOnlyWhenLegacyTokensAreAccepted() throws Exception {
+        // 引入 typ 前签发的 token 不带 typ
+        String untyped = cn.hutool.jwt.JWT.create()
+                .setPayload("userId", 42L)
+                .setPayload("expire", System.currentTimeMillis() + 60_000)
+                .setKey("legacy-secret".getBytes(java.nio.charset.StandardCharsets.UTF_8))
+                .sign();
+        JwtUtil jwtUtil = new JwtUtil();
+        jwtUtil.configure("legacy-secret", java.time.Duration.ofDays(1), true);
+        MockHttpServletRequest request = request("Bearer " + untyped);
+        assertTrue(new AuthInterceptor(jwtUtil, new AuthProperties()).preHandle(request, response, handler()));
+        assertEquals(42L, ((AuthPrincipal) request.getAttribute(AuthPrincipal.REQUEST_ATTRIBUTE)).userId());
+
+        jwtUtil.configure("legacy-secret", java.time.Duration.ofDays(1), false);
+        AuthInterceptor strict = new AuthInterceptor(jwtUtil, new AuthProperties());
+        assertThrows(UnauthorizedException.class, () -> strict.preHandle(request("Bearer " + untyped), response, handler()));
+    }
+
+    @Test
+    void testInvalidTokenIsNegativelyCached() {
+        JwtUtil jwtUtil = spy(new JwtUtil());
+        AuthInterceptor interceptor = new AuthInterceptor(jwtUtil, new AuthProperties());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        interceptor.bindTo(registry);
+
+        String token = ToolKit.JWT.generateAccessToken(1L);
+        String forged = "Bearer " + token.substring(0, token.length() - 1) + (token.endsWith("A") ? "Q" : "A");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(UnauthorizedException.class, () -> interceptor.preHandle(request(forged), response, handler()));
+        }
+
+        verify(jwtUtil, times(1)).verify(anyString());
+        assertEquals(1, interceptor.negativeCacheSize());
+        assertEquals(1.0, registry.get("auth.rejections").tag("reason", "invalid").functionCounter().count());
+        assertEquals(4.0, registry.get("auth.rejections").tag("reason", "negative_cache").functionCounter().count());
+    }
+
+    @Test
+    void testOversizedTokenIsRejectedWithoutVerification() {
+        JwtUtil jwtUtil = spy(new JwtUtil());
+        AuthProperties properties = new AuthProperties();
+        properties.setMaxTokenLength(64);
+        AuthInterceptor interceptor = new AuthInterceptor(jwtUtil, properties);
+
+        assertThrows(UnauthorizedException.class,
+                () -> interceptor.preHandle(request("Bearer " + "a".repeat(65)), response, handler()));
+        verify(jwtUtil, never()).verify(anyString());
+        assertEquals(0, interceptor.negativeCacheSize());
+    }
+
+    @Test
+    void testNonControllerHandlerIsSkipped() throws Exception {
+        AuthInterceptor interceptor = new AuthInterceptor();
+        MockHttpServletRequest request = request(null);
+        assertTrue(interceptor.preHandle(request, response, new ResourceHttpRequestHandler()));
+        assertNull(request.getAttribute(AuthPrincipal.REQUEST_ATTRIBUTE));
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/me");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    private static HandlerMethod handler() throws NoSuchMethodException {
+        return new HandlerMethod(new Object(), Object.class.getMethod("toString"));
+    }
+}
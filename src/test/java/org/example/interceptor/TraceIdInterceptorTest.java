@@ -7,8 +7,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.example.trace.SpanRecorder;
+import org.example.trace.TraceContext;
 import org.slf4j.MDC;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -42,6 +46,11 @@ class TraceIdInterceptorTest {
     void tearDown() {
         // 确保每个测试结束后MDC是干净的
         MDC.clear();
+        // 只调用了 preHandle 的测试需要解除 span 记录器绑定
+        SpanRecorder recorder = SpanRecorder.current();
+        if (recorder != null) {
+            recorder.end();
+        }
     }
 
     @Test
@@ -265,4 +274,72 @@ class TraceIdInterceptorTest {
         // 清理第二个请求
         traceIdInterceptor.afterCompletion(request2, response2, handler, null);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTraceparentIsPreferredAndCreatesChildSpan() throws Exception {
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        when(request.getHeader(TraceIdInterceptor.TRACE_ID_KEY)).thenReturn("custom-trace-id");
+        when(request.getHeader(TraceIdInterceptor.TRACEPARENT_KEY)).thenReturn("00-" + traceId + "-00f067aa0ba902b7-00");
+        when(request.getHeader(TraceIdInterceptor.TRACESTATE_KEY)).thenReturn("congo=t61rcWkgMzE");
+
+        traceIdInterceptor.preHandle(request, response, handler);
+
+        assertEquals(traceId, MDC.get(TraceIdInterceptor.TRACE_ID_KEY));
+        TraceContext context = SpanRecorder.currentContext();
+        assertNotNull(context);
+        assertEquals("00f067aa0ba902b7", context.parentSpanId());
+        assertEquals(context.spanId(), MDC.get(SpanRecorder.SPAN_ID_KEY));
+        assertNotEquals("00f067aa0ba902b7", context.spanId());
+        // 沿用上游的 sampled 标志
+        assertFalse(context.sampled());
+        assertEquals("congo=t61rcWkgMzE", context.traceState());
+        // 响应头返回本服务 span 的 traceparent
+        verify(response).setHeader(TraceIdInterceptor.TRACEPARENT_KEY, "00-" + traceId + "-" + context.spanId() + "-00");
+
+        traceIdInterceptor.afterCompletion(request, response, handler, null);
+        assertNull(SpanRecorder.currentContext());
+        assertNull(MDC.get(SpanRecorder.SPAN_ID_KEY));
+    }
+
+    @Test
+    void testInvalidTraceparentFallsBackToTraceIdHeader() throws Exception {
+        when(request.getHeader(TraceIdInterceptor.TRACEPARENT_KEY)).thenReturn("00-invalid");
+        when(request.getHeader(TraceIdInterceptor.TRACE_ID_KEY)).thenReturn("custom-trace-id");
+
+        traceIdInterceptor.preHandle(request, response, handler);
+
+        assertEquals("custom-trace-id", MDC.get(TraceIdInterceptor.TRACE_ID_KEY));
+        assertNull(SpanRecorder.currentContext().parentSpanId());
+        // 自定义 traceId 不符合 W3C 格式，不返回 traceparent
+        verify(response, never()).setHeader(eq(TraceIdInterceptor.TRACEPARENT_KEY), anyString());
+        traceIdInterceptor.afterCompletion(request, response, handler, null);
+    }
+
+    @Test
+    void testGeneratedTraceIdReturnsTraceparent() throws Exception {
+        traceIdInterceptor.preHandle(request, response, handler);
+
+        TraceContext context = SpanRecorder.currentContext();
+        assertTrue(context.sampled());
+        verify(response).setHeader(TraceIdInterceptor.TRACEPARENT_KEY, context.traceparent());
+        assertEquals("00-" + context.traceId() + "-" + context.spanId() + "-01", context.traceparent());
+        traceIdInterceptor.afterCompletion(request, response, handler, null);
+    }
+
+    @Test
+    void testAfterCompletionRestoresMdcFromBeforeRequest() throws Exception {
+        MockHttpServletRequest mockRequest = new MockHttpServletRequest("GET", "/api/hello");
+        MockHttpServletResponse mockResponse = new MockHttpServletResponse();
+        MDC.put("tenant", "t1");
+
+        traceIdInterceptor.preHandle(mockRequest, mockResponse, handler);
+        MDC.put("userId", "42");
+        traceIdInterceptor.afterCompletion(mockRequest, mockResponse, handler, null);
+
+        // 请求前已有的保留，请求中新增的清除
+        assertEquals("t1", MDC.get("tenant"));
+        assertNull(MDC.get("userId"));
+        assertNull(MDC.get(TraceIdInterceptor.TRACE_ID_KEY));
+        assertNull(MDC.get(SpanRecorder.SPAN_ID_KEY));
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.sensitive.serializer;
+
+import com.alibaba.fastjson2.JSONObject;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.example.sensitive.annotation.Sensitive;
+import org.example.utils.SensitiveType;
+import org.example.utils.ToolKit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Sensitive 序列化（Jackson / FastJSON2）单元测试
+ */
+class SensitiveSerializationTest {
+
+    @Data
+    public static class UserView {
+        @Sensitive(type = SensitiveType.MOBILE_PHONE)
+        private String phone;
+        @Sensitive(type = SensitiveType.ID_CARD)
+        private String idCard;
+        @Sensitive(type = SensitiveType.CHINESE_NAME)
+        private String name;
+        @Sensitive(type = SensitiveType.DEFAULT)
+        private String remark;
+        @Sensitive(type = SensitiveType.USER_ID)
+        private Integer age;
+        private String nickname;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class AdminView extends UserView {
+        @Sensitive(type = SensitiveType.EMAIL)
+        private String email;
+    }
+
+    public static class PublicFieldView {
+        @Sensitive(type = SensitiveType.BANK_CARD)
+        public String bankCard;
+        public String plain;
+    }
+
+    private static UserView user() {
+        UserView user = new UserView();
+        user.setPhone("13812345678");
+        user.setIdCard(" 110101199003077777 ");
+        user.setName("张三");
+        user.setRemark(" ");
+        user.setAge(30);
+        user.setNickname("13812345678");
+        return user;
+    }
+
+    @Test
+    void testJackson() throws Exception {
+        JsonNode json = new ObjectMapper().valueToTree(user());
+        assertEquals("138****5678", json.get("phone").asText());
+        assertEquals("110101**********77", json.get("idCard").asText());
+        assertEquals("张*", json.get("name").asText());
+        // 空白串原样输出，非字符串字段不脱敏，未标注字段不脱敏
+        assertEquals(" ", json.get("remark").asText());
+        assertEquals(30, json.get("age").asInt());
+        assertEquals("13812345678", json.get("nickname").asText());
+
+        UserView empty = new UserView();
+        JsonNode nulls = new ObjectMapper().valueToTree(empty);
+        assertTrue(nulls.get("phone").isNull());
+    }
+
+    @Test
+    void testFastjson() {
+        JSONObject json = JSONObject.parseObject(ToolKit.JSON.toJsonString(user()));
+        assertEquals("138****5678", json.getString("phone"));
+        assertEquals("110101**********77", json.getString("idCard"));
+        assertEquals("张*", json.getString("name"));
+        assertEquals(" ", json.getString("remark"));
+        assertEquals(30, json.getIntValue("age"));
+        assertEquals("13812345678", json.getString("nickname"));
+
+        assertFalse(JSONObject.parseObject(ToolKit.JSON.toJsonString(new UserView())).containsKey("phone"));
+    }
+
+    @Test
+    void testInheritedAndPublicFields() throws Exception {
+        AdminView admin = new AdminView();
+        admin.setPhone("13812345678");
+        admin.setEmail("admin@example.com");
+        JSONObject fastjson = JSONObject.parseObject(ToolKit.JSON.toJsonString(admin));
+        JsonNode jackson = new ObjectMapper().valueToTree(admin);
+        assertEquals("138****5678", fastjson.getString("phone"));
+        assertEquals("a****@example.com", fastjson.getString("email"));
+        assertEquals("138****5678", jackson.get("phone").asText());
+        assertEquals("a****@example.com", jackson.get("email").asText());
+
+        PublicFieldView view = new PublicFieldView();
+        view.bankCard = "6222021234567890123";
+        view.plain = "6222021234567890123";
+        fastjson = JSONObject.parseObject(ToolKit.JSON.toJsonString(view));
+        jackson = new ObjectMapper().valueToTree(view);
+        assertEquals("6222 **** **** **** 123", fastjson.getString("bankCard"));
+        assertEquals("6222021234567890123", fastjson.getString("plain"));
+        assertEquals("6222 **** **** **** 123", jackson.get("bankCard").asText());
+    }
+
+    @Test
+    void testWriterOfCoversAllTypes() throws Exception {
+        for (SensitiveType type : SensitiveType.values()) {
+            SensitiveObjectWriter writer = SensitiveWriterModule.writerOf(type).getConstructor().newInstance();
+            assertEquals(type, writer.type());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.trace;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SpanRecorder 单元测试
+ */
+class SpanRecorderTest {
+
+    private static final TraceIdGenerator GENERATOR = new W3cTraceIdGenerator(1);
+
+    @AfterEach
+    void tearDown() {
+        SpanRecorder recorder = SpanRecorder.current();
+        if (recorder != null) {
+            recorder.end();
+        }
+        MDC.clear();
+    }
+
+    @Test
+    void testNestedSpansFormTree() {
+        SpanRecorder recorder = SpanRecorder.begin(context(true), "GET /orders", GENERATOR);
+        String outerId;
+        try (Span outer = SpanRecorder.startSpan("outer")) {
+            outerId = outer.spanId();
+            assertEquals(outerId, MDC.get(SpanRecorder.SPAN_ID_KEY));
+            try (Span inner = SpanRecorder.startSpan("inner")) {
+                assertSame(outer, inner.parent());
+                assertEquals(2, inner.depth());
+                assertEquals(inner.spanId(), MDC.get(SpanRecorder.SPAN_ID_KEY));
+            }
+            assertEquals(outerId, MDC.get(SpanRecorder.SPAN_ID_KEY));
+        }
+        Span root = recorder.end();
+
+        List<Span> spans = recorder.spans();
+        assertEquals(3, spans.size());
+        assertSame(root, spans.get(0));
+        assertEquals("0123456789abcdef", root.spanId());
+        assertTrue(spans.stream().allMatch(Span::finished));
+        assertNull(SpanRecorder.current());
+
+        String dump = recorder.dump();
+        assertTrue(dump.contains("GET /orders"));
+        assertTrue(dump.contains("\n\t    [+"), dump);
+        assertTrue(dump.contains("inner"));
+    }
+
+    @Test
+    void testUnsampledOrOutsideRequestIsNoop() {
+        assertSame(Span.NOOP, SpanRecorder.startSpan("outside"));
+        Span.NOOP.close();
+
+        SpanRecorder recorder = SpanRecorder.begin(context(false), "GET /orders", GENERATOR);
+        assertSame(Span.NOOP, SpanRecorder.startSpan("ignored"));
+        recorder.end();
+        assertEquals(1, recorder.spans().size());
+    }
+
+    @Test
+    void testSpanCountIsBounded() {
+        SpanRecorder recorder = SpanRecorder.begin(context(true), "GET /orders", GENERATOR);
+        for (int i = 0; i < SpanRecorder.MAX_SPANS + 10; i++) {
+            SpanRecorder.startSpan("loop").close();
+        }
+        recorder.end();
+        assertEquals(SpanRecorder.MAX_SPANS, recorder.spans().size());
+        assertEquals(11, recorder.dropped());
+        assertTrue(recorder.dump().contains("11 spans dropped"));
+    }
+
+    private static TraceContext context(boolean sampled) {
+        return new TraceContext(GENERATOR.nextTraceId(), "0123456789abcdef", null,
+                sampled ? TraceContext.FLAG_SAMPLED : 0, null);
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.trace;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TraceSnapshot / TraceTaskDecorator / TraceExecutors 单元测试
+ */
+class TraceSnapshotTest {
+
+    private static final ExecutorService POOL = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    @AfterEach
+    void tearDown() {
+        SpanRecorder recorder = SpanRecorder.current();
+        if (recorder != null) {
+            recorder.end();
+        }
+        MDC.clear();
+    }
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdownNow();
+    }
+
+    @Test
+    void testDecoratorPropagatesAndRestores() throws Exception {
+        TraceContext context = beginRequest();
+
+        CompletableFuture<String[]> seen = new CompletableFuture<>();
+        POOL.execute(new TraceTaskDecorator().decorate(() -> seen.complete(new String[]{
+                MDC.get("traceId"), SpanRecorder.currentContext() == null ? null : SpanRecorder.currentContext().traceId()})));
+        String[] values = seen.get(5, TimeUnit.SECONDS);
+        assertEquals(context.traceId(), values[0]);
+        assertEquals(context.traceId(), values[1]);
+
+        // 工作线程执行完后恢复为原状态
+        String[] after = CompletableFuture.supplyAsync(
+                () -> new String[]{MDC.get("traceId"), String.valueOf(SpanRecorder.currentContext())}, POOL)
+                .get(5, TimeUnit.SECONDS);
+        assertNull(after[0]);
+        assertEquals("null", after[1]);
+    }
+
+    @Test
+    void testCompletableFutureChainKeepsTraceId() throws Exception {
+        TraceContext context = beginRequest();
+
+        String result = CompletableFuture.supplyAsync(() -> MDC.get("traceId"), TraceExecutors.wrap(POOL))
+                .thenApplyAsync(first -> first + "," + MDC.get("traceId"), TraceExecutors.commonPool())
+                .thenApply(second -> second + "," + MDC.get("traceId"))
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(context.traceId() + "," + context.traceId() + "," + context.traceId(), result);
+    }
+
+    @Test
+    void testCaptureSharesMdcUntilModified() {
+        MDC.put("traceId", "t1");
+        TraceSnapshot first = TraceSnapshot.capture();
+        TraceSnapshot second = TraceSnapshot.capture();
+        assertSame(first.mdc(), second.mdc());
+        assertThrows(UnsupportedOperationException.class, () -> first.mdc().put("x", "y"));
+
+        MDC.put("userId", "42");
+        TraceSnapshot third = TraceSnapshot.capture();
+        assertNotSame(first.mdc(), third.mdc());
+        assertNull(first.mdc().get("userId"));
+    }
+
+    @Test
+    void testRestoreOnSameThreadIsReverted() {
+        MDC.put("traceId", "caller");
+        TraceSnapshot snapshot = TraceSnapshot.capture();
+        MDC.put("traceId", "other");
+        try (TraceSnapshot.Scope ignored = snapshot.restore()) {
+            assertEquals("caller", MDC.get("traceId"));
+        }
+        assertEquals("other", MDC.get("traceId"));
+    }
+
+    @Test
+    void testEmptySnapshotLeavesTaskUnwrapped() {
+        Runnable task = () -> {
+        };
+        assertSame(task, TraceSnapshot.capture().wrap(task));
+    }
+
+    private static TraceContext beginRequest() {
+        W3cTraceIdGenerator generator = new W3cTraceIdGenerator(1);
+        TraceContext context = new TraceContext(generator.nextTraceId(), generator.nextSpanId(), null,
+                TraceContext.FLAG_SAMPLED, null);
+        SpanRecorder.begin(context, "GET /orders", generator);
+        MDC.put("traceId", context.traceId());
+        return context;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.trace;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TraceparentParser 单元测试
+ */
+class TraceparentParserTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String SPAN_ID = "00f067aa0ba902b7";
+
+    @Test
+    void testParseValidTraceparent() {
+        TraceContext context = TraceparentParser.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-01", "congo=t61rcWkgMzE");
+        assertNotNull(context);
+        assertEquals(TRACE_ID, context.traceId());
+        assertEquals(SPAN_ID, context.spanId());
+        assertNull(context.parentSpanId());
+        assertTrue(context.sampled());
+        assertEquals("congo=t61rcWkgMzE", context.traceState());
+
+        TraceContext unsampled = TraceparentParser.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-00", null);
+        assertNotNull(unsampled);
+        assertFalse(unsampled.sampled());
+        assertNull(unsampled.traceState());
+    }
+
+    @Test
+    void testRejectsMalformedTraceparent() {
+        assertNull(TraceparentParser.parse(null, null));
+        assertNull(TraceparentParser.parse("", null));
+        // 大写、长度、分隔符
+        assertNull(TraceparentParser.parse("00-" + TRACE_ID.toUpperCase() + "-" + SPAN_ID + "-01", null));
+        assertNull(TraceparentParser.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-1", null));
+        assertNull(TraceparentParser.parse("00_" + TRACE_ID + "-" + SPAN_ID + "-01", null));
+        assertNull(TraceparentParser.parse("00-" + TRACE_ID + "_" + SPAN_ID + "-01", null));
+        assertNull(TraceparentParser.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-0g", null));
+        // 全 0 的 ID 与 ff 版本无效
+        assertNull(TraceparentParser.parse("00-00000000000000000000000000000000-" + SPAN_ID + "-01", null));
+        assertNull(TraceparentParser.parse("00-" + TRACE_ID + "-0000000000000000-01", null));
+        assertNull(TraceparentParser.parse("ff-" + TRACE_ID + "-" + SPAN_ID + "-01", null));
+        // version 00 不允许追加字段
+        assertNull(TraceparentParser.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-01-extra", null));
+    }
+
+    @Test
+    void testFutureVersionMayAppendFields() {
+        TraceContext context = TraceparentParser.parse("01-" + TRACE_ID + "-" + SPAN_ID + "-01-what-the-future", null);
+        assertNotNull(context);
+        assertEquals(TRACE_ID, context.traceId());
+        assertNull(TraceparentParser.parse("01-" + TRACE_ID + "-" + SPAN_ID + "-01x", null));
+    }
+
+    @Test
+    void testOversizedTracestateIsDropped() {
+        String tracestate = "a=" + "x".repeat(TraceparentParser.MAX_TRACESTATE_LENGTH);
+        TraceContext context = TraceparentParser.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-01", tracestate);
+        assertNotNull(context);
+        assertNull(context.traceState());
+    }
+
+    @Test
+    void testChildKeepsTraceAndFormatsTraceparent() {
+        TraceContext parent = TraceparentParser.parse("00-" + TRACE_ID + "-" + SPAN_ID + "-01", null);
+        TraceContext child = parent.child("b7ad6b7169203331");
+        assertEquals(TRACE_ID, child.traceId());
+        assertEquals(SPAN_ID, child.parentSpanId());
+        assertEquals("00-" + TRACE_ID + "-b7ad6b7169203331-01", child.traceparent());
+
+        // 自定义 traceId 无法组成 traceparent
+        assertNull(new TraceContext("custom-trace-id", "b7ad6b7169203331", null, 1, null).traceparent());
+    }
+}
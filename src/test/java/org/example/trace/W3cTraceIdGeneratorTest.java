@@ -0,0 +1,83 @@
+package org.example.trace;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * W3cTraceIdGenerator 单元测试
+ */
+class W3cTraceIdGeneratorTest {
+
+    @Test
+    void testFormatIsW3cTraceId() {
+        W3cTraceIdGenerator generator = new W3cTraceIdGenerator(1);
+        for (int i = 0; i < 1000; i++) {
+            String traceId = generator.nextTraceId();
+            assertTrue(traceId.matches("[a-f0-9]{32}"), traceId);
+            // W3C 规定全 0 的 trace-id 无效
+            assertNotEquals("00000000000000000000000000000000", traceId);
+        }
+    }
+
+    @Test
+    void testNodeIdAndTimestampAreEmbedded() {
+        long before = System.currentTimeMillis();
+        String traceId = new W3cTraceIdGenerator(0xABCD).nextTraceId();
+        long after = System.currentTimeMillis();
+
+        long hi = Long.parseUnsignedLong(traceId.substring(0, 16), 16);
+        assertEquals(0xABCD, hi & 0xFFFF);
+        long millis = hi >>> 16;
+        assertTrue(millis >= before && millis <= after);
+    }
+
+    @Test
+    void testUniqueAcrossThreads() throws InterruptedException {
+        W3cTraceIdGenerator generator = new W3cTraceIdGenerator(7);
+        int threads = 8;
+        int perThread = 20_000;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextTraceId());
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void testDifferentNodesNeverCollide() {
+        String a = new W3cTraceIdGenerator(1).nextTraceId();
+        String b = new W3cTraceIdGenerator(2).nextTraceId();
+        assertNotEquals(a.substring(12, 16), b.substring(12, 16));
+    }
+
+    @Test
+    void testNodeIdOutOfRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new W3cTraceIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new W3cTraceIdGenerator(0x10000));
+        int derived = W3cTraceIdGenerator.defaultNodeId();
+        assertTrue(derived >= 0 && derived <= 0xFFFF);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BloomFilter 单元测试
+ */
+class BloomFilterTest {
+
+    @Test
+    void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+        SplittableRandom random = new SplittableRandom(1);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong();
+            filter.put(values[i]);
+        }
+        for (long value : values) {
+            assertTrue(filter.mightContain(value));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateIsNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long i = 0; i < 10_000; i++) {
+            filter.put(i);
+        }
+        int falsePositives = 0;
+        for (long i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(i)) {
+                falsePositives++;
+            }
+        }
+        // 目标 1%，允许 2 倍余量
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testSizing() {
+        BloomFilter filter = new BloomFilter(1_000, 0.001);
+        // m ≈ 14.4 bits/元素，k ≈ 10
+        assertTrue(filter.bitCount() >= 14_378);
+        assertEquals(10, filter.hashCount());
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1.0));
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BulkDesensitizer 单元测试
+ */
+class BulkDesensitizerTest {
+
+    private static final String[] SAMPLES = {
+            null, "", "   ", "13812345678", " 13812345678\t", "110101199003077777", "11010119900307777X",
+            "user@example.com", "a@b.c", "ab@c", "010-12345678", "6222021234567890123", "6222 0212 3456 7890",
+            "京A12345", "京A1234学", "张三", "欧阳娜娜", "1234567", "123", "北京市朝阳区建国路88号", "hello", "x",
+            "\u3000", "\u3000abc\u3000", "𠀀张三𠀀", "北京市𠀀朝阳区建国路", "a b",
+    };
+
+    private static final String ALPHABET = "0123456789012345678901234567890123456789XxAZaz_-@..京挂学张三 \t\u3000#";
+
+    private static List<String> randomValues(Random random, int count) {
+        List<String> values = new ArrayList<>(Arrays.asList(SAMPLES));
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(24);
+            for (int j = 0; j < len; j++) {
+                sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            if (random.nextInt(50) == 0) {
+                sb.append("𠀀");
+            }
+            values.add(sb.toString());
+        }
+        return values;
+    }
+
+    @Test
+    void testPerValueMatchesSensitive() {
+        List<String> values = randomValues(new Random(1), 100_000);
+        MaskedColumn out = new MaskedColumn();
+        BulkDesensitizer.mask(values, null, out);
+        assertEquals(values.size(), out.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(StringUtil.sensitive(values.get(i)), out.get(i), "input: " + values.get(i));
+        }
+    }
+
+    @Test
+    void testColumnTypeMatchesSensitive() {
+        // 指定类型只省去识别：符合该类型的值按该类型脱敏，不符合的值逐值识别，结果都与 StringUtil.sensitive 相同
+        List<String> values = randomValues(new Random(2), 20_000);
+        MaskedColumn out = new MaskedColumn(4, 4);
+        for (SensitiveType type : SensitiveType.values()) {
+            out.clear();
+            BulkDesensitizer.mask(values, type, out);
+            for (int i = 0; i < values.size(); i++) {
+                String value = values.get(i);
+                String expected = StringUtil.sensitive(value);
+                assertEquals(expected, out.get(i), type + " input: " + value);
+                assertEquals(expected, StringUtil.sensitive(value, type), type + " input: " + value);
+            }
+        }
+    }
+
+    @Test
+    void testTypedMaskUsesTypeRules() {
+        // 银行卡号与 18 位数字身份证号重叠，符合身份证号格式时按身份证号脱敏
+        assertEquals("6222 **** **** **** 123", BulkDesensitizer.mask("6222021234567890123", SensitiveType.BANK_CARD));
+        assertEquals("110101**********77", BulkDesensitizer.mask("110101199003077777", SensitiveType.BANK_CARD));
+        assertEquals("a****@example.com", BulkDesensitizer.mask("alice@example.com", SensitiveType.EMAIL));
+        assertEquals("张*", BulkDesensitizer.mask("张三", SensitiveType.MOBILE_PHONE));
+    }
+
+    @Test
+    void testDetectType() {
+        assertEquals(SensitiveType.MOBILE_PHONE,
+                BulkDesensitizer.detectType(Arrays.asList(null, "13812345678", " ", "13987654321")));
+        assertNull(BulkDesensitizer.detectType(Arrays.asList("13812345678", "张三")));
+        assertNull(BulkDesensitizer.detectType(Arrays.asList(null, "", " ")));
+        assertNull(BulkDesensitizer.detectType(Collections.emptyList()));
+
+        // 只采样前 SAMPLE_SIZE 个非空值
+        List<String> column = new ArrayList<>(Collections.nCopies(BulkDesensitizer.SAMPLE_SIZE, "13812345678"));
+        column.add("张三");
+        assertEquals(SensitiveType.MOBILE_PHONE, BulkDesensitizer.detectType(column));
+    }
+
+    @Test
+    void testMaskColumnChecksEachValue() {
+        // 前 SAMPLE_SIZE 个值都是手机号，之后混入的其他数据仍按各自的类型脱敏，不会原样输出或按手机号规则泄露
+        List<String> column = new ArrayList<>(Collections.nCopies(BulkDesensitizer.SAMPLE_SIZE, "13812345678"));
+        column.addAll(List.of("张三", "ABCDE", "alice@example.com", "110101199003077777", "1234567", "13987654321"));
+        assertEquals(SensitiveType.MOBILE_PHONE, BulkDesensitizer.detectType(column));
+
+        MaskedColumn out = StringUtil.sensitive(column, new MaskedColumn());
+        int n = BulkDesensitizer.SAMPLE_SIZE;
+        assertEquals("138****5678", out.get(0));
+        assertEquals("张*", out.get(n));
+        assertEquals("A***E", out.get(n + 1));
+        assertEquals("a****@example.com", out.get(n + 2));
+        assertEquals("110101**********77", out.get(n + 3));
+        assertEquals("***4567", out.get(n + 4));
+        assertEquals("139****4321", out.get(n + 5));
+
+        MaskedColumn parallel = new MaskedColumn();
+        BulkDesensitizer.maskParallel(column, SensitiveType.MOBILE_PHONE, parallel, 16);
+        for (int i = 0; i < column.size(); i++) {
+            assertEquals(out.get(i), parallel.get(i));
+        }
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        List<String> values = randomValues(new Random(3), 50_000);
+        MaskedColumn sequential = new MaskedColumn();
+        BulkDesensitizer.mask(values, null, sequential);
+
+        MaskedColumn parallel = new MaskedColumn();
+        for (int round = 0; round < 2; round++) {
+            parallel.clear();
+            BulkDesensitizer.maskParallel(values, null, parallel, 1_000);
+            assertEquals(sequential.size(), parallel.size());
+            assertEquals(sequential.length(), parallel.length());
+            for (int i = 0; i < values.size(); i++) {
+                assertEquals(sequential.get(i), parallel.get(i));
+                assertEquals(sequential.isNull(i), parallel.isNull(i));
+            }
+        }
+
+        // 不支持随机访问的列在当前线程执行
+        MaskedColumn linked = new MaskedColumn();
+        BulkDesensitizer.maskParallel(new LinkedList<>(values), null, linked, 1_000);
+        assertEquals(sequential.length(), linked.length());
+        assertThrows(IllegalArgumentException.class, () -> BulkDesensitizer.maskParallel(values, null, linked, 0));
+    }
+
+    @Test
+    void testCharSequenceInputs() {
+        List<CharSequence> column = List.of(new StringBuilder(" 13812345678 "), CharBuffer.wrap("110101199003077777".toCharArray()));
+        MaskedColumn out = new MaskedColumn();
+        BulkDesensitizer.mask(column, null, out);
+        assertEquals("138****5678", out.get(0));
+        assertEquals("110101**********77", out.get(1));
+    }
+
+    @Test
+    void testMaskedColumnAccessors() throws Exception {
+        MaskedColumn out = new MaskedColumn(1, 1);
+        BulkDesensitizer.mask(Arrays.asList("13812345678", null, "张三"), null, out);
+        assertEquals(3, out.size());
+        assertTrue(out.isNull(1));
+        assertNull(out.get(1));
+        assertNull(out.view(1));
+        assertEquals("张*", out.view(2).toString());
+
+        StringWriter writer = new StringWriter();
+        for (int i = 0; i < out.size(); i++) {
+            out.writeTo(i, writer);
+            writer.write(',');
+        }
+        assertEquals("138****5678,,张*,", writer.toString());
+
+        StringBuilder sb = new StringBuilder();
+        out.appendTo(0, sb);
+        assertEquals("138****5678", sb.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> out.get(3));
+
+        out.clear();
+        assertEquals(0, out.size());
+        BulkDesensitizer.mask("hello", null, out);
+        assertEquals("h***o", out.get(0));
+    }
+}
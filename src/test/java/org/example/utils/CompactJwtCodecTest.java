@@ -0,0 +1,153 @@
+package org.example.utils;
+
+import cn.hutool.jwt.JWT;
+import cn.hutool.jwt.JWTUtil;
+import cn.hutool.jwt.signers.JWTSignerUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CompactJwtCodec 单元测试
+ */
+class CompactJwtCodecTest {
+
+    private static final byte[] KEY = "compact-codec-test-key".getBytes(StandardCharsets.UTF_8);
+
+    private final CompactJwtCodec codec = new CompactJwtCodec(KEY);
+
+    @Test
+    void testEncodeMatchesHutool() {
+        long[][] cases = {{12345L, 1760000000000L}, {0L, 1L}, {-7L, 0L}, {Long.MAX_VALUE, 4102444800000L}};
+        for (long[] c : cases) {
+            String hutool = JWT.create()
+                    .setPayload("userId", c[0])
+                    .setPayload("expire", c[1])
+                    .setKey(KEY)
+                    .sign();
+            assertEquals(hutool, codec.encode(c[0], c[1]));
+        }
+    }
+
+    @Test
+    void testEncodeWithTypeMatchesHutool() {
+        for (JwtTokenType type : JwtTokenType.values()) {
+            String hutool = JWT.create()
+                    .setPayload("userId", 12345L)
+                    .setPayload("expire", 1760000000000L)
+                    .setPayload("typ", type.claim())
+                    .setKey(KEY)
+                    .sign();
+            String token = codec.encode(12345L, 1760000000000L, type);
+            assertEquals(hutool, token);
+            CompactJwtCodec.Claims claims = codec.decode(token);
+            assertTrue(claims.signatureValid());
+            assertEquals(type, claims.type());
+            assertEquals(1760000000000L, claims.expire());
+        }
+        assertNull(codec.decode(codec.encode(1L, 2L)).type());
+
+        String unknownType = JWT.create().setPayload("userId", 1L).setPayload("expire", 2L)
+                .setPayload("typ", "id").setKey(KEY).sign();
+        assertNull(codec.decode(unknownType));
+    }
+
+    @Test
+    void testRoundTrip() {
+        String token = codec.encode(1234567890123456789L, 1760000000000L);
+        CompactJwtCodec.Claims claims = codec.decode(token);
+        assertNotNull(claims);
+        assertTrue(claims.signatureValid());
+        assertEquals(1234567890123456789L, claims.userId());
+        assertEquals(1760000000000L, claims.expire());
+
+        assertTrue(JWTUtil.parseToken(token).verify(JWTSignerUtil.hs256(KEY)));
+    }
+
+    @Test
+    void testDecodeHutoolToken() {
+        String token = JWT.create().setPayload("userId", 42L).setPayload("expire", 99L).setKey(KEY).sign();
+        CompactJwtCodec.Claims claims = codec.decode(token);
+        assertNotNull(claims);
+        assertTrue(claims.signatureValid());
+        assertEquals(42L, claims.userId());
+        assertEquals(99L, claims.expire());
+    }
+
+    @Test
+    void testWrongKeyOrTamperedSignature() {
+        String token = codec.encode(1L, 2L);
+        assertFalse(new CompactJwtCodec("other".getBytes(StandardCharsets.UTF_8)).decode(token).signatureValid());
+
+        // 最后一个字符只有 4 位有效，换成另一个有效位不同的字符
+        String tampered = token.substring(0, token.length() - 1) + (token.endsWith("A") ? "E" : "A");
+        assertFalse(codec.decode(tampered).signatureValid());
+    }
+
+    @Test
+    void testPayloadTamperingFailsSignature() {
+        String token = codec.encode(1L, 2L);
+        String other = codec.encode(2L, 2L);
+        String[] a = token.split("\\.");
+        String[] b = other.split("\\.");
+        CompactJwtCodec.Claims claims = codec.decode(a[0] + "." + b[1] + "." + a[2]);
+        assertNotNull(claims);
+        assertFalse(claims.signatureValid());
+    }
+
+    @Test
+    void testNonCanonicalSignatureIsRejected() {
+        String token = codec.encode(1L, 2L);
+        char last = token.charAt(token.length() - 1);
+        // 签名末字符的低 2 位不参与解码，非规范编码不接受
+        String variant = token.substring(0, token.length() - 1) + (char) (last + 1);
+        assertNull(codec.decode(variant));
+    }
+
+    @Test
+    void testOtherShapesReturnNull() {
+        String extraClaim = JWT.create().setPayload("userId", 1L).setPayload("expire", 2L)
+                .setPayload("role", "admin").setKey(KEY).sign();
+        String reordered = JWT.create().setPayload("expire", 2L).setPayload("userId", 1L).setKey(KEY).sign();
+        String stringId = JWT.create().setPayload("userId", "1").setPayload("expire", 2L).setKey(KEY).sign();
+        String otherAlg = JWT.create().setPayload("userId", 1L).setPayload("expire", 2L)
+                .setSigner(JWTSignerUtil.hs512(KEY)).sign();
+
+        assertNull(codec.decode(extraClaim));
+        assertNull(codec.decode(reordered));
+        assertNull(codec.decode(stringId));
+        assertNull(codec.decode(otherAlg));
+        assertNull(codec.decode("a.b.c"));
+        assertNull(codec.decode(""));
+        assertNull(codec.decode("令牌".repeat(60)));
+    }
+
+    @Test
+    void testKidHeader() {
+        CompactJwtCodec kidCodec = new CompactJwtCodec(KEY, 20381L);
+        String token = kidCodec.encode(5L, 6L);
+        assertEquals("{\"typ\":\"JWT\",\"alg\":\"HS256\",\"kid\":\"20381\"}",
+                new String(java.util.Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.US_ASCII));
+        assertEquals(20381L, CompactJwtCodec.kid(token));
+        assertTrue(kidCodec.decode(token).signatureValid());
+        // 标准 JWT 库可以验签
+        assertTrue(JWTUtil.parseToken(token).verify(JWTSignerUtil.hs256(KEY)));
+        assertEquals("20381", JWTUtil.parseToken(token).getHeader("kid"));
+
+        // 头部不同（kid 不同或不带 kid）不是同一种形状
+        assertNull(codec.decode(token));
+        assertNull(new CompactJwtCodec(KEY, 20382L).decode(token));
+    }
+
+    @Test
+    void testKidParsing() {
+        assertEquals(-1, CompactJwtCodec.kid(codec.encode(1L, 2L)));
+        assertEquals(0, CompactJwtCodec.kid(new CompactJwtCodec(KEY, 0).encode(1L, 2L)));
+        String stringKid = JWT.create().setHeader("kid", "abc").setPayload("userId", 1L).setKey(KEY).sign();
+        assertEquals(-1, CompactJwtCodec.kid(stringKid));
+        assertEquals(-1, CompactJwtCodec.kid("no-dot"));
+        assertEquals(-1, CompactJwtCodec.kid("!!!!.a.b"));
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JwtKeyRing 单元测试
+ */
+class JwtKeyRingTest {
+
+    private static final byte[] SECRET = "key-ring-test-secret".getBytes(StandardCharsets.UTF_8);
+    private static final long HOUR = 3600_000L;
+    private static final long START = 1000 * HOUR;
+
+    @Test
+    void testSignerUsesCurrentEpoch() {
+        JwtKeyRing ring = new JwtKeyRing(SECRET, Duration.ofHours(1), Duration.ofHours(3), START);
+        assertEquals(1000, ring.currentKid());
+        assertEquals(1000, ring.signer(START).kid());
+        assertEquals(1000, CompactJwtCodec.kid(ring.signer(START).encode(1L, 2L)));
+    }
+
+    @Test
+    void testVerifierWindow() {
+        JwtKeyRing ring = new JwtKeyRing(SECRET, Duration.ofHours(1), Duration.ofHours(3), START);
+        // 保留 ceil(3h / 1h) + 1 = 4 个历史 epoch 与下一个 epoch
+        for (long kid = 996; kid <= 1001; kid++) {
+            assertNotNull(ring.verifier(kid), "kid " + kid);
+            assertEquals(kid, ring.verifier(kid).kid());
+        }
+        assertNull(ring.verifier(995));
+        assertNull(ring.verifier(1002));
+        assertNull(ring.verifier(-1));
+    }
+
+    @Test
+    void testAdvanceReusesRetainedCodecs() {
+        JwtKeyRing ring = new JwtKeyRing(SECRET, Duration.ofHours(1), Duration.ofHours(3), START);
+        CompactJwtCodec next = ring.verifier(1001);
+        CompactJwtCodec current = ring.verifier(1000);
+
+        ring.advance(START + HOUR - 1);
+        assertEquals(1000, ring.currentKid());
+
+        ring.advance(START + HOUR);
+        assertEquals(1001, ring.currentKid());
+        assertSame(next, ring.signer(START + HOUR));
+        assertSame(current, ring.verifier(1000));
+        assertNotNull(ring.verifier(1002));
+        assertNull(ring.verifier(996));
+    }
+
+    @Test
+    void testSignerRotatesWhenTickerIsLate() {
+        JwtKeyRing ring = new JwtKeyRing(SECRET, Duration.ofHours(1), Duration.ofHours(3), START);
+        assertEquals(1005, ring.signer(START + 5 * HOUR).kid());
+        assertEquals(1005, ring.currentKid());
+    }
+
+    @Test
+    void testTokenVerifiesAcrossRotation() {
+        JwtKeyRing ring = new JwtKeyRing(SECRET, Duration.ofHours(1), Duration.ofHours(3), START);
+        String token = ring.signer(START).encode(7L, START + 3 * HOUR);
+
+        ring.advance(START + 3 * HOUR);
+        CompactJwtCodec.Claims claims = ring.verifier(CompactJwtCodec.kid(token)).decode(token);
+        assertTrue(claims.signatureValid());
+        assertEquals(7L, claims.userId());
+
+        ring.advance(START + 5 * HOUR);
+        assertNull(ring.verifier(CompactJwtCodec.kid(token)));
+    }
+
+    @Test
+    void testKeysAreDeterministicAcrossNodes() {
+        JwtKeyRing nodeA = new JwtKeyRing(SECRET, Duration.ofHours(1), Duration.ofHours(3), START);
+        JwtKeyRing nodeB = new JwtKeyRing(SECRET.clone(), Duration.ofHours(1), Duration.ofHours(3), START + 10);
+        String token = nodeA.signer(START).encode(1L, 2L);
+        assertTrue(nodeB.verifier(1000).decode(token).signatureValid());
+
+        // 周期不同、主密钥不同时派生出的密钥不同
+        JwtKeyRing otherInterval = new JwtKeyRing(SECRET, Duration.ofMinutes(60).plusMillis(1), Duration.ofHours(3), START);
+        JwtKeyRing otherSecret = new JwtKeyRing("other".getBytes(StandardCharsets.UTF_8), Duration.ofHours(1), Duration.ofHours(3), START);
+        long kid = otherInterval.currentKid();
+        String foreign = otherInterval.signer(START).encode(1L, 2L);
+        if (nodeA.verifier(kid) != null) {
+            assertFalse(nodeA.verifier(kid).decode(foreign).signatureValid());
+        }
+        assertFalse(otherSecret.verifier(1000).decode(token).signatureValid());
+    }
+
+    @Test
+    void testRejectsTooManyRetainedEpochs() {
+        // 1 秒周期、7 天有效期需要保留 604801 个 epoch，拒绝而不是截断保留范围
+        assertThrows(IllegalArgumentException.class,
+                () -> new JwtKeyRing(SECRET, Duration.ofSeconds(1), Duration.ofDays(7), START));
+        long interval = Duration.ofDays(7).toMillis() / (JwtKeyRing.MAX_RETAINED_EPOCHS - 1);
+        assertNotNull(new JwtKeyRing(SECRET, Duration.ofMillis(interval + 1), Duration.ofDays(7), START).signer(START));
+    }
+}
@@ -172,6 +172,48 @@ class JwtUtilTest {
         });
     }
 
+    @Test
+    void testRefreshTokenRejectsAccessToken() {
+        String accessToken = ToolKit.JWT.generateAccessToken(55555L);
+        assertTrue(ToolKit.JWT.validateToken(accessToken));
+        assertThrows(JWTException.class, () -> ToolKit.JWT.refreshToken(accessToken));
+    }
+
+    @Test
+    void testTokenTypeClaim() {
+        String accessToken = ToolKit.JWT.generateAccessToken(1L);
+        String refreshToken = ToolKit.JWT.generateRefreshToken(1L);
+        assertEquals(JwtTokenType.ACCESS, ToolKit.JWT.verify(accessToken).type());
+        assertEquals(JwtTokenType.REFRESH, ToolKit.JWT.verify(refreshToken).type());
+        assertEquals("access", ToolKit.JWT.parseToken(accessToken).get("typ"));
+        assertEquals("refresh", ToolKit.JWT.parseToken(refreshToken).get("typ"));
+
+        // 不带 typ 的旧 token：接受旧 token 时当作访问令牌，仍不能用于刷新
+        byte[] secret = "typ-secret".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        String untyped = cn.hutool.jwt.JWT.create()
+                .setPayload("userId", 1L)
+                .setPayload("expire", System.currentTimeMillis() + 60_000)
+                .setKey(secret)
+                .sign();
+        JwtUtil jwtUtil = new JwtUtil();
+        jwtUtil.configure("typ-secret", java.time.Duration.ofDays(1), true);
+        assertTrue(jwtUtil.validateToken(untyped));
+        assertEquals(JwtTokenType.ACCESS, jwtUtil.verify(untyped).type());
+        assertNull(jwtUtil.parseToken(untyped).get("typ"));
+        assertThrows(JWTException.class, () -> jwtUtil.refreshToken(untyped));
+
+        // 带 kid 但不带 typ 的 token 同样按访问令牌处理
+        String untypedWithKid = new JwtKeyRing(secret, java.time.Duration.ofDays(1), java.time.Duration.ofDays(7))
+                .signer(System.currentTimeMillis()).encode(2L, System.currentTimeMillis() + 60_000);
+        assertEquals(JwtTokenType.ACCESS, jwtUtil.verify(untypedWithKid).type());
+        assertEquals(2L, jwtUtil.verify(untypedWithKid).userId());
+
+        // 关闭后既不是访问令牌也不是刷新令牌
+        jwtUtil.configure("typ-secret", java.time.Duration.ofDays(1), false);
+        assertNull(jwtUtil.verify(untypedWithKid).type());
+        assertThrows(JWTException.class, () -> jwtUtil.refreshToken(untypedWithKid));
+    }
+
     @Test
     void testTokenLifecycle() {
         // 完整的Token生命周期测试
@@ -288,4 +330,127 @@ class JwtUtilTest {
             Long.parseLong(payload2.get("userId").toString())
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void testVerifyReturnsCachedResult() {
+        String token = ToolKit.JWT.generateAccessToken(10086L);
+
+        JwtUtil.VerifiedToken first = ToolKit.JWT.verify(token);
+        assertTrue(first.valid());
+        assertEquals(10086L, first.userId());
+        assertSame(first, ToolKit.JWT.verify(token));
+        assertSame(first.payload(), ToolKit.JWT.parseToken(token));
+    }
+
+    @Test
+    void testVerifyRejectsTamperedSignature() {
+        String token = ToolKit.JWT.generateAccessToken(10086L);
+        assertTrue(ToolKit.JWT.validateToken(token));
+
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+        assertFalse(ToolKit.JWT.verify(tampered).signatureValid());
+        assertFalse(ToolKit.JWT.validateToken(tampered));
+        assertThrows(JWTException.class, () -> ToolKit.JWT.parseToken(tampered));
+    }
+
+    @Test
+    void testPayloadIsReadOnly() {
+        Map<String, Object> payload = ToolKit.JWT.parseToken(ToolKit.JWT.generateAccessToken(1L));
+        assertThrows(UnsupportedOperationException.class, () -> payload.put("userId", 2L));
+    }
+
+    @Test
+    void testTokensCarryRotatingKid() {
+        String token = ToolKit.JWT.generateAccessToken(1L);
+        assertEquals(ToolKit.JWT.currentKid(), CompactJwtCodec.kid(token));
+        assertTrue(ToolKit.JWT.validateToken(token));
+    }
+
+    @Test
+    void testLegacyTokenWithoutKid() {
+        byte[] secret = "legacy-secret".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        String legacy = cn.hutool.jwt.JWT.create()
+                .setPayload("userId", 9L)
+                .setPayload("expire", System.currentTimeMillis() + 60_000)
+                .setKey(secret)
+                .sign();
+
+        JwtUtil jwtUtil = new JwtUtil();
+        jwtUtil.configure("legacy-secret", java.time.Duration.ofHours(1), true);
+        assertTrue(jwtUtil.validateToken(legacy));
+        assertEquals(9L, jwtUtil.verify(legacy).userId());
+
+        jwtUtil.configure("legacy-secret", java.time.Duration.ofHours(1), false);
+        assertFalse(jwtUtil.validateToken(legacy));
+        assertTrue(jwtUtil.validateToken(jwtUtil.generateAccessToken(9L)));
+    }
+
+    @Test
+    void testUnknownKidIsRejected() {
+        JwtUtil jwtUtil = new JwtUtil();
+        String token = jwtUtil.generateAccessToken(1L);
+        long kid = CompactJwtCodec.kid(token);
+        String future = new CompactJwtCodec("whatever".getBytes(), kid + 100).encode(1L, Long.MAX_VALUE - 1);
+        assertFalse(jwtUtil.validateToken(future));
+
+        // 换主密钥后旧 token 失效
+        jwtUtil.configure("another-secret", java.time.Duration.ofDays(1), true);
+        assertFalse(jwtUtil.validateToken(token));
+    }
+
+    @Test
+    void testPreviousSecretsStillVerify() {
+        byte[] secret = "old-secret".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        String legacy = cn.hutool.jwt.JWT.create()
+                .setPayload("userId", 9L)
+                .setPayload("expire", System.currentTimeMillis() + 60_000)
+                .setKey(secret)
+                .sign();
+        JwtUtil jwtUtil = new JwtUtil();
+        jwtUtil.configure("old-secret", java.time.Duration.ofDays(1), true);
+        String token = jwtUtil.generateAccessToken(1L);
+
+        // 换主密钥后旧主密钥只用于验签：旧 token 仍然有效，新 token 用新主密钥签发
+        jwtUtil.configure("new-secret", java.util.List.of("old-secret"), java.time.Duration.ofDays(1), true);
+        assertTrue(jwtUtil.validateToken(token));
+        assertTrue(jwtUtil.validateToken(legacy));
+        assertEquals(1L, jwtUtil.verify(token).userId());
+        String fresh = jwtUtil.generateAccessToken(2L);
+        assertTrue(jwtUtil.validateToken(fresh));
+
+        JwtUtil oldOnly = new JwtUtil();
+        oldOnly.configure("old-secret", java.time.Duration.ofDays(1), true);
+        assertFalse(oldOnly.validateToken(fresh));
+
+        // 移除旧主密钥后旧 token 失效
+        jwtUtil.configure("new-secret", java.util.List.of(), java.time.Duration.ofDays(1), true);
+        assertFalse(jwtUtil.validateToken(token));
+        assertFalse(jwtUtil.validateToken(legacy));
+        assertTrue(jwtUtil.validateToken(fresh));
+    }
+
+    @Test
+    void testConfigureRejectsTooShortRotationInterval() {
+        JwtUtil jwtUtil = new JwtUtil();
+        assertThrows(IllegalArgumentException.class,
+                () -> jwtUtil.configure("secret", java.time.Duration.ofSeconds(1), true));
+    }
+
+    @Test
+    void testRevokedTokenIsRejected() {
+        JwtUtil jwtUtil = new JwtUtil();
+        String token = jwtUtil.generateAccessToken(1L);
+        String other = jwtUtil.generateAccessToken(2L);
+        assertTrue(jwtUtil.validateToken(token));
+
+        assertTrue(jwtUtil.revoke(token));
+        assertFalse(jwtUtil.validateToken(token));
+        assertThrows(JWTException.class, () -> jwtUtil.refreshToken(token));
+        assertTrue(jwtUtil.validateToken(other));
+
+        // 签名无效的 token 不记录
+        assertFalse(jwtUtil.revoke("not.a.token"));
+        assertEquals(1, jwtUtil.revocationList().size());
+    }
+}
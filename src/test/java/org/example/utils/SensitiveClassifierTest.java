@@ -0,0 +1,165 @@
+package org.example.utils;
+
+import cn.hutool.core.util.DesensitizedUtil;
+import cn.hutool.core.util.StrUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * SensitiveClassifier 单元测试
+ * 以原正则实现为基准做差分测试：典型值、边界值及随机生成/变异的输入，脱敏结果必须逐一相同
+ */
+class SensitiveClassifierTest {
+
+    /**
+     * 原 StringUtil.sensitive 的正则实现
+     */
+    private static final class RegexSensitive {
+        private static final Pattern PATTERN_PHONE = Pattern.compile("^1[3-9]\\d{9}$");
+        private static final Pattern PATTERN_ID_CARD = Pattern.compile("^[1-9]\\d{5}(18|19|20)\\d{2}((0[1-9])|(1[0-2]))(([0-2][1-9])|10|20|30|31)\\d{3}[0-9Xx]$");
+        private static final Pattern PATTERN_EMAIL = Pattern.compile("^[a-zA-Z0-9_-]+@[a-zA-Z0-9_-]+(\\.[a-zA-Z0-9_-]+)+$");
+        private static final Pattern PATTERN_LANDLINE = Pattern.compile("^0\\d{2,3}-\\d{7,8}$");
+        private static final Pattern PATTERN_BANK_CARD = Pattern.compile("^\\d{16,19}$");
+        private static final Pattern PATTERN_PLATE_NUMBER = Pattern.compile("^[京津沪渝冀豫云辽黑湘皖鲁新苏浙赣鄂桂甘晋蒙陕吉闽贵粤青藏川宁琼使领A-Z]{1}[A-Z]{1}[A-Z0-9]{4,5}[A-Z0-9挂学警港澳]{1}$");
+        private static final Pattern PATTERN_CHINESE_NAME = Pattern.compile("^[\\u4e00-\\u9fa5]{2,4}$");
+
+        static String sensitive(String str) {
+            if (str == null || str.trim().isEmpty()) {
+                return str;
+            }
+            String trimStr = str.trim();
+            if (PATTERN_PHONE.matcher(trimStr).matches()) {
+                return DesensitizedUtil.mobilePhone(trimStr);
+            } else if (PATTERN_ID_CARD.matcher(trimStr).matches()) {
+                return DesensitizedUtil.idCardNum(trimStr, 6, 2);
+            } else if (PATTERN_EMAIL.matcher(trimStr).matches()) {
+                return DesensitizedUtil.email(trimStr);
+            } else if (PATTERN_LANDLINE.matcher(trimStr).matches()) {
+                return DesensitizedUtil.fixedPhone(trimStr);
+            } else if (PATTERN_BANK_CARD.matcher(trimStr).matches()) {
+                return DesensitizedUtil.bankCard(trimStr);
+            } else if (PATTERN_PLATE_NUMBER.matcher(trimStr).matches()) {
+                return DesensitizedUtil.carLicense(trimStr);
+            } else if (PATTERN_CHINESE_NAME.matcher(trimStr).matches()) {
+                return DesensitizedUtil.chineseName(trimStr);
+            } else if (trimStr.matches("^\\d+$")) {
+                return DesensitizedUtil.idCardNum(trimStr, 0, 4);
+            } else if (trimStr.length() > 5 && trimStr.matches(".*[\\u4e00-\\u9fa5]+.*")) {
+                return DesensitizedUtil.address(trimStr, 8);
+            } else {
+                return StrUtil.hide(trimStr, 1, trimStr.length() - 1);
+            }
+        }
+    }
+
+    private static final String[] SAMPLES = {
+            null, "", " ", "\t\n", "a", "ab", "-", "@", ".",
+            "13812345678", "12812345678", "1381234567", "138123456789", " 13812345678 ", "１3812345678",
+            "110101199003077777", "11010119900307777X", "11010119900307777x", "010101199003077777",
+            "110101179003077777", "110101210003077777", "110101199000077777", "110101199013077777",
+            "110101199001007777", "110101199001327777", "110101199001307777", "110101199001317777",
+            "110101199002297777", "11010119900307777Y", "1101011990030777X7",
+            "user@example.com", "a@b.c", "a@b", "@b.c", "a@.c", "a@b.", "a@b..c", "a.b@c.d", "a@b@c.d",
+            "a-b_c@d-e_f.g-h.i_j", "用户@example.com", "a@b.c\n",
+            "010-12345678", "0101-1234567", "010-123456", "010-123456789", "10-12345678", "01-12345678",
+            "01012-1234567", "010--1234567", "010-1234-567",
+            "6222021234567890123", "6222021234567890", "622202123456789", "62220212345678901234",
+            "京A12345", "京A123456", "京AD12345", "AB12345", "京a12345", "京A1234", "京A1234567", "京A1234学",
+            "京A1234挂X", "挂A12345", "粤B1234警", "使A12345", "京12345A",
+            "张三", "张", "欧阳娜娜", "欧阳娜娜娜", "张3",
+            "1", "1234567", "0", "000000000000000000000",
+            "北京市朝阳区建国路88号", "北京市朝阳区", "北京市朝阳", "abcde中", "abcd中", "中\nabcdef", "abcdef\u2028中",
+            "abcdef\u2029中", "abcdef\u0085中", "abc\r\ndef中", "北京市\t朝阳区",
+            "hello", "Hello World 2024", "order-2024-001", "user_name@localhost", "19912345678X",
+            "𠀀𠀀", "𠀀张三", "张三𠀀𠀀𠀀",
+    };
+
+    private static final String ALPHABET = "0123456789012345678901234567890123456789XxAZaz_-@..京挂学张三\n\u2028 \t#";
+
+    @Test
+    void testSamplesMatchRegexImplementation() {
+        for (String sample : SAMPLES) {
+            assertEquals(RegexSensitive.sensitive(sample), StringUtil.sensitive(sample), "input: " + sample);
+        }
+    }
+
+    @Test
+    void testRandomInputsMatchRegexImplementation() {
+        Random random = new Random(20260101L);
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(22);
+            for (int j = 0; j < len; j++) {
+                sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            String input = sb.toString();
+            assertEquals(RegexSensitive.sensitive(input), StringUtil.sensitive(input), "input: " + input);
+        }
+    }
+
+    @Test
+    void testMutatedSamplesMatchRegexImplementation() {
+        Random random = new Random(20260102L);
+        List<String> seeds = new ArrayList<>();
+        for (String sample : SAMPLES) {
+            if (sample != null && !sample.isEmpty()) {
+                seeds.add(sample);
+            }
+        }
+        for (int i = 0; i < 200_000; i++) {
+            char[] chars = seeds.get(random.nextInt(seeds.size())).toCharArray();
+            int edits = 1 + random.nextInt(2);
+            for (int j = 0; j < edits; j++) {
+                chars[random.nextInt(chars.length)] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            String input = new String(chars);
+            assertEquals(RegexSensitive.sensitive(input), StringUtil.sensitive(input), "input: " + input);
+        }
+    }
+
+    @Test
+    void testClassify() {
+        assertEquals(SensitiveType.MOBILE_PHONE, SensitiveClassifier.classify("13812345678"));
+        assertEquals(SensitiveType.ID_CARD, SensitiveClassifier.classify("11010119900307777X"));
+        assertEquals(SensitiveType.EMAIL, SensitiveClassifier.classify("user@example.com"));
+        assertEquals(SensitiveType.FIXED_PHONE, SensitiveClassifier.classify("010-12345678"));
+        assertEquals(SensitiveType.BANK_CARD, SensitiveClassifier.classify("6222021234567890123"));
+        assertEquals(SensitiveType.CAR_LICENSE, SensitiveClassifier.classify("京A12345"));
+        assertEquals(SensitiveType.CHINESE_NAME, SensitiveClassifier.classify("张三"));
+        assertEquals(SensitiveType.USER_ID, SensitiveClassifier.classify("1234567"));
+        assertEquals(SensitiveType.ADDRESS, SensitiveClassifier.classify("北京市朝阳区建国路88号"));
+        assertEquals(SensitiveType.DEFAULT, SensitiveClassifier.classify("hello"));
+    }
+
+    @Test
+    void testMatchesAgreesWithClassify() {
+        Random random = new Random(20260103L);
+        List<String> inputs = new ArrayList<>();
+        for (String sample : SAMPLES) {
+            if (sample != null && !sample.trim().isEmpty()) {
+                inputs.add(sample.trim());
+            }
+        }
+        for (int i = 0; i < 50_000; i++) {
+            char[] chars = inputs.get(random.nextInt(inputs.size())).toCharArray();
+            chars[random.nextInt(chars.length)] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            String input = new String(chars).trim();
+            if (!input.isEmpty()) {
+                inputs.add(input);
+            }
+        }
+        for (String input : inputs) {
+            SensitiveType actual = SensitiveClassifier.classify(input);
+            for (SensitiveType type : SensitiveType.values()) {
+                assertEquals(actual == type, SensitiveClassifier.matches(type, input, 0, input.length()),
+                        type + " input: " + input);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TokenRevocationList 单元测试
+ */
+class TokenRevocationListTest {
+
+    private static final long FAR_FUTURE = Long.MAX_VALUE / 2;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRevokeAndCheck() {
+        TokenRevocationList list = new TokenRevocationList(null, 100);
+        list.revoke("h.p.sigA", FAR_FUTURE);
+
+        assertTrue(list.isRevoked("h.p.sigA"));
+        // 同一签名段即同一个 token
+        assertTrue(list.isRevoked("x.y.sigA"));
+        assertFalse(list.isRevoked("h.p.sigB"));
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    void testReplayAfterRestart() {
+        Path log = dir.resolve("nested/revocations.log");
+        long now = System.currentTimeMillis();
+        try (TokenRevocationList list = new TokenRevocationList(log, 100)) {
+            list.revoke("h.p.live", now + 60_000);
+            list.revoke("h.p.dead", now - 1);
+        }
+
+        try (TokenRevocationList restarted = new TokenRevocationList(log, 100)) {
+            assertTrue(restarted.isRevoked("h.p.live"));
+            // 已过期的记录不回放
+            assertFalse(restarted.isRevoked("h.p.dead"));
+            assertEquals(1, restarted.size());
+        }
+    }
+
+    @Test
+    void testReplaySkipsTornLines() throws IOException {
+        Path log = dir.resolve("revocations.log");
+        Files.writeString(log, FAR_FUTURE + " sigA\nnot-a-number sigB\n" + FAR_FUTURE + " sigC\n" + FAR_FUTURE, StandardCharsets.US_ASCII);
+
+        try (TokenRevocationList list = new TokenRevocationList(log, 100)) {
+            assertTrue(list.isRevoked("h.p.sigA"));
+            assertFalse(list.isRevoked("h.p.sigB"));
+            assertTrue(list.isRevoked("h.p.sigC"));
+            assertEquals(2, list.size());
+        }
+    }
+
+    @Test
+    void testCompactionRemovesExpiredEntriesAndRewritesLog() throws IOException {
+        Path log = dir.resolve("revocations.log");
+        long now = System.currentTimeMillis();
+        try (TokenRevocationList list = new TokenRevocationList(log, 100)) {
+            list.revoke("h.p.short", now + 1_000);
+            list.revoke("h.p.long", now + 60_000);
+
+            assertEquals(0, list.compact(now));
+            assertEquals(1, list.compact(now + 1_000));
+            assertFalse(list.isRevoked("h.p.short"));
+            assertTrue(list.isRevoked("h.p.long"));
+
+            List<String> lines = Files.readAllLines(log, StandardCharsets.US_ASCII);
+            assertEquals(List.of((now + 60_000) + " long"), lines);
+
+            // 重写后继续追加
+            list.revoke("h.p.more", now + 60_000);
+            assertEquals(2, Files.readAllLines(log, StandardCharsets.US_ASCII).size());
+        }
+    }
+
+    @Test
+    void testCompactionRewritesLogWithExpiredReplayedLines() throws IOException {
+        Path log = dir.resolve("revocations.log");
+        Files.writeString(log, "1 old\n" + FAR_FUTURE + " live\n", StandardCharsets.US_ASCII);
+        try (TokenRevocationList list = new TokenRevocationList(log, 100)) {
+            assertEquals(0, list.compact(System.currentTimeMillis()));
+            assertEquals(List.of(FAR_FUTURE + " live"), Files.readAllLines(log, StandardCharsets.US_ASCII));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * VerifiedTokenCache 单元测试
+ */
+class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void testHitRequiresSameToken() {
+        VerifiedTokenCache<String> cache = new VerifiedTokenCache<>(16, 60_000);
+        cache.put("h.p.sig", "value", Long.MAX_VALUE, NOW);
+
+        assertEquals("value", cache.get("h.p.sig", NOW + 1));
+        // 签名段相同但载荷不同：哈希相同，完整比较后不命中
+        assertNull(cache.get("h.other.sig", NOW + 1));
+        assertNull(cache.get("h.p.sig2", NOW + 1));
+    }
+
+    @Test
+    void testEntryNeverOutlivesTokenExpire() {
+        VerifiedTokenCache<String> cache = new VerifiedTokenCache<>(16, 60_000);
+        cache.put("h.p.sig", "value", NOW + 1000, NOW);
+
+        assertEquals("value", cache.get("h.p.sig", NOW + 999));
+        assertNull(cache.get("h.p.sig", NOW + 1000));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testEntryExpiresAfterMaxTtl() {
+        VerifiedTokenCache<String> cache = new VerifiedTokenCache<>(16, 60_000);
+        cache.put("h.p.sig", "value", Long.MAX_VALUE, NOW);
+
+        assertEquals("value", cache.get("h.p.sig", NOW + 59_999));
+        assertNull(cache.get("h.p.sig", NOW + 60_000));
+    }
+
+    @Test
+    void testExpiredTokenIsNotCached() {
+        VerifiedTokenCache<String> cache = new VerifiedTokenCache<>(16, 60_000);
+        cache.put("h.p.sig", "value", NOW, NOW);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testFullCacheSweepsExpiredEntries() {
+        VerifiedTokenCache<String> cache = new VerifiedTokenCache<>(2, 60_000);
+        cache.put("h.p.a", "a", NOW + 10, NOW);
+        cache.put("h.p.b", "b", Long.MAX_VALUE, NOW);
+
+        // 已满且没有过期条目：不缓存
+        cache.put("h.p.c", "c", Long.MAX_VALUE, NOW);
+        assertNull(cache.get("h.p.c", NOW));
+
+        // a 过期后写入时被清理，腾出空位
+        cache.put("h.p.d", "d", Long.MAX_VALUE, NOW + 5000);
+        assertEquals("d", cache.get("h.p.d", NOW + 5000));
+        assertEquals("b", cache.get("h.p.b", NOW + 5000));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testHashUsesSignatureSegment() {
+        assertEquals(VerifiedTokenCache.hash("a.b.sig"), VerifiedTokenCache.hash("x.y.sig"));
+        assertNotEquals(VerifiedTokenCache.hash("a.b.sig"), VerifiedTokenCache.hash("a.b.sih"));
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.validator.constraint;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.example.utils.SensitiveClassifier;
+import org.example.utils.StringUtil;
+import org.example.validator.annotation.IdCard;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * IdCardValidator 单元测试
+ */
+class IdCardValidatorTest {
+
+    /**
+     * 原校验器使用的正则
+     */
+    private static final Pattern REGEX = Pattern.compile("^[1-9]\\d{5}(18|19|20)\\d{2}((0[1-9])|(1[0-2]))(([0-2][1-9])|10|20|30|31)\\d{3}[0-9Xx]$");
+
+    private static ValidatorFactory factory;
+    private static Validator validator;
+
+    static class Person {
+        @IdCard
+        String idCard;
+
+        @IdCard(required = false)
+        String optionalIdCard;
+
+        Person(String idCard, String optionalIdCard) {
+            this.idCard = idCard;
+            this.optionalIdCard = optionalIdCard;
+        }
+    }
+
+    @BeforeAll
+    static void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factory.close();
+    }
+
+    /**
+     * 为前 17 位补上 GB 11643-1999 校验码
+     */
+    private static String withCheckCode(String first17) {
+        int[] weights = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+        int sum = 0;
+        for (int i = 0; i < 17; i++) {
+            sum += (first17.charAt(i) - '0') * weights[i];
+        }
+        return first17 + "10X98765432".charAt(sum % 11);
+    }
+
+    @Test
+    void testValidIdCards() {
+        assertTrue(StringUtil.isIdCard("11010519491231002X"));
+        assertTrue(StringUtil.isIdCard("11010519491231002x"));
+        assertTrue(StringUtil.isIdCard(withCheckCode("11010120000229123")));
+        assertTrue(StringUtil.isIdCard(withCheckCode("11010119960229123")));
+        assertTrue(StringUtil.isIdCard(withCheckCode("44030419991231001")));
+    }
+
+    @Test
+    void testRejectsWhatRegexAccepts() {
+        String[] invalid = {
+                // 校验码错误
+                "110105194912310021",
+                "110101199003077777",
+                // 2 月 30 日、31 日
+                withCheckCode("11010119900230123"),
+                withCheckCode("11010119900231123"),
+                // 非闰年的 2 月 29 日（1900 能被 100 整除但不能被 400 整除）
+                withCheckCode("11010119900229123"),
+                withCheckCode("11010119000229123"),
+                // 小月的 31 日
+                withCheckCode("11010119900431123"),
+                withCheckCode("11010119901131123"),
+        };
+        for (String idCard : invalid) {
+            assertTrue(REGEX.matcher(idCard).matches(), idCard);
+            assertFalse(StringUtil.isIdCard(idCard), idCard);
+        }
+    }
+
+    @Test
+    void testRejectsMalformed() {
+        String[] invalid = {null, "", "11010519491231002", "11010519491231002X1", "01010519491231002X",
+                "11010517491231002X", "11010519491331002X", "11010519491200002X", "1101051949123100XX",
+                "11010519491231002Y", " 11010519491231002X", "１1010519491231002X"};
+        for (String idCard : invalid) {
+            assertFalse(StringUtil.isIdCard(idCard), idCard);
+        }
+    }
+
+    @Test
+    void testFormatMatchesRegexAndAcceptedIsSubset() {
+        Random random = new Random(11643);
+        int accepted = 0;
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder sb = new StringBuilder("1101");
+            sb.append(random.nextInt(100) < 50 ? "01" : "05");
+            sb.append(1800 + random.nextInt(300));
+            sb.append(String.format("%02d%02d", random.nextInt(14), random.nextInt(33)));
+            sb.append(String.format("%03d", random.nextInt(1000)));
+            int check = random.nextInt(12);
+            sb.append(check == 10 ? 'X' : check == 11 ? 'x' : (char) ('0' + check));
+            String idCard = sb.toString();
+            assertEquals(REGEX.matcher(idCard).matches(), SensitiveClassifier.isIdCardFormat(idCard), idCard);
+            if (StringUtil.isIdCard(idCard)) {
+                accepted++;
+                assertTrue(REGEX.matcher(idCard).matches(), idCard);
+            }
+        }
+        assertTrue(accepted > 0);
+    }
+
+    @Test
+    void testAnnotationUsesIdCardValidator() {
+        assertEquals(0, validator.validate(new Person("11010519491231002X", null)).size());
+        assertEquals(0, validator.validate(new Person("11010519491231002X", " ")).size());
+        // 原先 @IdCard 映射到手机号校验器
+        assertEquals(1, validator.validate(new Person("13812345678", null)).size());
+        assertEquals(1, validator.validate(new Person("110105194912310021", null)).size());
+        assertEquals(1, validator.validate(new Person(null, null)).size());
+        assertEquals(1, validator.validate(new Person("11010519491231002X", "110105194912310021")).size());
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.validator.constraint;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.example.utils.StringUtil;
+import org.example.validator.annotation.Mobile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MobileValidator 单元测试
+ */
+class MobileValidatorTest {
+
+    /**
+     * 原校验器使用的正则
+     */
+    private static final Pattern REGEX = Pattern.compile("^1[3-9]\\d{9}$");
+
+    static class Contact {
+        @Mobile
+        String phone;
+
+        @Mobile(required = false)
+        String backupPhone;
+
+        Contact(String phone, String backupPhone) {
+            this.phone = phone;
+            this.backupPhone = backupPhone;
+        }
+    }
+
+    @Test
+    void testIsMobile() {
+        assertTrue(StringUtil.isMobile("13812345678"));
+        assertTrue(StringUtil.isMobile("19912345678"));
+        assertFalse(StringUtil.isMobile(null));
+        assertFalse(StringUtil.isMobile("12812345678"));
+        assertFalse(StringUtil.isMobile("1381234567"));
+        assertFalse(StringUtil.isMobile("138123456789"));
+        assertFalse(StringUtil.isMobile(" 13812345678"));
+        assertFalse(StringUtil.isMobile("1381234567a"));
+        assertFalse(StringUtil.isMobile("１3812345678"));
+    }
+
+    @Test
+    void testMatchesRegex() {
+        Random random = new Random(13);
+        String alphabet = "0123456789013a ";
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = 9 + random.nextInt(4);
+            for (int j = 0; j < len; j++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            if (random.nextBoolean()) {
+                sb.setCharAt(0, '1');
+            }
+            String phone = sb.toString();
+            assertEquals(REGEX.matcher(phone).matches(), StringUtil.isMobile(phone), phone);
+        }
+    }
+
+    @Test
+    void testAnnotation() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+            assertEquals(0, validator.validate(new Contact("13812345678", null)).size());
+            assertEquals(0, validator.validate(new Contact("13812345678", "")).size());
+            assertEquals(1, validator.validate(new Contact("12812345678", null)).size());
+            assertEquals(1, validator.validate(new Contact(" ", null)).size());
+            assertEquals(1, validator.validate(new Contact("13812345678", "1381234567")).size());
+        }
+    }
+}